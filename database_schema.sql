@@ -8,6 +8,7 @@
 -- \c hackathon_manager;
 
 -- Drop tables if they exist (for clean setup)
+DROP TABLE IF EXISTS team_score CASCADE;
 DROP TABLE IF EXISTS valutazione CASCADE;
 DROP TABLE IF EXISTS progress CASCADE;
 DROP TABLE IF EXISTS richiesta_join CASCADE;
@@ -39,10 +40,13 @@ CREATE TABLE hackathon (
     organizzatore_id INTEGER REFERENCES utente(id),
     max_partecipanti INTEGER DEFAULT 100,
     max_team INTEGER DEFAULT 20,
-    registrazioni_aperte BOOLEAN DEFAULT FALSE,
+    stato VARCHAR(25) NOT NULL DEFAULT 'BOZZA'
+        CHECK (stato IN ('BOZZA', 'REGISTRAZIONI_APERTE', 'REGISTRAZIONI_CHIUSE', 'IN_CORSO', 'CONCLUSO')),
     descrizione_problema TEXT,
-    evento_avviato BOOLEAN DEFAULT FALSE,
-    evento_concluso BOOLEAN DEFAULT FALSE,
+    partecipanti_confermati INTEGER NOT NULL DEFAULT 0,
+    posti_occupati INTEGER NOT NULL DEFAULT 0,
+    num_team INTEGER NOT NULL DEFAULT 0,
+    versione INTEGER NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
@@ -53,6 +57,8 @@ CREATE TABLE team (
     hackathon_id INTEGER REFERENCES hackathon(id) ON DELETE CASCADE,
     capo_team_id INTEGER REFERENCES utente(id),
     dimensione_massima INTEGER DEFAULT 4,
+    num_membri INTEGER NOT NULL DEFAULT 0,
+    versione INTEGER NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     UNIQUE(nome, hackathon_id)
 );
@@ -110,28 +116,41 @@ CREATE TABLE valutazione (
     voto INTEGER NOT NULL CHECK (voto >= 0 AND voto <= 10),
     commento TEXT,
     data_valutazione TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    versione INTEGER NOT NULL DEFAULT 0,
     UNIQUE(giudice_id, team_id)
 );
 
+-- Create team_score table: riepilogo dei voti di ogni team, mantenuto dal trigger su valutazione
+CREATE TABLE team_score (
+    team_id INTEGER PRIMARY KEY REFERENCES team(id) ON DELETE CASCADE,
+    hackathon_id INTEGER NOT NULL REFERENCES hackathon(id) ON DELETE CASCADE,
+    somma INTEGER NOT NULL,
+    numero INTEGER NOT NULL,
+    media NUMERIC GENERATED ALWAYS AS (somma::numeric / NULLIF(numero, 0)) STORED,
+    ultimo_aggiornamento TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
 -- Create indexes for better performance
 CREATE INDEX idx_utente_login ON utente(login);
 CREATE INDEX idx_utente_email ON utente(email);
 CREATE INDEX idx_utente_ruolo ON utente(ruolo);
+CREATE INDEX idx_utente_nome_cognome_id ON utente(nome, cognome, id);
 
 CREATE INDEX idx_hackathon_organizzatore ON hackathon(organizzatore_id);
-CREATE INDEX idx_hackathon_data_inizio ON hackathon(data_inizio);
-CREATE INDEX idx_hackathon_registrazioni_aperte ON hackathon(registrazioni_aperte);
-CREATE INDEX idx_hackathon_evento_avviato ON hackathon(evento_avviato);
+CREATE INDEX idx_hackathon_data_inizio_id ON hackathon(data_inizio, id);
+CREATE INDEX idx_hackathon_stato_data_inizio ON hackathon(stato, data_inizio);
 
 CREATE INDEX idx_team_hackathon ON team(hackathon_id);
 CREATE INDEX idx_team_capo_team ON team(capo_team_id);
+CREATE INDEX idx_team_nome_id ON team(nome, id);
 
 CREATE INDEX idx_team_members_team ON team_members(team_id);
 CREATE INDEX idx_team_members_utente ON team_members(utente_id);
 
 CREATE INDEX idx_registrazione_utente ON registrazione(utente_id);
-CREATE INDEX idx_registrazione_hackathon ON registrazione(hackathon_id);
+CREATE INDEX idx_registrazione_hackathon_ruolo ON registrazione(hackathon_id, ruolo);
 CREATE INDEX idx_registrazione_confermata ON registrazione(confermata);
+CREATE INDEX idx_registrazione_data_id ON registrazione(data_registrazione, id);
 
 CREATE INDEX idx_richiesta_join_utente ON richiesta_join(utente_id);
 CREATE INDEX idx_richiesta_join_team ON richiesta_join(team_id);
@@ -146,6 +165,153 @@ CREATE INDEX idx_valutazione_team ON valutazione(team_id);
 CREATE INDEX idx_valutazione_hackathon ON valutazione(hackathon_id);
 CREATE INDEX idx_valutazione_voto ON valutazione(voto);
 
+CREATE INDEX idx_team_score_classifica ON team_score(hackathon_id, media DESC, team_id);
+
+-- Contatori denormalizzati di hackathon e team, mantenuti dai trigger nella stessa transazione
+-- della modifica: ogni percorso di scrittura (DAO, importazione con COPY, cancellazioni a cascata)
+-- li aggiorna. I trigger sono per istruzione e usano le tabelle di transizione, così un inserimento
+-- massivo aggiorna ogni contatore una volta sola. ManutenzioneContatori li verifica e li ricalcola.
+-- posti_occupati conta le registrazioni da partecipante, confermate o no: è la capienza verificata
+-- da registraSeDisponibile e haRaggiuntoLimitePartecipanti. partecipanti_confermati conta le
+-- registrazioni confermate di qualsiasi ruolo ed è usato solo per le statistiche.
+CREATE OR REPLACE FUNCTION aggiorna_contatori_registrazione() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        UPDATE hackathon h SET partecipanti_confermati = h.partecipanti_confermati - d.confermate,
+            posti_occupati = h.posti_occupati - d.partecipanti
+        FROM (SELECT hackathon_id, COUNT(*) FILTER (WHERE confermata) AS confermate,
+                COUNT(*) FILTER (WHERE ruolo = 'PARTECIPANTE') AS partecipanti
+              FROM vecchie GROUP BY hackathon_id) d
+        WHERE h.id = d.hackathon_id AND (d.confermate > 0 OR d.partecipanti > 0);
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        UPDATE hackathon h SET partecipanti_confermati = h.partecipanti_confermati + d.confermate,
+            posti_occupati = h.posti_occupati + d.partecipanti
+        FROM (SELECT hackathon_id, COUNT(*) FILTER (WHERE confermata) AS confermate,
+                COUNT(*) FILTER (WHERE ruolo = 'PARTECIPANTE') AS partecipanti
+              FROM nuove GROUP BY hackathon_id) d
+        WHERE h.id = d.hackathon_id AND (d.confermate > 0 OR d.partecipanti > 0);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Un UPDATE su team (num_membri, versione, nome) non cambia quasi mai l'hackathon: vengono toccati
+-- solo gli hackathon dei team spostati, così le modifiche ai team non bloccano la riga dell'hackathon.
+CREATE OR REPLACE FUNCTION aggiorna_num_team() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        UPDATE hackathon h SET num_team = h.num_team + d.n
+        FROM (SELECT hackathon_id, SUM(delta) AS n FROM (
+                SELECT v.hackathon_id, -1 AS delta FROM vecchie v JOIN nuove w ON w.id = v.id
+                WHERE v.hackathon_id IS DISTINCT FROM w.hackathon_id
+                UNION ALL
+                SELECT w.hackathon_id, 1 AS delta FROM vecchie v JOIN nuove w ON w.id = v.id
+                WHERE v.hackathon_id IS DISTINCT FROM w.hackathon_id) spostati
+              GROUP BY hackathon_id HAVING SUM(delta) <> 0) d
+        WHERE h.id = d.hackathon_id;
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'DELETE' THEN
+        UPDATE hackathon h SET num_team = h.num_team - d.n
+        FROM (SELECT hackathon_id, COUNT(*) AS n FROM vecchie GROUP BY hackathon_id) d
+        WHERE h.id = d.hackathon_id;
+    ELSE
+        UPDATE hackathon h SET num_team = h.num_team + d.n
+        FROM (SELECT hackathon_id, COUNT(*) AS n FROM nuove GROUP BY hackathon_id) d
+        WHERE h.id = d.hackathon_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- num_membri conta le righe di team_members escluso il capo team, che non vi è memorizzato ma
+-- occupa comunque un posto: i posti occupati di un team sono num_membri + 1 se ha un capo.
+CREATE OR REPLACE FUNCTION aggiorna_num_membri() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        UPDATE team t SET num_membri = t.num_membri - d.n
+        FROM (SELECT v.team_id, COUNT(*) AS n FROM vecchie v JOIN team c ON c.id = v.team_id
+              WHERE v.utente_id IS DISTINCT FROM c.capo_team_id GROUP BY v.team_id) d
+        WHERE t.id = d.team_id;
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        UPDATE team t SET num_membri = t.num_membri + d.n
+        FROM (SELECT n.team_id, COUNT(*) AS n FROM nuove n JOIN team c ON c.id = n.team_id
+              WHERE n.utente_id IS DISTINCT FROM c.capo_team_id GROUP BY n.team_id) d
+        WHERE t.id = d.team_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Se cambia il capo team, il vecchio capo eventualmente presente in team_members inizia a
+-- contare e il nuovo smette: num_membri viene ricalcolato per il solo team modificato
+CREATE OR REPLACE FUNCTION ricalcola_num_membri_capo() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE team SET num_membri = (SELECT COUNT(*) FROM team_members tm
+        WHERE tm.team_id = NEW.id AND tm.utente_id IS DISTINCT FROM NEW.capo_team_id)
+    WHERE id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_registrazione_insert AFTER INSERT ON registrazione
+    REFERENCING NEW TABLE AS nuove FOR EACH STATEMENT EXECUTE FUNCTION aggiorna_contatori_registrazione();
+CREATE TRIGGER trg_registrazione_update AFTER UPDATE ON registrazione
+    REFERENCING OLD TABLE AS vecchie NEW TABLE AS nuove FOR EACH STATEMENT EXECUTE FUNCTION aggiorna_contatori_registrazione();
+CREATE TRIGGER trg_registrazione_delete AFTER DELETE ON registrazione
+    REFERENCING OLD TABLE AS vecchie FOR EACH STATEMENT EXECUTE FUNCTION aggiorna_contatori_registrazione();
+
+CREATE TRIGGER trg_team_insert AFTER INSERT ON team
+    REFERENCING NEW TABLE AS nuove FOR EACH STATEMENT EXECUTE FUNCTION aggiorna_num_team();
+CREATE TRIGGER trg_team_update AFTER UPDATE ON team
+    REFERENCING OLD TABLE AS vecchie NEW TABLE AS nuove FOR EACH STATEMENT EXECUTE FUNCTION aggiorna_num_team();
+CREATE TRIGGER trg_team_delete AFTER DELETE ON team
+    REFERENCING OLD TABLE AS vecchie FOR EACH STATEMENT EXECUTE FUNCTION aggiorna_num_team();
+
+CREATE TRIGGER trg_team_capo_update AFTER UPDATE OF capo_team_id ON team
+    FOR EACH ROW WHEN (OLD.capo_team_id IS DISTINCT FROM NEW.capo_team_id)
+    EXECUTE FUNCTION ricalcola_num_membri_capo();
+
+CREATE TRIGGER trg_team_members_insert AFTER INSERT ON team_members
+    REFERENCING NEW TABLE AS nuove FOR EACH STATEMENT EXECUTE FUNCTION aggiorna_num_membri();
+CREATE TRIGGER trg_team_members_update AFTER UPDATE ON team_members
+    REFERENCING OLD TABLE AS vecchie NEW TABLE AS nuove FOR EACH STATEMENT EXECUTE FUNCTION aggiorna_num_membri();
+CREATE TRIGGER trg_team_members_delete AFTER DELETE ON team_members
+    REFERENCING OLD TABLE AS vecchie FOR EACH STATEMENT EXECUTE FUNCTION aggiorna_num_membri();
+
+-- Classifica: team_score è aggiornata nella stessa transazione di ogni modifica a valutazione,
+-- prima sottraendo i voti vecchi, poi sommando i nuovi; i team rimasti senza voti sono rimossi.
+-- ManutenzioneClassifica la verifica e la ricostruisce dai voti.
+CREATE OR REPLACE FUNCTION aggiorna_team_score() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        UPDATE team_score s SET somma = s.somma - d.somma, numero = s.numero - d.numero,
+            ultimo_aggiornamento = CURRENT_TIMESTAMP
+        FROM (SELECT team_id, SUM(voto) AS somma, COUNT(*) AS numero FROM vecchie GROUP BY team_id) d
+        WHERE s.team_id = d.team_id;
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        INSERT INTO team_score (team_id, hackathon_id, somma, numero)
+        SELECT team_id, MAX(hackathon_id), SUM(voto), COUNT(*) FROM nuove GROUP BY team_id
+        ON CONFLICT (team_id) DO UPDATE SET somma = team_score.somma + EXCLUDED.somma,
+            numero = team_score.numero + EXCLUDED.numero, ultimo_aggiornamento = CURRENT_TIMESTAMP;
+    END IF;
+    IF TG_OP <> 'INSERT' THEN
+        DELETE FROM team_score WHERE numero = 0 AND team_id IN (SELECT team_id FROM vecchie);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_valutazione_insert AFTER INSERT ON valutazione
+    REFERENCING NEW TABLE AS nuove FOR EACH STATEMENT EXECUTE FUNCTION aggiorna_team_score();
+CREATE TRIGGER trg_valutazione_update AFTER UPDATE ON valutazione
+    REFERENCING OLD TABLE AS vecchie NEW TABLE AS nuove FOR EACH STATEMENT EXECUTE FUNCTION aggiorna_team_score();
+CREATE TRIGGER trg_valutazione_delete AFTER DELETE ON valutazione
+    REFERENCING OLD TABLE AS vecchie FOR EACH STATEMENT EXECUTE FUNCTION aggiorna_team_score();
+
 -- Insert sample data for testing
 INSERT INTO utente (login, password, nome, cognome, email, ruolo) VALUES
 ('admin', 'admin123', 'Admin', 'System', 'admin@hackathon.com', 'ORGANIZZATORE'),
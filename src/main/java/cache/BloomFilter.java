@@ -0,0 +1,132 @@
+package cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro di Bloom per stringhe: un insieme probabilistico compatto che non dà mai falsi
+ * negativi. Se {@link #forsePresente(String)} restituisce false il valore non è mai stato
+ * aggiunto; se restituisce true il valore è probabilmente presente, con la probabilità
+ * di errore scelta alla creazione finché gli elementi non superano quelli attesi.
+ * <p>
+ * Con probabilità di falsi positivi dell'1% servono circa 9,6 bit e 7 hash per elemento,
+ * cioè circa 1,14 MiB per milione di elementi indipendentemente dalla lunghezza delle stringhe.
+ * Le operazioni sono sicure per l'uso da più thread senza lock.
+ */
+public class BloomFilter {
+    private final AtomicLongArray bit;
+    private final long numeroBit;
+    private final int numeroHash;
+
+    /**
+     * Costruttore per un filtro dimensionato sugli elementi attesi
+     *
+     * @param elementiAttesi           il numero di elementi previsto
+     * @param probabilitaFalsiPositivi la probabilità di falso positivo desiderata, tra 0 e 1
+     */
+    public BloomFilter(long elementiAttesi, double probabilitaFalsiPositivi) {
+        if (elementiAttesi <= 0 || probabilitaFalsiPositivi <= 0 || probabilitaFalsiPositivi >= 1) {
+            throw new IllegalArgumentException("Parametri del filtro non validi: elementi=" + elementiAttesi +
+                    ", probabilità=" + probabilitaFalsiPositivi);
+        }
+        long parole = (numeroBitOttimale(elementiAttesi, probabilitaFalsiPositivi) + 63) / 64;
+        if (parole > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Filtro troppo grande per " + elementiAttesi + " elementi");
+        }
+        this.bit = new AtomicLongArray((int) parole);
+        this.numeroBit = parole * 64;
+        this.numeroHash = Math.max(1, (int) Math.round((double) numeroBit / elementiAttesi * Math.log(2)));
+    }
+
+    /**
+     * Calcola la memoria occupata dai bit di un filtro, utile per dimensionarlo
+     *
+     * @param elementi                 il numero di elementi
+     * @param probabilitaFalsiPositivi la probabilità di falso positivo
+     * @return i byte necessari
+     */
+    public static long byteNecessari(long elementi, double probabilitaFalsiPositivi) {
+        return (numeroBitOttimale(elementi, probabilitaFalsiPositivi) + 63) / 64 * 8;
+    }
+
+    private static long numeroBitOttimale(long elementi, double probabilitaFalsiPositivi) {
+        return (long) Math.ceil(-elementi * Math.log(probabilitaFalsiPositivi) / (Math.log(2) * Math.log(2)));
+    }
+
+    /**
+     * Aggiunge un valore al filtro
+     *
+     * @param valore il valore da aggiungere
+     */
+    public void aggiungi(String valore) {
+        long h1 = hash(valore);
+        long h2 = mescola(h1 ^ 0x9E3779B97F4A7C15L) | 1; // dispari: i k indici sono distinti
+        for (int i = 0; i < numeroHash; i++) {
+            long indice = Math.floorMod(h1 + i * h2, numeroBit);
+            int parola = (int) (indice >>> 6);
+            long maschera = 1L << indice;
+            if ((bit.get(parola) & maschera) == 0) {
+                bit.getAndAccumulate(parola, maschera, (a, b) -> a | b);
+            }
+        }
+    }
+
+    /**
+     * Verifica se un valore può essere stato aggiunto al filtro
+     *
+     * @param valore il valore da cercare
+     * @return false se il valore sicuramente non è stato aggiunto, true se probabilmente sì
+     */
+    public boolean forsePresente(String valore) {
+        long h1 = hash(valore);
+        long h2 = mescola(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < numeroHash; i++) {
+            long indice = Math.floorMod(h1 + i * h2, numeroBit);
+            if ((bit.get((int) (indice >>> 6)) & (1L << indice)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stima la probabilità di falso positivo attuale dalla frazione di bit impostati
+     *
+     * @return la probabilità stimata, tra 0 e 1
+     */
+    public double getProbabilitaFalsiPositiviStimata() {
+        long impostati = 0;
+        for (int i = 0; i < bit.length(); i++) {
+            impostati += Long.bitCount(bit.get(i));
+        }
+        return Math.pow((double) impostati / numeroBit, numeroHash);
+    }
+
+    /**
+     * FNV-1a a 64 bit sui caratteri, seguito da un rimescolamento finale
+     */
+    private static long hash(String valore) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < valore.length(); i++) {
+            h ^= valore.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mescola(h);
+    }
+
+    /**
+     * Finalizzatore di MurmurHash3: distribuisce ogni bit dell'ingresso su tutta l'uscita
+     */
+    private static long mescola(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // Getters
+    public long getNumeroBit() { return numeroBit; }
+    public int getNumeroHash() { return numeroHash; }
+    public long getByteOccupati() { return numeroBit / 8; }
+}
@@ -0,0 +1,179 @@
+package cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cache in memoria con numero massimo di voci e scadenza.
+ * Quando la cache è piena viene rimossa la voce usata meno di recente; una voce
+ * più vecchia del TTL viene scartata alla lettura. I valori null non vengono memorizzati.
+ * È sicura per l'uso da più thread.
+ *
+ * @param <K> il tipo delle chiavi
+ * @param <V> il tipo dei valori
+ */
+public class CacheLRU<K, V> {
+    private final int dimensioneMassima;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Voce<V>> voci;
+
+    private long hit;
+    private long miss;
+    private long rimozioni;
+    private long scadute;
+
+    /**
+     * Incrementata a ogni invalidazione: un valore caricato mentre la cache veniva
+     * invalidata potrebbe essere già vecchio e non viene memorizzato
+     */
+    private long generazione;
+
+    /**
+     * Valore memorizzato con il suo istante di scadenza
+     */
+    private static class Voce<V> {
+        private final V valore;
+        private final long scadenza;
+
+        Voce(V valore, long scadenza) {
+            this.valore = valore;
+            this.scadenza = scadenza;
+        }
+    }
+
+    /**
+     * Costruttore per una cache limitata
+     *
+     * @param dimensioneMassima il numero massimo di voci
+     * @param ttl               la durata di validità di ogni voce
+     */
+    public CacheLRU(int dimensioneMassima, Duration ttl) {
+        if (dimensioneMassima <= 0 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Parametri della cache non validi: dimensione=" +
+                    dimensioneMassima + ", ttl=" + ttl);
+        }
+        this.dimensioneMassima = dimensioneMassima;
+        this.ttlNanos = ttl.toNanos();
+        this.voci = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Voce<V>> piuVecchia) {
+                if (size() > CacheLRU.this.dimensioneMassima) {
+                    rimozioni++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Ottiene un valore dalla cache
+     *
+     * @param chiave la chiave
+     * @return il valore o null se assente o scaduto
+     */
+    public synchronized V get(K chiave) {
+        Voce<V> voce = voci.get(chiave);
+        if (voce == null) {
+            miss++;
+            return null;
+        }
+        if (System.nanoTime() - voce.scadenza > 0) {
+            voci.remove(chiave);
+            scadute++;
+            miss++;
+            return null;
+        }
+        hit++;
+        return voce.valore;
+    }
+
+    /**
+     * Ottiene un valore dalla cache o, se manca, lo carica e lo memorizza.
+     * Il caricamento avviene fuori dal lock, quindi una lettura lenta dal database
+     * non blocca gli altri thread
+     *
+     * @param chiave     la chiave
+     * @param caricatore carica il valore in caso di miss
+     * @return il valore, eventualmente appena caricato
+     */
+    public V get(K chiave, Function<? super K, ? extends V> caricatore) {
+        long generazioneLettura;
+        synchronized (this) {
+            V valore = get(chiave);
+            if (valore != null) {
+                return valore;
+            }
+            generazioneLettura = generazione;
+        }
+
+        V caricato = caricatore.apply(chiave);
+        put(chiave, caricato, generazioneLettura);
+        return caricato;
+    }
+
+    /**
+     * Memorizza un valore, rimuovendo se necessario la voce usata meno di recente
+     *
+     * @param chiave la chiave
+     * @param valore il valore, ignorato se null
+     */
+    public synchronized void put(K chiave, V valore) {
+        if (valore != null) {
+            voci.put(chiave, new Voce<>(valore, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    /**
+     * Memorizza un valore letto dal database dopo {@link #getGenerazione()}, solo se
+     * nel frattempo la cache non è stata invalidata
+     *
+     * @param chiave              la chiave
+     * @param valore              il valore, ignorato se null
+     * @param generazioneLettura  la generazione ottenuta prima della lettura
+     */
+    public synchronized void put(K chiave, V valore, long generazioneLettura) {
+        if (generazioneLettura == generazione) {
+            put(chiave, valore);
+        }
+    }
+
+    /**
+     * Ottiene il contatore delle invalidazioni, da leggere prima di caricare
+     * un valore da memorizzare con {@link #put(Object, Object, long)}
+     *
+     * @return la generazione corrente
+     */
+    public synchronized long getGenerazione() {
+        return generazione;
+    }
+
+    /**
+     * Rimuove una voce dalla cache
+     *
+     * @param chiave la chiave da invalidare
+     */
+    public synchronized void invalida(K chiave) {
+        voci.remove(chiave);
+        generazione++;
+    }
+
+    /**
+     * Svuota la cache
+     */
+    public synchronized void invalidaTutto() {
+        voci.clear();
+        generazione++;
+    }
+
+    /**
+     * Ottiene le statistiche di utilizzo accumulate dalla creazione della cache
+     *
+     * @return le statistiche correnti
+     */
+    public synchronized StatisticheCache getStatistiche() {
+        return new StatisticheCache(hit, miss, rimozioni, scadute, voci.size());
+    }
+}
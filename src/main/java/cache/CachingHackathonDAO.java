@@ -0,0 +1,267 @@
+package cache;
+
+import dao.HackathonDAO;
+import dao.Page;
+import model.Hackathon;
+import model.Hackathon.StatoHackathon;
+import model.HackathonStats;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HackathonDAO con cache in lettura: findById, findAll e gli elenchi per stato sono
+ * serviti dalla memoria finché una scrittura fatta tramite questo DAO non li invalida.
+ * Ogni scrittura invalida solo le voci che può aver cambiato; le modifiche fatte da
+ * altri processi diventano visibili al più dopo il TTL.
+ * <p>
+ * Gli hackathon restituiti sono condivisi con la cache: vanno modificati solo per
+ * salvarli subito con {@link #update(Hackathon)}.
+ * Conteggi, statistiche e paginazione non sono in cache perché cambiano con le
+ * registrazioni e i team, che non passano da questo DAO.
+ */
+public class CachingHackathonDAO implements HackathonDAO {
+    private static final int DIMENSIONE_PER_ID = 256;
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    /**
+     * Chiave dell'elenco completo in {@link #elenchi}; gli altri elenchi usano il nome dello stato
+     */
+    private static final String TUTTI = "TUTTI";
+
+    private final HackathonDAO dao;
+    private final CacheLRU<Integer, Hackathon> perId;
+    private final CacheLRU<String, List<Hackathon>> elenchi;
+
+    /**
+     * Crea la cache con dimensione e TTL predefiniti
+     *
+     * @param dao il DAO da cui leggere in caso di miss
+     */
+    public CachingHackathonDAO(HackathonDAO dao) {
+        this(dao, DIMENSIONE_PER_ID, TTL);
+    }
+
+    /**
+     * Crea la cache
+     *
+     * @param dao               il DAO da cui leggere in caso di miss
+     * @param dimensioneMassima il numero massimo di hackathon in cache per ID
+     * @param ttl               la durata di validità di ogni voce
+     */
+    public CachingHackathonDAO(HackathonDAO dao, int dimensioneMassima, Duration ttl) {
+        this.dao = dao;
+        this.perId = new CacheLRU<>(dimensioneMassima, ttl);
+        this.elenchi = new CacheLRU<>(StatoHackathon.values().length + 1, ttl);
+    }
+
+    /**
+     * Ottiene le statistiche della cache per ID
+     *
+     * @return le statistiche di findById
+     */
+    public StatisticheCache getStatistichePerId() {
+        return perId.getStatistiche();
+    }
+
+    /**
+     * Ottiene le statistiche della cache degli elenchi
+     *
+     * @return le statistiche di findAll e degli elenchi per stato
+     */
+    public StatisticheCache getStatisticheElenchi() {
+        return elenchi.getStatistiche();
+    }
+
+    @Override
+    public int insert(Hackathon hackathon) {
+        int id = dao.insert(hackathon);
+        if (id > 0) {
+            elenchi.invalida(TUTTI);
+            elenchi.invalida(hackathon.getStato().name());
+        }
+        return id;
+    }
+
+    @Override
+    public boolean update(Hackathon hackathon) {
+        try {
+            return dao.update(hackathon);
+        } finally {
+            // Con qualunque esito l'istanza modificata, che può essere quella in cache,
+            // non corrisponde più con certezza al database
+            perId.invalida(hackathon.getId());
+            elenchi.invalida(TUTTI);
+            invalidaElenchiPerStato(); // L'istanza può avere uno stato diverso da quello sul database
+        }
+    }
+
+    @Override
+    public boolean delete(int id) {
+        boolean eliminato = dao.delete(id);
+        if (eliminato) {
+            perId.invalida(id);
+            elenchi.invalida(TUTTI);
+            invalidaElenchiPerStato();
+        }
+        return eliminato;
+    }
+
+    @Override
+    public Hackathon findById(int id) {
+        return perId.get(id, dao::findById);
+    }
+
+    @Override
+    public List<Hackathon> findAll() {
+        return elenco(TUTTI);
+    }
+
+    @Override
+    public Page<Hackathon> findAll(String cursore, int dimensione) {
+        return dao.findAll(cursore, dimensione);
+    }
+
+    @Override
+    public List<Hackathon> findByOrganizzatore(int organizzatoreId) {
+        return dao.findByOrganizzatore(organizzatoreId);
+    }
+
+    @Override
+    public List<Hackathon> findConRegistrazioniAperte() {
+        return elenco(StatoHackathon.REGISTRAZIONI_APERTE.name());
+    }
+
+    @Override
+    public List<Hackathon> findInCorso() {
+        return elenco(StatoHackathon.IN_CORSO.name());
+    }
+
+    @Override
+    public List<Hackathon> findConclusi() {
+        return elenco(StatoHackathon.CONCLUSO.name());
+    }
+
+    @Override
+    public boolean apriRegistrazioni(int hackathonId) {
+        return dopoTransizione(hackathonId, StatoHackathon.REGISTRAZIONI_APERTE,
+                dao.apriRegistrazioni(hackathonId));
+    }
+
+    @Override
+    public boolean chiudiRegistrazioni(int hackathonId) {
+        return dopoTransizione(hackathonId, StatoHackathon.REGISTRAZIONI_CHIUSE,
+                dao.chiudiRegistrazioni(hackathonId));
+    }
+
+    @Override
+    public boolean avviaHackathon(int hackathonId, String descrizioneProblema) {
+        return dopoTransizione(hackathonId, StatoHackathon.IN_CORSO,
+                dao.avviaHackathon(hackathonId, descrizioneProblema));
+    }
+
+    @Override
+    public boolean concludeHackathon(int hackathonId) {
+        return dopoTransizione(hackathonId, StatoHackathon.CONCLUSO,
+                dao.concludeHackathon(hackathonId));
+    }
+
+    @Override
+    public Hackathon cambiaStato(int hackathonId, int organizzatoreId, StatoHackathon nuovoStato) {
+        Hackathon aggiornato = dao.cambiaStato(hackathonId, organizzatoreId, nuovoStato);
+        // La riga aggiornata non viene messa in cache: la transazione del chiamante
+        // potrebbe ancora essere annullata, quindi findById la rilegge dal database
+        dopoTransizione(hackathonId, nuovoStato, aggiornato != null);
+        return aggiornato;
+    }
+
+    @Override
+    public Hackathon avviaHackathon(int hackathonId, int organizzatoreId, String descrizioneProblema) {
+        Hackathon aggiornato = dao.avviaHackathon(hackathonId, organizzatoreId, descrizioneProblema);
+        // La riga aggiornata non viene messa in cache: la transazione del chiamante
+        // potrebbe ancora essere annullata, quindi findById la rilegge dal database
+        dopoTransizione(hackathonId, StatoHackathon.IN_CORSO, aggiornato != null);
+        return aggiornato;
+    }
+
+    @Override
+    public boolean haRaggiuntoLimitePartecipanti(int hackathonId) {
+        return dao.haRaggiuntoLimitePartecipanti(hackathonId);
+    }
+
+    @Override
+    public boolean haRaggiuntoLimiteTeam(int hackathonId) {
+        return dao.haRaggiuntoLimiteTeam(hackathonId);
+    }
+
+    @Override
+    public int contaPartecipanti(int hackathonId) {
+        return dao.contaPartecipanti(hackathonId);
+    }
+
+    @Override
+    public int contaTeam(int hackathonId) {
+        return dao.contaTeam(hackathonId);
+    }
+
+    @Override
+    public HackathonStats findStats(int hackathonId) {
+        return dao.findStats(hackathonId);
+    }
+
+    @Override
+    public Map<Integer, HackathonStats> findStats(List<Integer> hackathonIds) {
+        return dao.findStats(hackathonIds);
+    }
+
+    /**
+     * Legge un elenco dalla cache o dal database. Il chiamante riceve una copia,
+     * così aggiungere o togliere elementi non altera la voce in cache
+     */
+    private List<Hackathon> elenco(String chiave) {
+        List<Hackathon> hackathon = elenchi.get(chiave, this::caricaElenco);
+        return new ArrayList<>(hackathon);
+    }
+
+    private List<Hackathon> caricaElenco(String chiave) {
+        List<Hackathon> hackathon;
+        if (TUTTI.equals(chiave)) {
+            hackathon = dao.findAll();
+        } else {
+            switch (StatoHackathon.valueOf(chiave)) {
+                case REGISTRAZIONI_APERTE: hackathon = dao.findConRegistrazioniAperte(); break;
+                case IN_CORSO: hackathon = dao.findInCorso(); break;
+                case CONCLUSO: hackathon = dao.findConclusi(); break;
+                default: throw new IllegalArgumentException("Elenco non gestito: " + chiave);
+            }
+        }
+        return Collections.unmodifiableList(hackathon);
+    }
+
+    /**
+     * Dopo una transizione riuscita invalida l'hackathon, l'elenco completo e gli
+     * elenchi degli stati da cui poteva provenire e di quello di arrivo
+     *
+     * @return l'esito della transizione, invariato
+     */
+    private boolean dopoTransizione(int hackathonId, StatoHackathon nuovoStato, boolean riuscita) {
+        if (riuscita) {
+            perId.invalida(hackathonId);
+            elenchi.invalida(TUTTI);
+            elenchi.invalida(nuovoStato.name());
+            for (StatoHackathon precedente : nuovoStato.getPrecedenti()) {
+                elenchi.invalida(precedente.name());
+            }
+        }
+        return riuscita;
+    }
+
+    private void invalidaElenchiPerStato() {
+        for (StatoHackathon stato : StatoHackathon.values()) {
+            elenchi.invalida(stato.name());
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package cache;
+
+import dao.Page;
+import dao.UtenteDAO;
+import model.Utente;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * UtenteDAO con cache in lettura degli utenti per ID, login ed email.
+ * Gli utenti sono memorizzati una sola volta per ID; login ed email sono indici verso l'ID
+ * e vengono verificati a ogni lettura, quindi un indice rimasto dopo un cambio di login
+ * o email non restituisce mai l'utente sbagliato ma causa solo un miss.
+ * <p>
+ * Gli utenti restituiti sono condivisi con la cache: vanno modificati solo per
+ * salvarli subito con {@link #update(Utente)}.
+ * L'autenticazione e gli elenchi vengono sempre letti dal database.
+ * <p>
+ * Se è presente un {@link PrefiltroUtenti}, le verifiche di login ed email già utilizzati
+ * rispondono senza query quando il valore è sicuramente libero.
+ */
+public class CachingUtenteDAO implements UtenteDAO {
+    private static final int DIMENSIONE_MASSIMA = 1_024;
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final UtenteDAO dao;
+    private final CacheLRU<Integer, Utente> perId;
+    private final CacheLRU<String, Integer> perLogin;
+    private final CacheLRU<String, Integer> perEmail;
+    private final PrefiltroUtenti prefiltro;
+
+    /**
+     * Crea la cache con dimensione e TTL predefiniti
+     *
+     * @param dao il DAO da cui leggere in caso di miss
+     */
+    public CachingUtenteDAO(UtenteDAO dao) {
+        this(dao, null);
+    }
+
+    /**
+     * Crea la cache con dimensione e TTL predefiniti e il prefiltro indicato
+     *
+     * @param dao       il DAO da cui leggere in caso di miss
+     * @param prefiltro il prefiltro di login ed email, può essere null
+     */
+    public CachingUtenteDAO(UtenteDAO dao, PrefiltroUtenti prefiltro) {
+        this(dao, DIMENSIONE_MASSIMA, TTL, prefiltro);
+    }
+
+    /**
+     * Crea la cache
+     *
+     * @param dao               il DAO da cui leggere in caso di miss
+     * @param dimensioneMassima il numero massimo di utenti in cache
+     * @param ttl               la durata di validità di ogni voce
+     * @param prefiltro         il prefiltro di login ed email, può essere null
+     */
+    public CachingUtenteDAO(UtenteDAO dao, int dimensioneMassima, Duration ttl, PrefiltroUtenti prefiltro) {
+        this.dao = dao;
+        this.prefiltro = prefiltro;
+        this.perId = new CacheLRU<>(dimensioneMassima, ttl);
+        this.perLogin = new CacheLRU<>(dimensioneMassima, ttl);
+        this.perEmail = new CacheLRU<>(dimensioneMassima, ttl);
+    }
+
+    /**
+     * Ottiene le statistiche della cache degli utenti.
+     * Le letture per login ed email contano come hit solo se anche l'utente è in cache
+     *
+     * @return le statistiche della cache per ID
+     */
+    public StatisticheCache getStatistiche() {
+        return perId.getStatistiche();
+    }
+
+    @Override
+    public int insert(Utente utente) {
+        int id = dao.insert(utente);
+        if (id > 0) {
+            registraNelPrefiltro(utente);
+            memorizza(utente, perId.getGenerazione());
+        }
+        return id;
+    }
+
+    @Override
+    public List<Integer> insertAll(List<Utente> utenti) {
+        List<Integer> ids = dao.insertAll(utenti);
+        long generazione = perId.getGenerazione();
+        for (Utente utente : utenti) {
+            if (utente.getId() > 0) {
+                registraNelPrefiltro(utente);
+                memorizza(utente, generazione);
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public boolean update(Utente utente) {
+        boolean aggiornato = dao.update(utente);
+        if (aggiornato) {
+            // I vecchi valori restano nel filtro: causano al più una query in più
+            registraNelPrefiltro(utente);
+        }
+        perId.invalida(utente.getId());
+        return aggiornato;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        boolean eliminato = dao.delete(id);
+        perId.invalida(id);
+        return eliminato;
+    }
+
+    @Override
+    public Utente findById(int id) {
+        return perId.get(id, dao::findById);
+    }
+
+    @Override
+    public Map<Integer, Utente> findByIds(Collection<Integer> ids) {
+        Map<Integer, Utente> utenti = new HashMap<>();
+        Set<Integer> mancanti = new LinkedHashSet<>();
+        for (Integer id : ids) {
+            Utente utente = perId.get(id);
+            if (utente != null) {
+                utenti.put(id, utente);
+            } else {
+                mancanti.add(id);
+            }
+        }
+
+        if (!mancanti.isEmpty()) {
+            long generazione = perId.getGenerazione();
+            for (Utente utente : dao.findByIds(mancanti).values()) {
+                memorizza(utente, generazione);
+                utenti.put(utente.getId(), utente);
+            }
+        }
+        return utenti;
+    }
+
+    @Override
+    public List<Utente> findAll() {
+        return dao.findAll();
+    }
+
+    @Override
+    public Page<Utente> findAll(String cursore, int dimensione) {
+        return dao.findAll(cursore, dimensione);
+    }
+
+    @Override
+    public Utente findByLogin(String login) {
+        Utente utente = daIndice(perLogin.get(login));
+        if (utente != null && login.equals(utente.getLogin())) {
+            return utente;
+        }
+        long generazione = perId.getGenerazione();
+        return memorizza(dao.findByLogin(login), generazione);
+    }
+
+    @Override
+    public Utente findByEmail(String email) {
+        Utente utente = daIndice(perEmail.get(email));
+        if (utente != null && email.equals(utente.getEmail())) {
+            return utente;
+        }
+        long generazione = perId.getGenerazione();
+        return memorizza(dao.findByEmail(email), generazione);
+    }
+
+    @Override
+    public Utente autentica(String login, String password) {
+        long generazione = perId.getGenerazione();
+        return memorizza(dao.autentica(login, password), generazione);
+    }
+
+    @Override
+    public List<Utente> findOrganizzatori() {
+        return dao.findOrganizzatori();
+    }
+
+    @Override
+    public List<Utente> findGiudici() {
+        return dao.findGiudici();
+    }
+
+    @Override
+    public List<Utente> findPartecipanti() {
+        return dao.findPartecipanti();
+    }
+
+    @Override
+    public List<Utente> findByRuolo(String ruolo) {
+        return dao.findByRuolo(ruolo);
+    }
+
+    @Override
+    public boolean isLoginUtilizzato(String login) {
+        if (prefiltro != null && prefiltro.isLoginSicuramenteLibero(login)) {
+            return false;
+        }
+        // Solo la risposta positiva può venire dalla cache: un utente assente dalla cache
+        // potrebbe comunque esistere
+        Utente utente = daIndice(perLogin.get(login));
+        return (utente != null && login.equals(utente.getLogin())) || dao.isLoginUtilizzato(login);
+    }
+
+    @Override
+    public boolean isEmailUtilizzata(String email) {
+        if (prefiltro != null && prefiltro.isEmailSicuramenteLibera(email)) {
+            return false;
+        }
+        Utente utente = daIndice(perEmail.get(email));
+        return (utente != null && email.equals(utente.getEmail())) || dao.isEmailUtilizzata(email);
+    }
+
+    @Override
+    public boolean cambiaPassword(int utenteId, String nuovaPassword) {
+        boolean aggiornato = dao.cambiaPassword(utenteId, nuovaPassword);
+        perId.invalida(utenteId);
+        return aggiornato;
+    }
+
+    @Override
+    public boolean aggiornaRuolo(int utenteId, String nuovoRuolo) {
+        boolean aggiornato = dao.aggiornaRuolo(utenteId, nuovoRuolo);
+        perId.invalida(utenteId);
+        return aggiornato;
+    }
+
+    /**
+     * Memorizza un utente sotto tutte le sue chiavi, se la cache non è stata
+     * invalidata dopo la lettura
+     *
+     * @param utente      l'utente letto, può essere null
+     * @param generazione la generazione della cache prima della lettura
+     * @return l'utente, invariato
+     */
+    private Utente memorizza(Utente utente, long generazione) {
+        if (utente != null) {
+            perId.put(utente.getId(), utente, generazione);
+            if (utente.getLogin() != null) {
+                perLogin.put(utente.getLogin(), utente.getId());
+            }
+            if (utente.getEmail() != null) {
+                perEmail.put(utente.getEmail(), utente.getId());
+            }
+        }
+        return utente;
+    }
+
+    private void registraNelPrefiltro(Utente utente) {
+        if (prefiltro != null) {
+            prefiltro.aggiungi(utente.getLogin(), utente.getEmail());
+        }
+    }
+
+    private Utente daIndice(Integer id) {
+        return id != null ? perId.get(id) : null;
+    }
+}
@@ -0,0 +1,285 @@
+package cache;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Classifica dei team di un hackathon mantenuta in memoria.
+ * Per ogni team sono tenuti somma e numero dei voti; i team sono ordinati per media
+ * decrescente e, a parità, per ID crescente, come la classifica letta da team_score.
+ * <p>
+ * L'ordinamento è un treap in cui ogni nodo conosce la dimensione del proprio
+ * sottoalbero: aggiungere un voto, trovare la posizione di un team e leggere i primi k
+ * costano O(log n), più O(k) per restituire i team, con n il numero di team valutati.
+ * Le medie sono confrontate in aritmetica intera (somma1 * numero2 contro
+ * somma2 * numero1), quindi due team con la stessa media risultano sempre pari.
+ * <p>
+ * La classe non è thread-safe: l'accesso è sincronizzato da {@link ClassificheInMemoria}.
+ */
+public class Classifica {
+
+    /**
+     * Team valutato: nodo del treap
+     */
+    private static class Nodo {
+        private final int teamId;
+        private final int priorita;
+        private long somma;
+        private int numero;
+        private int dimensione = 1;
+        private Nodo sinistro;
+        private Nodo destro;
+
+        Nodo(int teamId, int priorita) {
+            this.teamId = teamId;
+            this.priorita = priorita;
+        }
+
+        /**
+         * Verifica se questo team viene prima di un altro in classifica
+         */
+        boolean precede(Nodo altro) {
+            int confronto = Long.compare(somma * altro.numero, altro.somma * numero);
+            return confronto != 0 ? confronto > 0 : teamId < altro.teamId;
+        }
+    }
+
+    private final int hackathonId;
+    private final Map<Integer, Nodo> perTeam = new HashMap<>();
+    private final SplittableRandom casuale = new SplittableRandom();
+    private Nodo radice;
+
+    /**
+     * Crea una classifica vuota
+     *
+     * @param hackathonId l'ID dell'hackathon
+     */
+    public Classifica(int hackathonId) {
+        this.hackathonId = hackathonId;
+    }
+
+    /**
+     * Aggiunge un voto a un team, inserendolo in classifica se è il primo
+     *
+     * @param teamId l'ID del team
+     * @param voto   il voto
+     */
+    public void aggiungiVoto(int teamId, int voto) {
+        aggiorna(teamId, voto, 1);
+    }
+
+    /**
+     * Toglie un voto a un team, rimuovendolo dalla classifica se era l'ultimo
+     *
+     * @param teamId l'ID del team
+     * @param voto   il voto da togliere
+     */
+    public void rimuoviVoto(int teamId, int voto) {
+        aggiorna(teamId, -voto, -1);
+    }
+
+    /**
+     * Sostituisce un voto già assegnato a un team
+     *
+     * @param teamId         l'ID del team
+     * @param votoPrecedente il voto sostituito
+     * @param voto           il nuovo voto
+     */
+    public void modificaVoto(int teamId, int votoPrecedente, int voto) {
+        aggiorna(teamId, voto - votoPrecedente, 0);
+    }
+
+    /**
+     * Aggiorna somma e numero dei voti di un team e lo riposiziona
+     *
+     * @param teamId l'ID del team
+     * @param somma  la variazione della somma dei voti
+     * @param numero la variazione del numero dei voti
+     */
+    void aggiorna(int teamId, long somma, int numero) {
+        Nodo nodo = perTeam.get(teamId);
+        if (nodo == null) {
+            if (numero <= 0) {
+                return;
+            }
+            nodo = new Nodo(teamId, casuale.nextInt());
+            perTeam.put(teamId, nodo);
+        } else {
+            radice = rimuovi(radice, nodo);
+            nodo.sinistro = null;
+            nodo.destro = null;
+            nodo.dimensione = 1;
+        }
+
+        nodo.somma += somma;
+        nodo.numero += numero;
+        if (nodo.numero > 0) {
+            radice = inserisci(radice, nodo);
+        } else {
+            perTeam.remove(teamId);
+        }
+    }
+
+    /**
+     * Ottiene i primi team in classifica
+     *
+     * @param k il numero massimo di team
+     * @return gli ID dei primi k team, in ordine di classifica
+     */
+    public List<Integer> getPrimi(int k) {
+        List<Integer> primi = new ArrayList<>(Math.max(0, Math.min(k, perTeam.size())));
+        Deque<Nodo> pila = new ArrayDeque<>();
+        Nodo corrente = radice;
+        while (primi.size() < k && (corrente != null || !pila.isEmpty())) {
+            while (corrente != null) {
+                pila.push(corrente);
+                corrente = corrente.sinistro;
+            }
+            Nodo nodo = pila.pop();
+            primi.add(nodo.teamId);
+            corrente = nodo.destro;
+        }
+        return primi;
+    }
+
+    /**
+     * Ottiene l'intera classifica
+     *
+     * @return gli ID dei team ordinati per media decrescente
+     */
+    public List<Integer> getTeam() {
+        return getPrimi(perTeam.size());
+    }
+
+    /**
+     * Ottiene la posizione di un team
+     *
+     * @param teamId l'ID del team
+     * @return la posizione a partire da 1, o 0 se il team non ha voti
+     */
+    public int getPosizione(int teamId) {
+        Nodo nodo = perTeam.get(teamId);
+        if (nodo == null) {
+            return 0;
+        }
+        int precedenti = 0;
+        Nodo corrente = radice;
+        while (corrente != nodo) {
+            if (nodo.precede(corrente)) {
+                corrente = corrente.sinistro;
+            } else {
+                precedenti += dimensione(corrente.sinistro) + 1;
+                corrente = corrente.destro;
+            }
+        }
+        return precedenti + dimensione(nodo.sinistro) + 1;
+    }
+
+    /**
+     * Ottiene la media dei voti di un team
+     *
+     * @param teamId l'ID del team
+     * @return la media o 0 se il team non ha voti
+     */
+    public double getMedia(int teamId) {
+        Nodo nodo = perTeam.get(teamId);
+        return nodo != null ? (double) nodo.somma / nodo.numero : 0;
+    }
+
+    /**
+     * Verifica se un team ha voti in questa classifica
+     *
+     * @param teamId l'ID del team
+     * @return true se il team è in classifica
+     */
+    public boolean contiene(int teamId) {
+        return perTeam.containsKey(teamId);
+    }
+
+    public int getHackathonId() { return hackathonId; }
+
+    public int getNumeroTeam() { return perTeam.size(); }
+
+    private static Nodo inserisci(Nodo albero, Nodo nodo) {
+        if (albero == null) {
+            return nodo;
+        }
+        if (nodo.precede(albero)) {
+            albero.sinistro = inserisci(albero.sinistro, nodo);
+            if (albero.sinistro.priorita > albero.priorita) {
+                albero = ruotaDestra(albero);
+            }
+        } else {
+            albero.destro = inserisci(albero.destro, nodo);
+            if (albero.destro.priorita > albero.priorita) {
+                albero = ruotaSinistra(albero);
+            }
+        }
+        ricalcola(albero);
+        return albero;
+    }
+
+    private static Nodo rimuovi(Nodo albero, Nodo nodo) {
+        if (albero == nodo) {
+            return unisci(albero.sinistro, albero.destro);
+        }
+        if (nodo.precede(albero)) {
+            albero.sinistro = rimuovi(albero.sinistro, nodo);
+        } else {
+            albero.destro = rimuovi(albero.destro, nodo);
+        }
+        ricalcola(albero);
+        return albero;
+    }
+
+    /**
+     * Unisce due alberi in cui tutti i nodi del primo precedono quelli del secondo
+     */
+    private static Nodo unisci(Nodo primo, Nodo secondo) {
+        if (primo == null) {
+            return secondo;
+        }
+        if (secondo == null) {
+            return primo;
+        }
+        if (primo.priorita > secondo.priorita) {
+            primo.destro = unisci(primo.destro, secondo);
+            ricalcola(primo);
+            return primo;
+        }
+        secondo.sinistro = unisci(primo, secondo.sinistro);
+        ricalcola(secondo);
+        return secondo;
+    }
+
+    private static Nodo ruotaDestra(Nodo nodo) {
+        Nodo sinistro = nodo.sinistro;
+        nodo.sinistro = sinistro.destro;
+        sinistro.destro = nodo;
+        ricalcola(nodo);
+        ricalcola(sinistro);
+        return sinistro;
+    }
+
+    private static Nodo ruotaSinistra(Nodo nodo) {
+        Nodo destro = nodo.destro;
+        nodo.destro = destro.sinistro;
+        destro.sinistro = nodo;
+        ricalcola(nodo);
+        ricalcola(destro);
+        return destro;
+    }
+
+    private static void ricalcola(Nodo nodo) {
+        nodo.dimensione = dimensione(nodo.sinistro) + dimensione(nodo.destro) + 1;
+    }
+
+    private static int dimensione(Nodo nodo) {
+        return nodo != null ? nodo.dimensione : 0;
+    }
+}
@@ -0,0 +1,240 @@
+package cache;
+
+import database.ConnectionManager;
+import database.DatabaseExecutor;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Classifiche di tutti gli hackathon mantenute in memoria, una {@link Classifica} per hackathon.
+ * Vengono costruite all'avvio aggregando la tabella valutazione e aggiornate a ogni voto
+ * assegnato, modificato o eliminato da questo processo, quindi le richieste ripetute della classifica durante la
+ * valutazione non interrogano il database.
+ * <p>
+ * Finché il caricamento non è terminato i metodi di lettura restituiscono null e il chiamante
+ * deve leggere dal database. I voti registrati da altri processi diventano visibili solo con
+ * un nuovo {@link #carica()}.
+ */
+public class ClassificheInMemoria {
+    private static final String AGGREGATI = "SELECT hackathon_id, team_id, SUM(voto), COUNT(*) " +
+            "FROM valutazione GROUP BY hackathon_id, team_id";
+
+    /**
+     * Tentativi di caricamento se durante la lettura vengono registrati nuovi voti
+     */
+    private static final int TENTATIVI = 3;
+
+    private final ConnectionManager connectionManager;
+
+    private Map<Integer, Classifica> perHackathon;
+    private Map<Integer, Classifica> perTeam;
+
+    /**
+     * Voti registrati dall'avvio: un caricamento è valido solo se non cambia mentre legge
+     */
+    private long votiRegistrati;
+
+    /**
+     * Crea le classifiche che usano il ConnectionManager dell'applicazione
+     */
+    public ClassificheInMemoria() {
+        this(ConnectionManager.getInstance());
+    }
+
+    /**
+     * Crea le classifiche
+     *
+     * @param connectionManager il gestore delle connessioni
+     */
+    public ClassificheInMemoria(ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    /**
+     * Costruisce tutte le classifiche dai voti presenti nel database, sostituendo le precedenti.
+     * Se durante la lettura viene registrato un voto il risultato potrebbe non includerlo,
+     * quindi viene scartato e la lettura ripetuta
+     *
+     * @return true se le classifiche sono state caricate, false se i voti continuano a cambiare
+     * @throws SQLException se la lettura fallisce; le classifiche precedenti restano in uso
+     */
+    public boolean carica() throws SQLException {
+        for (int tentativo = 0; tentativo < TENTATIVI; tentativo++) {
+            long registratiPrima;
+            synchronized (this) {
+                registratiPrima = votiRegistrati;
+            }
+
+            Map<Integer, Classifica> nuovePerHackathon = new HashMap<>();
+            Map<Integer, Classifica> nuovePerTeam = new HashMap<>();
+            try (Connection conn = connectionManager.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.setFetchSize(ConnectionManager.FETCH_SIZE);
+                try (ResultSet rs = stmt.executeQuery(AGGREGATI)) {
+                    while (rs.next()) {
+                        int hackathonId = rs.getInt(1);
+                        int teamId = rs.getInt(2);
+                        Classifica classifica = nuovePerHackathon.computeIfAbsent(hackathonId, Classifica::new);
+                        classifica.aggiorna(teamId, rs.getLong(3), rs.getInt(4));
+                        nuovePerTeam.put(teamId, classifica);
+                    }
+                }
+                connectionManager.commit();
+            }
+
+            synchronized (this) {
+                if (votiRegistrati == registratiPrima) {
+                    perHackathon = nuovePerHackathon;
+                    perTeam = nuovePerTeam;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Avvia {@link #carica()} su un virtual thread
+     *
+     * @return il futuro che si completa con l'esito del caricamento
+     */
+    public CompletableFuture<Boolean> caricaInBackground() {
+        return DatabaseExecutor.getInstance().submit(() -> {
+            try {
+                return carica();
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Registra un voto già confermato nel database
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @param teamId      l'ID del team
+     * @param voto        il voto
+     */
+    public synchronized void registraVoto(int hackathonId, int teamId, int voto) {
+        votiRegistrati++;
+        if (perHackathon != null) {
+            Classifica classifica = perHackathon.computeIfAbsent(hackathonId, Classifica::new);
+            classifica.aggiungiVoto(teamId, voto);
+            perTeam.put(teamId, classifica);
+        }
+    }
+
+    /**
+     * Registra la modifica di un voto già confermata nel database
+     *
+     * @param hackathonId    l'ID dell'hackathon
+     * @param teamId         l'ID del team
+     * @param votoPrecedente il voto sostituito
+     * @param voto           il nuovo voto
+     */
+    public synchronized void modificaVoto(int hackathonId, int teamId, int votoPrecedente, int voto) {
+        votiRegistrati++;
+        if (perHackathon != null) {
+            Classifica classifica = perHackathon.get(hackathonId);
+            if (classifica != null) {
+                classifica.modificaVoto(teamId, votoPrecedente, voto);
+            }
+        }
+    }
+
+    /**
+     * Registra l'eliminazione di un voto già confermata nel database
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @param teamId      l'ID del team
+     * @param voto        il voto eliminato
+     */
+    public synchronized void rimuoviVoto(int hackathonId, int teamId, int voto) {
+        votiRegistrati++;
+        if (perHackathon != null) {
+            Classifica classifica = perHackathon.get(hackathonId);
+            if (classifica != null) {
+                classifica.rimuoviVoto(teamId, voto);
+                if (!classifica.contiene(teamId)) {
+                    perTeam.remove(teamId, classifica);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifica se le classifiche sono state caricate
+     *
+     * @return true se i metodi di lettura rispondono dalla memoria
+     */
+    public synchronized boolean isPronta() {
+        return perHackathon != null;
+    }
+
+    /**
+     * Ottiene la classifica completa di un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return gli ID dei team ordinati per media decrescente, o null se non ancora caricata
+     */
+    public synchronized List<Integer> getClassifica(int hackathonId) {
+        if (perHackathon == null) {
+            return null;
+        }
+        Classifica classifica = perHackathon.get(hackathonId);
+        return classifica != null ? classifica.getTeam() : List.of();
+    }
+
+    /**
+     * Ottiene i primi team della classifica di un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @param k           il numero massimo di team
+     * @return gli ID dei primi k team, o null se non ancora caricata
+     */
+    public synchronized List<Integer> getPrimi(int hackathonId, int k) {
+        if (perHackathon == null) {
+            return null;
+        }
+        Classifica classifica = perHackathon.get(hackathonId);
+        return classifica != null ? classifica.getPrimi(k) : List.of();
+    }
+
+    /**
+     * Ottiene la posizione di un team nella classifica di un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @param teamId      l'ID del team
+     * @return la posizione a partire da 1, 0 se il team non ha voti nell'hackathon,
+     *         o null se non ancora caricata
+     */
+    public synchronized Integer getPosizione(int hackathonId, int teamId) {
+        if (perHackathon == null) {
+            return null;
+        }
+        Classifica classifica = perHackathon.get(hackathonId);
+        return classifica != null ? classifica.getPosizione(teamId) : 0;
+    }
+
+    /**
+     * Ottiene la media dei voti di un team
+     *
+     * @param teamId l'ID del team
+     * @return la media, 0 se il team non ha voti, o null se non ancora caricata
+     */
+    public synchronized Double getMedia(int teamId) {
+        if (perTeam == null) {
+            return null;
+        }
+        Classifica classifica = perTeam.get(teamId);
+        return classifica != null ? classifica.getMedia(teamId) : 0;
+    }
+}
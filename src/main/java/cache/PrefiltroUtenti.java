@@ -0,0 +1,182 @@
+package cache;
+
+import database.ConnectionManager;
+import database.DatabaseExecutor;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Prefiltro in memoria di login ed email già utilizzati, basato su due {@link BloomFilter}.
+ * Una risposta "sicuramente libero" evita la query al database; una risposta "forse
+ * utilizzato" va confermata dal database. Il filtro viene costruito leggendo la tabella
+ * utente in streaming e aggiornato a ogni inserimento fatto da questo processo.
+ * <p>
+ * Con i valori predefiniti (un milione di utenti attesi, 1% di falsi positivi) occupa
+ * circa 2,3 MiB: 1,14 MiB per i login e altrettanti per le email, contro le decine di MB
+ * di un HashSet con le stesse stringhe.
+ * Gli utenti inseriti da altri processi o con {@link database.ImportatoreMassivo} non sono
+ * nel filtro finché non viene ricaricato: in quel caso l'inserimento viene comunque
+ * rifiutato dai vincoli UNIQUE del database.
+ */
+public class PrefiltroUtenti {
+    private static final long UTENTI_ATTESI = Long.getLong("hackathon.prefiltro.utenti", 1_000_000L);
+    private static final double FALSI_POSITIVI = 0.01;
+
+    /**
+     * Filtri di login ed email costruiti insieme
+     */
+    private static class Filtri {
+        private final BloomFilter login;
+        private final BloomFilter email;
+
+        Filtri(long utentiAttesi, double falsiPositivi) {
+            this.login = new BloomFilter(utentiAttesi, falsiPositivi);
+            this.email = new BloomFilter(utentiAttesi, falsiPositivi);
+        }
+    }
+
+    private final ConnectionManager connectionManager;
+    private final long utentiAttesi;
+
+    /**
+     * Filtri completi, null finché il primo caricamento non termina
+     */
+    private volatile Filtri attivi;
+
+    /**
+     * Filtri in costruzione: ricevono anche gli inserimenti avvenuti durante il caricamento
+     */
+    private volatile Filtri inCaricamento;
+
+    /**
+     * Crea il prefiltro che usa il ConnectionManager dell'applicazione
+     */
+    public PrefiltroUtenti() {
+        this(ConnectionManager.getInstance(), UTENTI_ATTESI);
+    }
+
+    /**
+     * Crea il prefiltro
+     *
+     * @param connectionManager il gestore delle connessioni
+     * @param utentiAttesi      il numero di utenti su cui dimensionare i filtri
+     */
+    public PrefiltroUtenti(ConnectionManager connectionManager, long utentiAttesi) {
+        this.connectionManager = connectionManager;
+        this.utentiAttesi = utentiAttesi;
+    }
+
+    /**
+     * Costruisce i filtri leggendo tutti i login e le email. Finché non termina,
+     * il prefiltro non risponde e ogni verifica va al database
+     *
+     * @throws SQLException se la lettura fallisce; i filtri precedenti restano in uso
+     */
+    public void carica() throws SQLException {
+        Filtri nuovi = new Filtri(Math.max(utentiAttesi, 1), FALSI_POSITIVI);
+        inCaricamento = nuovi;
+        try (Connection conn = connectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.setFetchSize(ConnectionManager.FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery("SELECT login, email FROM utente")) {
+                while (rs.next()) {
+                    nuovi.login.aggiungi(rs.getString(1));
+                    nuovi.email.aggiungi(rs.getString(2));
+                }
+            }
+            connectionManager.commit();
+            attivi = nuovi;
+        } finally {
+            inCaricamento = null;
+        }
+    }
+
+    /**
+     * Avvia {@link #carica()} su un virtual thread
+     *
+     * @return il futuro che si completa al termine del caricamento
+     */
+    public CompletableFuture<Void> caricaInBackground() {
+        return DatabaseExecutor.getInstance().submit(() -> {
+            try {
+                carica();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Registra login ed email di un utente appena inserito o modificato
+     *
+     * @param login il login
+     * @param email l'email
+     */
+    public void aggiungi(String login, String email) {
+        for (Filtri filtri : new Filtri[] {attivi, inCaricamento}) {
+            if (filtri != null) {
+                if (login != null) {
+                    filtri.login.aggiungi(login);
+                }
+                if (email != null) {
+                    filtri.email.aggiungi(email);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifica se un login è sicuramente libero senza interrogare il database
+     *
+     * @param login il login
+     * @return true se il login sicuramente non è utilizzato, false se va verificato sul database
+     */
+    public boolean isLoginSicuramenteLibero(String login) {
+        Filtri filtri = attivi;
+        return filtri != null && !filtri.login.forsePresente(login);
+    }
+
+    /**
+     * Verifica se un'email è sicuramente libera senza interrogare il database
+     *
+     * @param email l'email
+     * @return true se l'email sicuramente non è utilizzata, false se va verificata sul database
+     */
+    public boolean isEmailSicuramenteLibera(String email) {
+        Filtri filtri = attivi;
+        return filtri != null && !filtri.email.forsePresente(email);
+    }
+
+    /**
+     * Verifica se il primo caricamento è terminato
+     *
+     * @return true se il prefiltro risponde
+     */
+    public boolean isPronto() {
+        return attivi != null;
+    }
+
+    /**
+     * Ottiene la memoria occupata dai due filtri
+     *
+     * @return i byte occupati, 0 se non ancora caricato
+     */
+    public long getByteOccupati() {
+        Filtri filtri = attivi;
+        return filtri != null ? filtri.login.getByteOccupati() + filtri.email.getByteOccupati() : 0;
+    }
+
+    /**
+     * Ottiene la memoria necessaria per milione di utenti con la probabilità di falsi positivi usata
+     *
+     * @return i byte per milione di utenti, per entrambi i filtri
+     */
+    public static long getBytePerMilioneDiUtenti() {
+        return 2 * BloomFilter.byteNecessari(1_000_000L, FALSI_POSITIVI);
+    }
+}
@@ -0,0 +1,58 @@
+package cache;
+
+/**
+ * Istantanea delle statistiche di utilizzo di una {@link CacheLRU}.
+ */
+public class StatisticheCache {
+    private final long hit;
+    private final long miss;
+    private final long rimozioni;
+    private final long scadute;
+    private final int dimensione;
+
+    /**
+     * Costruttore per le statistiche di una cache
+     *
+     * @param hit        le letture servite dalla cache
+     * @param miss       le letture non servite dalla cache
+     * @param rimozioni  le voci rimosse per fare spazio
+     * @param scadute    le voci scartate perché scadute
+     * @param dimensione il numero di voci attualmente in cache
+     */
+    public StatisticheCache(long hit, long miss, long rimozioni, long scadute, int dimensione) {
+        this.hit = hit;
+        this.miss = miss;
+        this.rimozioni = rimozioni;
+        this.scadute = scadute;
+        this.dimensione = dimensione;
+    }
+
+    /**
+     * Calcola la frazione di letture servite dalla cache
+     *
+     * @return l'hit rate tra 0 e 1, 0 se non ci sono state letture
+     */
+    public double getHitRate() {
+        long richieste = hit + miss;
+        return richieste == 0 ? 0 : (double) hit / richieste;
+    }
+
+    // Getters
+    public long getHit() { return hit; }
+    public long getMiss() { return miss; }
+    public long getRimozioni() { return rimozioni; }
+    public long getScadute() { return scadute; }
+    public int getDimensione() { return dimensione; }
+
+    @Override
+    public String toString() {
+        return "StatisticheCache{" +
+                "hit=" + hit +
+                ", miss=" + miss +
+                ", hitRate=" + String.format("%.2f", getHitRate()) +
+                ", rimozioni=" + rimozioni +
+                ", scadute=" + scadute +
+                ", dimensione=" + dimensione +
+                '}';
+    }
+}
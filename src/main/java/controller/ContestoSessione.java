@@ -0,0 +1,221 @@
+package controller;
+
+import dao.AsyncRegistrazioneDAO;
+import dao.AsyncTeamDAO;
+import model.Registrazione;
+import model.Team;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Dati dell'utente autenticato che servono alle verifiche del Controller: registrazioni
+ * agli hackathon, team di cui fa parte e team che guida. Vengono letti una volta al login
+ * e aggiornati con le scritture fatte dall'utente stesso durante la sessione.
+ * <p>
+ * Tutti questi fatti possono cambiare anche per azioni di altri utenti: un organizzatore
+ * conferma o elimina la registrazione, un capo team accetta una richiesta di join o rimuove
+ * un membro, un team viene eliminato. Il contesto quindi non decide l'esito di un'operazione:
+ * il Controller verifica sul database e aggiorna il contesto con quanto letto.
+ */
+public class ContestoSessione {
+    private final int utenteId;
+
+    /**
+     * Registrazioni dell'utente, per ID dell'hackathon
+     */
+    private final Map<Integer, Registrazione> registrazioni = new HashMap<>();
+
+    /**
+     * Team di cui l'utente è capo o membro, con l'ID del loro hackathon
+     */
+    private final Map<Integer, Integer> hackathonDeiTeam = new HashMap<>();
+
+    private final Set<Integer> teamGuidati = new HashSet<>();
+
+    /**
+     * Crea un contesto vuoto
+     *
+     * @param utenteId l'ID dell'utente autenticato
+     */
+    public ContestoSessione(int utenteId) {
+        this.utenteId = utenteId;
+    }
+
+    /**
+     * Crea il contesto di un utente leggendo registrazioni, team di cui è membro e team guidati.
+     * Le tre letture sono indipendenti e vengono eseguite in parallelo
+     *
+     * @param utenteId         l'ID dell'utente autenticato
+     * @param registrazioneDAO il DAO asincrono delle registrazioni
+     * @param teamDAO          il DAO asincrono dei team
+     * @return il contesto caricato
+     */
+    public static ContestoSessione carica(int utenteId, AsyncRegistrazioneDAO registrazioneDAO, AsyncTeamDAO teamDAO) {
+        CompletableFuture<List<Registrazione>> registrazioni = registrazioneDAO.findByUtente(utenteId);
+        CompletableFuture<List<Team>> teamMembro = teamDAO.findByMembro(utenteId);
+        CompletableFuture<List<Team>> teamGuidati = teamDAO.findByCapoTeam(utenteId);
+
+        ContestoSessione contesto = new ContestoSessione(utenteId);
+        for (Registrazione registrazione : registrazioni.join()) {
+            contesto.aggiungiRegistrazione(registrazione);
+        }
+        for (Team team : teamMembro.join()) {
+            contesto.aggiungiTeam(team.getId(), team.getHackathonId(), false);
+        }
+        for (Team team : teamGuidati.join()) {
+            contesto.aggiungiTeam(team.getId(), team.getHackathonId(), true);
+        }
+        return contesto;
+    }
+
+    /**
+     * Registra una registrazione dell'utente, sostituendo quella per lo stesso hackathon
+     *
+     * @param registrazione la registrazione
+     */
+    public void aggiungiRegistrazione(Registrazione registrazione) {
+        registrazioni.put(registrazione.getHackathonId(), registrazione);
+    }
+
+    /**
+     * Dimentica la registrazione dell'utente ad un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     */
+    public void rimuoviRegistrazione(int hackathonId) {
+        registrazioni.remove(hackathonId);
+    }
+
+    /**
+     * Segna come confermata la registrazione dell'utente ad un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     */
+    public void confermaRegistrazione(int hackathonId) {
+        Registrazione registrazione = registrazioni.get(hackathonId);
+        if (registrazione != null) {
+            registrazione.setConfermata(true);
+        }
+    }
+
+    /**
+     * Registra un team di cui l'utente fa parte
+     *
+     * @param teamId      l'ID del team
+     * @param hackathonId l'ID dell'hackathon del team
+     * @param capo        true se l'utente è il capo del team
+     */
+    public void aggiungiTeam(int teamId, int hackathonId, boolean capo) {
+        hackathonDeiTeam.put(teamId, hackathonId);
+        if (capo) {
+            teamGuidati.add(teamId);
+        }
+    }
+
+    /**
+     * Dimentica un team di cui l'utente non fa più parte
+     *
+     * @param teamId l'ID del team
+     */
+    public void rimuoviTeam(int teamId) {
+        hackathonDeiTeam.remove(teamId);
+        teamGuidati.remove(teamId);
+    }
+
+    /**
+     * Dimentica i team di un hackathon di cui l'utente non fa più parte
+     *
+     * @param hackathonId l'ID dell'hackathon
+     */
+    public void rimuoviTeamDiHackathon(int hackathonId) {
+        hackathonDeiTeam.entrySet().removeIf(voce -> {
+            if (voce.getValue() != hackathonId) {
+                return false;
+            }
+            teamGuidati.remove(voce.getKey());
+            return true;
+        });
+    }
+
+    /**
+     * Ottiene la registrazione dell'utente ad un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return la registrazione o null se l'utente non è registrato
+     */
+    public Registrazione getRegistrazione(int hackathonId) {
+        return registrazioni.get(hackathonId);
+    }
+
+    /**
+     * Verifica se l'utente è registrato ad un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return true se l'utente è registrato
+     */
+    public boolean isRegistrato(int hackathonId) {
+        return registrazioni.containsKey(hackathonId);
+    }
+
+    /**
+     * Verifica se l'utente fa parte, come capo o membro, di un team dell'hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return true se l'utente ha già un team nell'hackathon
+     */
+    public boolean isInTeam(int hackathonId) {
+        return hackathonDeiTeam.containsValue(hackathonId);
+    }
+
+    /**
+     * Verifica se l'utente fa parte, come capo o membro, di un team
+     *
+     * @param teamId l'ID del team
+     * @return true se l'utente fa parte del team
+     */
+    public boolean isMembro(int teamId) {
+        return hackathonDeiTeam.containsKey(teamId);
+    }
+
+    /**
+     * Verifica se l'utente è il capo di un team
+     *
+     * @param teamId l'ID del team
+     * @return true se l'utente guida il team
+     */
+    public boolean isCapo(int teamId) {
+        return teamGuidati.contains(teamId);
+    }
+
+    /**
+     * Ottiene l'hackathon di un team di cui l'utente fa parte
+     *
+     * @param teamId l'ID del team
+     * @return l'ID dell'hackathon o null se l'utente non fa parte del team
+     */
+    public Integer getHackathonDelTeam(int teamId) {
+        return hackathonDeiTeam.get(teamId);
+    }
+
+    // Getters
+    public int getUtenteId() { return utenteId; }
+    public Map<Integer, Registrazione> getRegistrazioni() { return Collections.unmodifiableMap(registrazioni); }
+    public Set<Integer> getTeam() { return Collections.unmodifiableSet(hackathonDeiTeam.keySet()); }
+    public Set<Integer> getTeamGuidati() { return Collections.unmodifiableSet(teamGuidati); }
+
+    @Override
+    public String toString() {
+        return "ContestoSessione{" +
+                "utenteId=" + utenteId +
+                ", registrazioni=" + registrazioni.size() +
+                ", team=" + hackathonDeiTeam.size() +
+                ", teamGuidati=" + teamGuidati.size() +
+                '}';
+    }
+}
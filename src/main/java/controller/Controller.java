@@ -1,12 +1,21 @@
 package controller;
 
+import cache.CachingHackathonDAO;
+import cache.CachingUtenteDAO;
+import cache.ClassificheInMemoria;
+import cache.PrefiltroUtenti;
 import dao.*;
 import implementazionePostgresDAO.*;
 import model.*;
+import database.ConflittoVersioneException;
 import database.ConnectionManager;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Controller principale del sistema Hackathon Manager.
@@ -21,26 +30,61 @@ public class Controller {
     private final RegistrazioneDAO registrazioneDAO;
     private final ProgressDAO progressDAO;
     private final ValutazioneDAO valutazioneDAO;
+    private final PrecondizioniDAO precondizioniDAO;
+    private final ConnectionManager connectionManager;
+    private final ClassificheInMemoria classifiche;
+
+    // Letture indipendenti eseguite in parallelo, ad esempio il contesto caricato al login
+    private final AsyncRegistrazioneDAO registrazioneAsync;
+    private final AsyncTeamDAO teamAsync;
     
     // Current user session
     private Utente currentUser;
+    private ContestoSessione contesto;
     
     /**
      * Costruttore che inizializza tutti i DAO
      */
     public Controller() {
-        this.hackathonDAO = new HackathonPostgresDAO();
-        this.utenteDAO = new UtentePostgresDAO();
+        this.hackathonDAO = new CachingHackathonDAO(new HackathonPostgresDAO());
+        PrefiltroUtenti prefiltroUtenti = new PrefiltroUtenti();
+        this.utenteDAO = new CachingUtenteDAO(new UtentePostgresDAO(), prefiltroUtenti);
         this.teamDAO = new TeamPostgresDAO();
         this.registrazioneDAO = new RegistrazionePostgresDAO();
         this.progressDAO = new ProgressPostgresDAO();
         this.valutazioneDAO = new ValutazionePostgresDAO();
+        this.precondizioniDAO = new PrecondizioniPostgresDAO();
+        this.connectionManager = ConnectionManager.getInstance();
+        this.classifiche = new ClassificheInMemoria();
+        this.registrazioneAsync = new AsyncRegistrazioneDAO(registrazioneDAO);
+        this.teamAsync = new AsyncTeamDAO(teamDAO);
+        prefiltroUtenti.caricaInBackground();
+        classifiche.caricaInBackground();
+    }
+
+    /**
+     * Esegue un'operazione di business in un'unica transazione.
+     * Tutte le chiamate ai DAO dell'operazione condividono la stessa connessione
+     * e vengono confermate con un solo commit, oppure annullate insieme.
+     *
+     * @param operazione  l'operazione da eseguire
+     * @param esitoErrore il valore da restituire se la transazione fallisce
+     * @param <T>         il tipo del risultato
+     * @return il risultato dell'operazione, o esitoErrore se la transazione fallisce o viene annullata
+     */
+    public <T> T inTransaction(Supplier<T> operazione, T esitoErrore) {
+        try {
+            return connectionManager.inTransaction(operazione);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return esitoErrore;
+        }
     }
 
     // ==================== AUTENTICAZIONE E GESTIONE UTENTI ====================
 
     /**
-     * Autentica un utente nel sistema
+     * Autentica un utente nel sistema e carica registrazioni e team dell'utente
      *
      * @param login    il login dell'utente
      * @param password la password dell'utente
@@ -48,6 +92,9 @@ public class Controller {
      */
     public boolean login(String login, String password) {
         currentUser = utenteDAO.autentica(login, password);
+        contesto = currentUser != null
+                ? ContestoSessione.carica(currentUser.getId(), registrazioneAsync, teamAsync)
+                : null;
         return currentUser != null;
     }
 
@@ -91,6 +138,7 @@ public class Controller {
      */
     public void logout() {
         currentUser = null;
+        contesto = null;
     }
 
     // ==================== GESTIONE HACKATHON ====================
@@ -144,6 +192,16 @@ public class Controller {
         return hackathonDAO.findInCorso();
     }
 
+    /**
+     * Ottiene le statistiche di un hackathon per la dashboard dell'evento
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return le statistiche o null se l'hackathon non esiste
+     */
+    public HackathonStats getStatisticheHackathon(int hackathonId) {
+        return hackathonDAO.findStats(hackathonId);
+    }
+
     /**
      * Apre le registrazioni per un hackathon
      *
@@ -155,12 +213,9 @@ public class Controller {
             return false;
         }
         
-        Hackathon hackathon = hackathonDAO.findById(hackathonId);
-        if (hackathon == null || hackathon.getOrganizzatoreId() != currentUser.getId()) {
-            return false; // Solo l'organizzatore può aprire le registrazioni
-        }
-        
-        return hackathonDAO.apriRegistrazioni(hackathonId);
+        // Proprietà e stato corrente sono verificati dalla stessa istruzione di aggiornamento
+        return hackathonDAO.cambiaStato(hackathonId, currentUser.getId(),
+                Hackathon.StatoHackathon.REGISTRAZIONI_APERTE) != null;
     }
 
     /**
@@ -174,12 +229,9 @@ public class Controller {
             return false;
         }
         
-        Hackathon hackathon = hackathonDAO.findById(hackathonId);
-        if (hackathon == null || hackathon.getOrganizzatoreId() != currentUser.getId()) {
-            return false;
-        }
-        
-        return hackathonDAO.chiudiRegistrazioni(hackathonId);
+        // Proprietà e stato corrente sono verificati dalla stessa istruzione di aggiornamento
+        return hackathonDAO.cambiaStato(hackathonId, currentUser.getId(),
+                Hackathon.StatoHackathon.REGISTRAZIONI_CHIUSE) != null;
     }
 
     /**
@@ -194,12 +246,23 @@ public class Controller {
             return false;
         }
         
-        Hackathon hackathon = hackathonDAO.findById(hackathonId);
-        if (hackathon == null || hackathon.getOrganizzatoreId() != currentUser.getId()) {
+        // Proprietà e stato corrente sono verificati dalla stessa istruzione di aggiornamento
+        return hackathonDAO.avviaHackathon(hackathonId, currentUser.getId(), descrizioneProblema) != null;
+    }
+
+    /**
+     * Conclude un hackathon in corso
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return true se l'operazione è riuscita
+     */
+    public boolean concludeHackathon(int hackathonId) {
+        if (currentUser == null || !currentUser.isOrganizzatore()) {
             return false;
         }
         
-        return hackathonDAO.avviaHackathon(hackathonId, descrizioneProblema);
+        return hackathonDAO.cambiaStato(hackathonId, currentUser.getId(),
+                Hackathon.StatoHackathon.CONCLUSO) != null;
     }
 
     // ==================== GESTIONE REGISTRAZIONI ====================
@@ -216,27 +279,24 @@ public class Controller {
             return false;
         }
         
-        // Verifica che l'hackathon esista e abbia le registrazioni aperte
-        Hackathon hackathon = hackathonDAO.findById(hackathonId);
-        if (hackathon == null || !hackathon.isRegistrazioniAperte()) {
+        // Apertura, duplicati e limite partecipanti sono verificati dal database
+        // nella stessa operazione dell'inserimento. Il contesto non basta a rifiutare:
+        // un organizzatore o un'importazione possono aver eliminato la registrazione
+        Registrazione registrazione = new Registrazione(currentUser.getId(), hackathonId, ruolo);
+        EsitoRegistrazione esito = registrazioneDAO.registraSeDisponibile(registrazione);
+        if (esito == EsitoRegistrazione.DUPLICATO) {
+            // Registrazione fatta fuori da questa sessione: il contesto la rileva alla prima occasione
+            Registrazione esistente = registrazioneDAO.findByUtenteAndHackathon(currentUser.getId(), hackathonId);
+            if (esistente != null) {
+                contesto.aggiungiRegistrazione(esistente);
+            }
             return false;
         }
-        
-        // Verifica che l'utente non sia già registrato
-        if (registrazioneDAO.isRegistrato(currentUser.getId(), hackathonId)) {
+        if (esito != EsitoRegistrazione.OK) {
             return false;
         }
-        
-        // Verifica i limiti se l'utente è un partecipante
-        if (ruolo == Registrazione.Ruolo.PARTECIPANTE) {
-            if (hackathonDAO.haRaggiuntoLimitePartecipanti(hackathonId)) {
-                return false;
-            }
-        }
-        
-        Registrazione registrazione = new Registrazione(currentUser.getId(), hackathonId, ruolo);
-        int id = registrazioneDAO.insert(registrazione);
-        return id > 0;
+        contesto.aggiungiRegistrazione(registrazione);
+        return true;
     }
 
     /**
@@ -268,22 +328,32 @@ public class Controller {
             return -1;
         }
         
-        // Verifica che l'utente sia registrato come partecipante all'hackathon
-        Registrazione registrazione = registrazioneDAO.findByUtenteAndHackathon(currentUser.getId(), hackathonId);
-        if (registrazione == null || !registrazione.isPartecipante() || !registrazione.isConfermata()) {
-            return -1;
-        }
-        
-        // Verifica che non abbia già un team per questo hackathon
-        List<Team> teamUtente = teamDAO.findByMembro(currentUser.getId());
-        for (Team team : teamUtente) {
-            if (team.getHackathonId() == hackathonId) {
-                return -1; // L'utente è già in un team per questo hackathon
+        int teamId = inTransaction(() -> {
+            // Verifica che l'utente sia registrato come partecipante confermato
+            // e che non abbia già un team per questo hackathon. Registrazione, conferma
+            // e team cambiano anche per azioni di organizzatori e capi team, quindi
+            // la verifica è sempre sul database e il contesto viene allineato al risultato
+            Precondizioni precondizioni = precondizioniDAO.verificaCreaTeam(currentUser.getId(), hackathonId);
+            if (!precondizioni.isRegistrato()) {
+                contesto.rimuoviRegistrazione(hackathonId);
+            } else if (precondizioni.isConfermato()) {
+                contesto.confermaRegistrazione(hackathonId);
             }
-        }
+            if (!precondizioni.isGiaInTeam()) {
+                contesto.rimuoviTeamDiHackathon(hackathonId);
+            }
+            if (!precondizioni.puoCreareTeam()) {
+                return -1;
+            }
+        
+            Team team = new Team(nomeTeam, hackathonId, currentUser.getId(), dimensioneMassima);
+            return teamDAO.insert(team);
+        }, -1);
         
-        Team team = new Team(nomeTeam, hackathonId, currentUser.getId(), dimensioneMassima);
-        return teamDAO.insert(team);
+        if (teamId > 0) {
+            contesto.aggiungiTeam(teamId, hackathonId, true);
+        }
+        return teamId;
     }
 
     /**
@@ -298,7 +368,7 @@ public class Controller {
             return false;
         }
         
-        Team team = teamDAO.findById(teamId);
+        Team team = teamDAO.findByIdWithMembri(teamId);
         if (team == null || !team.haSpazioDisponibile()) {
             return false;
         }
@@ -309,7 +379,7 @@ public class Controller {
     }
 
     /**
-     * Accetta una richiesta di join
+     * Accetta una richiesta di join; solo il capo del team può accettarla
      *
      * @param richiestaId l'ID della richiesta
      * @return true se l'accettazione è riuscita
@@ -319,12 +389,12 @@ public class Controller {
             return false;
         }
         
-        // TODO: Verificare che l'utente sia capo del team
-        return teamDAO.accettaRichiestaJoin(richiestaId);
+        // Il controllo sul capo team avviene nella stessa istruzione dell'accettazione
+        return teamDAO.accettaRichiestaJoin(richiestaId, currentUser.getId());
     }
 
     /**
-     * Rifiuta una richiesta di join
+     * Rifiuta una richiesta di join; solo il capo del team può rifiutarla
      *
      * @param richiestaId l'ID della richiesta
      * @return true se il rifiuto è riuscito
@@ -334,8 +404,7 @@ public class Controller {
             return false;
         }
         
-        // TODO: Verificare che l'utente sia capo del team
-        return teamDAO.rifiutaRichiestaJoin(richiestaId);
+        return teamDAO.rifiutaRichiestaJoin(richiestaId, currentUser.getId());
     }
 
     // ==================== GESTIONE PROGRESSI ====================
@@ -354,17 +423,17 @@ public class Controller {
             return -1;
         }
         
-        // Verifica che l'utente sia membro del team
-        if (!teamDAO.isMembro(teamId, currentUser.getId())) {
+        // L'appartenenza al team è sempre verificata sul database: l'utente può esservi entrato
+        // dopo il login, con una richiesta accettata, o esserne stato rimosso dal capo team
+        Precondizioni precondizioni = precondizioniDAO.verificaCaricaProgresso(currentUser.getId(), teamId);
+        if (!precondizioni.isTeamEsiste() || !precondizioni.isMembro()) {
+            contesto.rimuoviTeam(teamId);
             return -1;
         }
+        int hackathonId = precondizioni.getHackathonId();
+        contesto.aggiungiTeam(teamId, hackathonId, contesto.isCapo(teamId));
         
-        Team team = teamDAO.findById(teamId);
-        if (team == null) {
-            return -1;
-        }
-        
-        Progress progress = new Progress(teamId, team.getHackathonId(), titolo, descrizione, documentoPath);
+        Progress progress = new Progress(teamId, hackathonId, titolo, descrizione, documentoPath);
         return progressDAO.insert(progress);
     }
 
@@ -402,19 +471,79 @@ public class Controller {
             return false; // Voto non valido
         }
         
-        Team team = teamDAO.findById(teamId);
-        if (team == null) {
+        Valutazione savedValutazione = inTransaction(() -> {
+            // Verifica che il team esista e che il giudice non lo abbia già valutato
+            Precondizioni precondizioni = precondizioniDAO.verificaAssegnaVoto(currentUser.getId(), teamId);
+            if (!precondizioni.isTeamEsiste() || precondizioni.isGiaValutato()) {
+                return null;
+            }
+        
+            Valutazione valutazione = new Valutazione(currentUser.getId(), teamId, precondizioni.getHackathonId(), voto, commento);
+            Valutazione inserita = valutazioneDAO.insert(valutazione);
+            return inserita != null && inserita.getId() > 0 ? inserita : null;
+        }, null);
+
+        if (savedValutazione == null) {
+            return false;
+        }
+        // La classifica in memoria si aggiorna solo dopo il commit
+        classifiche.registraVoto(savedValutazione.getHackathonId(), teamId, voto);
+        return true;
+    }
+
+    /**
+     * Modifica voto e commento di una valutazione assegnata dal giudice corrente
+     *
+     * @param valutazioneId l'ID della valutazione
+     * @param voto          il nuovo voto (0-10)
+     * @param commento      il nuovo commento
+     * @return true se la valutazione è stata modificata, false anche se è stata
+     *         modificata da altri dopo essere stata letta
+     */
+    public boolean modificaVoto(int valutazioneId, int voto, String commento) {
+        if (currentUser == null || !currentUser.isGiudice() || voto < 0 || voto > 10) {
+            return false;
+        }
+        
+        Valutazione valutazione = valutazioneDAO.findById(valutazioneId);
+        if (valutazione == null || valutazione.getGiudiceId() != currentUser.getId()) {
             return false;
         }
         
-        // Verifica se il giudice ha già valutato questo team
-        if (valutazioneDAO.haGiudiceValutatoTeam(currentUser.getId(), teamId)) {
-            return false; // Già valutato
+        // Il controllo di versione dell'update garantisce che il voto sostituito sia quello letto
+        int votoPrecedente = valutazione.getVoto();
+        valutazione.setVoto(voto);
+        valutazione.setCommento(commento);
+        valutazione.setDataValutazione(LocalDateTime.now());
+        try {
+            if (!valutazioneDAO.update(valutazione)) {
+                return false;
+            }
+        } catch (ConflittoVersioneException e) {
+            return false;
+        }
+        classifiche.modificaVoto(valutazione.getHackathonId(), valutazione.getTeamId(), votoPrecedente, voto);
+        return true;
+    }
+
+    /**
+     * Elimina una valutazione assegnata dal giudice corrente
+     *
+     * @param valutazioneId l'ID della valutazione
+     * @return true se la valutazione è stata eliminata
+     */
+    public boolean eliminaVoto(int valutazioneId) {
+        if (currentUser == null || !currentUser.isGiudice()) {
+            return false;
         }
         
-        Valutazione valutazione = new Valutazione(currentUser.getId(), teamId, team.getHackathonId(), voto, commento);
-        Valutazione savedValutazione = valutazioneDAO.insert(valutazione);
-        return savedValutazione != null && savedValutazione.getId() > 0;
+        Valutazione valutazione = valutazioneDAO.findById(valutazioneId);
+        if (valutazione == null || valutazione.getGiudiceId() != currentUser.getId()
+                || !valutazioneDAO.delete(valutazioneId)) {
+            return false;
+        }
+        classifiche.rimuoviVoto(valutazione.getHackathonId(), valutazione.getTeamId(), valutazione.getVoto());
+        return true;
     }
 
     // ==================== UTILITY METHODS ====================
@@ -429,13 +558,25 @@ public class Controller {
     }
 
     /**
-     * Ottiene tutti i team di un hackathon
+     * Ottiene più utenti per ID, ad esempio per mostrare i nomi di giudici,
+     * capi team o autori delle richieste di join; solo gli utenti non in cache
+     * vengono letti dal database, con una sola query
+     *
+     * @param ids gli ID degli utenti
+     * @return gli utenti trovati per ID
+     */
+    public Map<Integer, Utente> getUtenti(Collection<Integer> ids) {
+        return utenteDAO.findByIds(ids);
+    }
+
+    /**
+     * Ottiene tutti i team di un hackathon, con membri e richieste di join in attesa
      *
      * @param hackathonId l'ID dell'hackathon
      * @return lista dei team dell'hackathon
      */
     public List<Team> getTeamHackathon(int hackathonId) {
-        return teamDAO.findByHackathon(hackathonId);
+        return teamDAO.findByHackathonWithMembri(hackathonId);
     }
 
     /**
@@ -459,13 +600,42 @@ public class Controller {
     }
 
     /**
-     * Ottiene la classifica dei team in un hackathon
+     * Ottiene la classifica dei team in un hackathon, dalla memoria se già caricata
      *
      * @param hackathonId l'ID dell'hackathon
      * @return lista degli ID dei team ordinati per valutazione media
      */
     public List<Integer> getClassificaTeam(int hackathonId) {
-        return valutazioneDAO.findClassificaTeam(hackathonId);
+        List<Integer> classifica = classifiche.getClassifica(hackathonId);
+        return classifica != null ? classifica : valutazioneDAO.findClassificaTeam(hackathonId);
+    }
+
+    /**
+     * Ottiene i primi team della classifica di un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @param k           il numero massimo di team
+     * @return lista degli ID dei primi k team ordinati per valutazione media
+     */
+    public List<Integer> getPrimiTeam(int hackathonId, int k) {
+        List<Integer> primi = classifiche.getPrimi(hackathonId, k);
+        if (primi != null) {
+            return primi;
+        }
+        List<Integer> classifica = valutazioneDAO.findClassificaTeam(hackathonId);
+        return classifica.subList(0, Math.min(Math.max(k, 0), classifica.size()));
+    }
+
+    /**
+     * Ottiene la posizione di un team nella classifica del suo hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon del team
+     * @param teamId      l'ID del team
+     * @return la posizione a partire da 1, o 0 se il team non ha valutazioni
+     */
+    public int getPosizioneTeam(int hackathonId, int teamId) {
+        Integer posizione = classifiche.getPosizione(hackathonId, teamId);
+        return posizione != null ? posizione : valutazioneDAO.findClassificaTeam(hackathonId).indexOf(teamId) + 1;
     }
 
     /**
@@ -475,7 +645,11 @@ public class Controller {
      * @return l'ID del team vincitore o null se non ci sono valutazioni
      */
     public Integer getTeamVincitore(int hackathonId) {
-        return valutazioneDAO.findTeamVincitore(hackathonId);
+        List<Integer> primi = classifiche.getPrimi(hackathonId, 1);
+        if (primi == null) {
+            return valutazioneDAO.findTeamVincitore(hackathonId);
+        }
+        return primi.isEmpty() ? null : primi.get(0);
     }
 
     /**
@@ -485,7 +659,8 @@ public class Controller {
      * @return la valutazione media del team
      */
     public double getValutazioneMediaTeam(int teamId) {
-        return valutazioneDAO.findValutazioneMediaTeam(teamId);
+        Double media = classifiche.getMedia(teamId);
+        return media != null ? media : valutazioneDAO.findValutazioneMediaTeam(teamId);
     }
 
     /**
@@ -0,0 +1,47 @@
+package dao;
+
+import database.DatabaseExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Base delle facciate asincrone dei DAO.
+ * Avvolge un DAO bloccante ed esegue le sue operazioni su virtual thread,
+ * con concorrenza verso il database limitata da {@link DatabaseExecutor}.
+ *
+ * @param <D> il tipo del DAO avvolto
+ */
+public abstract class AsyncDAO<D> {
+    private final D dao;
+    private final DatabaseExecutor executor;
+
+    /**
+     * Crea la facciata asincrona
+     *
+     * @param dao      il DAO bloccante da avvolgere
+     * @param executor l'executor su cui eseguire le operazioni
+     */
+    protected AsyncDAO(D dao, DatabaseExecutor executor) {
+        this.dao = dao;
+        this.executor = executor;
+    }
+
+    /**
+     * Esegue in modo asincrono un'operazione qualsiasi del DAO avvolto
+     *
+     * @param operazione l'operazione da eseguire sul DAO
+     * @param <T>        il tipo del risultato
+     * @return il futuro con il risultato dell'operazione
+     */
+    public <T> CompletableFuture<T> esegui(Function<D, T> operazione) {
+        return executor.submit(() -> operazione.apply(dao));
+    }
+
+    /**
+     * @return il DAO bloccante avvolto
+     */
+    public D getDao() {
+        return dao;
+    }
+}
@@ -0,0 +1,142 @@
+package dao;
+
+import database.DatabaseExecutor;
+import model.Hackathon;
+import model.HackathonStats;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Facciata asincrona di {@link HackathonDAO}.
+ * Le letture vengono eseguite su virtual thread tramite {@link DatabaseExecutor};
+ * le altre operazioni sono disponibili con {@link #esegui}.
+ */
+public class AsyncHackathonDAO extends AsyncDAO<HackathonDAO> {
+
+    /**
+     * Crea la facciata asincrona usando l'executor condiviso
+     *
+     * @param dao il DAO bloccante da avvolgere
+     */
+    public AsyncHackathonDAO(HackathonDAO dao) {
+        super(dao, DatabaseExecutor.getInstance());
+    }
+
+    /**
+     * Trova un hackathon per ID
+     *
+     * @param id l'ID dell'hackathon
+     * @return il futuro con l'hackathon trovato o null se non esiste
+     */
+    public CompletableFuture<Hackathon> findById(int id) {
+        return esegui(dao -> dao.findById(id));
+    }
+
+    /**
+     * Trova tutti gli hackathon
+     *
+     * @return il futuro con lista di tutti gli hackathon
+     */
+    public CompletableFuture<List<Hackathon>> findAll() {
+        return esegui(dao -> dao.findAll());
+    }
+
+    /**
+     * Trova gli hackathon organizzati da un utente specifico
+     *
+     * @param organizzatoreId l'ID dell'organizzatore
+     * @return il futuro con lista degli hackathon organizzati
+     */
+    public CompletableFuture<List<Hackathon>> findByOrganizzatore(int organizzatoreId) {
+        return esegui(dao -> dao.findByOrganizzatore(organizzatoreId));
+    }
+
+    /**
+     * Trova gli hackathon con registrazioni aperte
+     *
+     * @return il futuro con lista degli hackathon con registrazioni aperte
+     */
+    public CompletableFuture<List<Hackathon>> findConRegistrazioniAperte() {
+        return esegui(dao -> dao.findConRegistrazioniAperte());
+    }
+
+    /**
+     * Trova gli hackathon in corso
+     *
+     * @return il futuro con lista degli hackathon attualmente in corso
+     */
+    public CompletableFuture<List<Hackathon>> findInCorso() {
+        return esegui(dao -> dao.findInCorso());
+    }
+
+    /**
+     * Trova gli hackathon conclusi
+     *
+     * @return il futuro con lista degli hackathon conclusi
+     */
+    public CompletableFuture<List<Hackathon>> findConclusi() {
+        return esegui(dao -> dao.findConclusi());
+    }
+
+    /**
+     * Verifica se un hackathon ha raggiunto il numero massimo di partecipanti
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con true se ha raggiunto il limite
+     */
+    public CompletableFuture<Boolean> haRaggiuntoLimitePartecipanti(int hackathonId) {
+        return esegui(dao -> dao.haRaggiuntoLimitePartecipanti(hackathonId));
+    }
+
+    /**
+     * Verifica se un hackathon ha raggiunto il numero massimo di team
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con true se ha raggiunto il limite
+     */
+    public CompletableFuture<Boolean> haRaggiuntoLimiteTeam(int hackathonId) {
+        return esegui(dao -> dao.haRaggiuntoLimiteTeam(hackathonId));
+    }
+
+    /**
+     * Conta il numero di partecipanti registrati ad un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con il numero di partecipanti
+     */
+    public CompletableFuture<Integer> contaPartecipanti(int hackathonId) {
+        return esegui(dao -> dao.contaPartecipanti(hackathonId));
+    }
+
+    /**
+     * Conta il numero di team creati per un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con il numero di team
+     */
+    public CompletableFuture<Integer> contaTeam(int hackathonId) {
+        return esegui(dao -> dao.contaTeam(hackathonId));
+    }
+
+    /**
+     * Carica con una sola query le statistiche di un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con le statistiche o null se l'hackathon non esiste
+     */
+    public CompletableFuture<HackathonStats> findStats(int hackathonId) {
+        return esegui(dao -> dao.findStats(hackathonId));
+    }
+
+    /**
+     * Carica con una sola query le statistiche di più hackathon
+     *
+     * @param hackathonIds gli ID degli hackathon
+     * @return il futuro con le statistiche per ID hackathon
+     */
+    public CompletableFuture<Map<Integer, HackathonStats>> findStats(List<Integer> hackathonIds) {
+        return esegui(dao -> dao.findStats(hackathonIds));
+    }
+}
@@ -0,0 +1,182 @@
+package dao;
+
+import database.DatabaseExecutor;
+import model.Progress;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Facciata asincrona di {@link ProgressDAO}.
+ * Le letture vengono eseguite su virtual thread tramite {@link DatabaseExecutor};
+ * le altre operazioni sono disponibili con {@link #esegui}.
+ */
+public class AsyncProgressDAO extends AsyncDAO<ProgressDAO> {
+
+    /**
+     * Crea la facciata asincrona usando l'executor condiviso
+     *
+     * @param dao il DAO bloccante da avvolgere
+     */
+    public AsyncProgressDAO(ProgressDAO dao) {
+        super(dao, DatabaseExecutor.getInstance());
+    }
+
+    /**
+     * Trova un progresso per ID
+     *
+     * @param id l'ID del progresso
+     * @return il futuro con il progresso trovato o null se non esiste
+     */
+    public CompletableFuture<Progress> findById(int id) {
+        return esegui(dao -> dao.findById(id));
+    }
+
+    /**
+     * Trova tutti i progressi
+     *
+     * @return il futuro con lista di tutti i progressi
+     */
+    public CompletableFuture<List<Progress>> findAll() {
+        return esegui(dao -> dao.findAll());
+    }
+
+    /**
+     * Trova i progressi di un team specifico
+     *
+     * @param teamId l'ID del team
+     * @return il futuro con lista dei progressi del team
+     */
+    public CompletableFuture<List<Progress>> findByTeam(int teamId) {
+        return esegui(dao -> dao.findByTeam(teamId));
+    }
+
+    /**
+     * Trova i progressi di un hackathon specifico
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con lista dei progressi dell'hackathon
+     */
+    public CompletableFuture<List<Progress>> findByHackathon(int hackathonId) {
+        return esegui(dao -> dao.findByHackathon(hackathonId));
+    }
+
+    /**
+     * Trova i progressi di un team in un hackathon specifico
+     *
+     * @param teamId      l'ID del team
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con lista dei progressi del team nell'hackathon
+     */
+    public CompletableFuture<List<Progress>> findByTeamAndHackathon(int teamId, int hackathonId) {
+        return esegui(dao -> dao.findByTeamAndHackathon(teamId, hackathonId));
+    }
+
+    /**
+     * Trova i progressi commentati da un giudice specifico
+     *
+     * @param giudiceId l'ID del giudice
+     * @return il futuro con lista dei progressi commentati dal giudice
+     */
+    public CompletableFuture<List<Progress>> findByGiudice(int giudiceId) {
+        return esegui(dao -> dao.findByGiudice(giudiceId));
+    }
+
+    /**
+     * Trova i progressi senza commenti di giudice
+     *
+     * @return il futuro con lista dei progressi senza commenti
+     */
+    public CompletableFuture<List<Progress>> findSenzaCommenti() {
+        return esegui(dao -> dao.findSenzaCommenti());
+    }
+
+    /**
+     * Trova i progressi con commenti di giudice
+     *
+     * @return il futuro con lista dei progressi con commenti
+     */
+    public CompletableFuture<List<Progress>> findConCommenti() {
+        return esegui(dao -> dao.findConCommenti());
+    }
+
+    /**
+     * Verifica se un progresso ha un commento di giudice
+     *
+     * @param progressId l'ID del progresso
+     * @return il futuro con true se il progresso ha un commento
+     */
+    public CompletableFuture<Boolean> haCommentoGiudice(int progressId) {
+        return esegui(dao -> dao.haCommentoGiudice(progressId));
+    }
+
+    /**
+     * Trova il commento di un giudice specifico per un progresso
+     *
+     * @param progressId l'ID del progresso
+     * @param giudiceId  l'ID del giudice
+     * @return il futuro con il commento del giudice o null se non esiste
+     */
+    public CompletableFuture<String> findCommentoGiudice(int progressId, int giudiceId) {
+        return esegui(dao -> dao.findCommentoGiudice(progressId, giudiceId));
+    }
+
+    /**
+     * Conta il numero di progressi di un team
+     *
+     * @param teamId l'ID del team
+     * @return il futuro con il numero di progressi
+     */
+    public CompletableFuture<Integer> contaProgressiTeam(int teamId) {
+        return esegui(dao -> dao.contaProgressiTeam(teamId));
+    }
+
+    /**
+     * Conta il numero di progressi di un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con il numero di progressi
+     */
+    public CompletableFuture<Integer> contaProgressiHackathon(int hackathonId) {
+        return esegui(dao -> dao.contaProgressiHackathon(hackathonId));
+    }
+
+    /**
+     * Conta il numero di progressi commentati da un giudice
+     *
+     * @param giudiceId l'ID del giudice
+     * @return il futuro con il numero di progressi commentati
+     */
+    public CompletableFuture<Integer> contaProgressiCommentati(int giudiceId) {
+        return esegui(dao -> dao.contaProgressiCommentati(giudiceId));
+    }
+
+    /**
+     * Trova l'ultimo progresso di un team
+     *
+     * @param teamId l'ID del team
+     * @return il futuro con l'ultimo progresso del team o null se non esiste
+     */
+    public CompletableFuture<Progress> findUltimoProgressoTeam(int teamId) {
+        return esegui(dao -> dao.findUltimoProgressoTeam(teamId));
+    }
+
+    /**
+     * Trova tutti i progressi ordinati per data di caricamento (più recenti prima)
+     *
+     * @return il futuro con lista dei progressi ordinati per data
+     */
+    public CompletableFuture<List<Progress>> findAllOrderByDataCaricamento() {
+        return esegui(dao -> dao.findAllOrderByDataCaricamento());
+    }
+
+    /**
+     * Trova i progressi di un team ordinati per data di caricamento
+     *
+     * @param teamId l'ID del team
+     * @return il futuro con lista dei progressi del team ordinati per data
+     */
+    public CompletableFuture<List<Progress>> findByTeamOrderByDataCaricamento(int teamId) {
+        return esegui(dao -> dao.findByTeamOrderByDataCaricamento(teamId));
+    }
+}
@@ -0,0 +1,188 @@
+package dao;
+
+import database.DatabaseExecutor;
+import model.Registrazione;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Facciata asincrona di {@link RegistrazioneDAO}.
+ * Le letture vengono eseguite su virtual thread tramite {@link DatabaseExecutor};
+ * le altre operazioni sono disponibili con {@link #esegui}.
+ */
+public class AsyncRegistrazioneDAO extends AsyncDAO<RegistrazioneDAO> {
+
+    /**
+     * Crea la facciata asincrona usando l'executor condiviso
+     *
+     * @param dao il DAO bloccante da avvolgere
+     */
+    public AsyncRegistrazioneDAO(RegistrazioneDAO dao) {
+        super(dao, DatabaseExecutor.getInstance());
+    }
+
+    /**
+     * Trova una registrazione per ID
+     *
+     * @param id l'ID della registrazione
+     * @return il futuro con la registrazione trovata o null se non esiste
+     */
+    public CompletableFuture<Registrazione> findById(int id) {
+        return esegui(dao -> dao.findById(id));
+    }
+
+    /**
+     * Trova tutte le registrazioni
+     *
+     * @return il futuro con lista di tutte le registrazioni
+     */
+    public CompletableFuture<List<Registrazione>> findAll() {
+        return esegui(dao -> dao.findAll());
+    }
+
+    /**
+     * Trova le registrazioni di un utente specifico
+     *
+     * @param utenteId l'ID dell'utente
+     * @return il futuro con lista delle registrazioni dell'utente
+     */
+    public CompletableFuture<List<Registrazione>> findByUtente(int utenteId) {
+        return esegui(dao -> dao.findByUtente(utenteId));
+    }
+
+    /**
+     * Trova le registrazioni per un hackathon specifico
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con lista delle registrazioni dell'hackathon
+     */
+    public CompletableFuture<List<Registrazione>> findByHackathon(int hackathonId) {
+        return esegui(dao -> dao.findByHackathon(hackathonId));
+    }
+
+    /**
+     * Trova una registrazione specifica di un utente ad un hackathon
+     *
+     * @param utenteId   l'ID dell'utente
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con la registrazione trovata o null se non esiste
+     */
+    public CompletableFuture<Registrazione> findByUtenteAndHackathon(int utenteId, int hackathonId) {
+        return esegui(dao -> dao.findByUtenteAndHackathon(utenteId, hackathonId));
+    }
+
+    /**
+     * Trova le registrazioni confermate per un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con lista delle registrazioni confermate
+     */
+    public CompletableFuture<List<Registrazione>> findConfermateByHackathon(int hackathonId) {
+        return esegui(dao -> dao.findConfermateByHackathon(hackathonId));
+    }
+
+    /**
+     * Trova le registrazioni non confermate per un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con lista delle registrazioni non confermate
+     */
+    public CompletableFuture<List<Registrazione>> findNonConfermateByHackathon(int hackathonId) {
+        return esegui(dao -> dao.findNonConfermateByHackathon(hackathonId));
+    }
+
+    /**
+     * Trova le registrazioni per ruolo in un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @param ruolo       il ruolo da cercare
+     * @return il futuro con lista delle registrazioni con il ruolo specificato
+     */
+    public CompletableFuture<List<Registrazione>> findByHackathonAndRuolo(int hackathonId, Registrazione.Ruolo ruolo) {
+        return esegui(dao -> dao.findByHackathonAndRuolo(hackathonId, ruolo));
+    }
+
+    /**
+     * Trova tutti gli organizzatori di un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con lista delle registrazioni degli organizzatori
+     */
+    public CompletableFuture<List<Registrazione>> findOrganizzatori(int hackathonId) {
+        return esegui(dao -> dao.findOrganizzatori(hackathonId));
+    }
+
+    /**
+     * Trova tutti i giudici di un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con lista delle registrazioni dei giudici
+     */
+    public CompletableFuture<List<Registrazione>> findGiudici(int hackathonId) {
+        return esegui(dao -> dao.findGiudici(hackathonId));
+    }
+
+    /**
+     * Trova tutti i partecipanti di un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con lista delle registrazioni dei partecipanti
+     */
+    public CompletableFuture<List<Registrazione>> findPartecipanti(int hackathonId) {
+        return esegui(dao -> dao.findPartecipanti(hackathonId));
+    }
+
+    /**
+     * Verifica se un utente è registrato ad un hackathon
+     *
+     * @param utenteId   l'ID dell'utente
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con true se l'utente è registrato
+     */
+    public CompletableFuture<Boolean> isRegistrato(int utenteId, int hackathonId) {
+        return esegui(dao -> dao.isRegistrato(utenteId, hackathonId));
+    }
+
+    /**
+     * Verifica se un utente è confermato per un hackathon
+     *
+     * @param utenteId   l'ID dell'utente
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con true se l'utente è confermato
+     */
+    public CompletableFuture<Boolean> isConfermato(int utenteId, int hackathonId) {
+        return esegui(dao -> dao.isConfermato(utenteId, hackathonId));
+    }
+
+    /**
+     * Conta il numero di registrazioni per un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con il numero di registrazioni
+     */
+    public CompletableFuture<Integer> contaRegistrazioni(int hackathonId) {
+        return esegui(dao -> dao.contaRegistrazioni(hackathonId));
+    }
+
+    /**
+     * Conta il numero di registrazioni confermate per un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con il numero di registrazioni confermate
+     */
+    public CompletableFuture<Integer> contaRegistrazioniConfermate(int hackathonId) {
+        return esegui(dao -> dao.contaRegistrazioniConfermate(hackathonId));
+    }
+
+    /**
+     * Conta il numero di registrazioni per ruolo in un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @param ruolo       il ruolo da contare
+     * @return il futuro con il numero di registrazioni per quel ruolo
+     */
+    public CompletableFuture<Integer> contaRegistrazioniPerRuolo(int hackathonId, Registrazione.Ruolo ruolo) {
+        return esegui(dao -> dao.contaRegistrazioniPerRuolo(hackathonId, ruolo));
+    }
+}
@@ -0,0 +1,176 @@
+package dao;
+
+import database.DatabaseExecutor;
+import model.RichiestaJoin;
+import model.Team;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Facciata asincrona di {@link TeamDAO}.
+ * Le letture vengono eseguite su virtual thread tramite {@link DatabaseExecutor};
+ * le altre operazioni sono disponibili con {@link #esegui}.
+ */
+public class AsyncTeamDAO extends AsyncDAO<TeamDAO> {
+
+    /**
+     * Crea la facciata asincrona usando l'executor condiviso
+     *
+     * @param dao il DAO bloccante da avvolgere
+     */
+    public AsyncTeamDAO(TeamDAO dao) {
+        super(dao, DatabaseExecutor.getInstance());
+    }
+
+    /**
+     * Trova un team per ID
+     *
+     * @param id l'ID del team
+     * @return il futuro con il team trovato o null se non esiste
+     */
+    public CompletableFuture<Team> findById(int id) {
+        return esegui(dao -> dao.findById(id));
+    }
+
+    /**
+     * Trova un team per ID insieme agli ID dei membri e al numero di richieste di join in attesa
+     *
+     * @param id l'ID del team
+     * @return il futuro con il team con i membri popolati o null se non esiste
+     */
+    public CompletableFuture<Team> findByIdWithMembri(int id) {
+        return esegui(dao -> dao.findByIdWithMembri(id));
+    }
+
+    /**
+     * Trova tutti i team
+     *
+     * @return il futuro con lista di tutti i team
+     */
+    public CompletableFuture<List<Team>> findAll() {
+        return esegui(dao -> dao.findAll());
+    }
+
+    /**
+     * Trova i team di un hackathon specifico
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con lista dei team dell'hackathon
+     */
+    public CompletableFuture<List<Team>> findByHackathon(int hackathonId) {
+        return esegui(dao -> dao.findByHackathon(hackathonId));
+    }
+
+    /**
+     * Trova i team di un hackathon insieme agli ID dei membri e al numero di richieste di join in attesa
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return il futuro con lista dei team dell'hackathon con i membri popolati
+     */
+    public CompletableFuture<List<Team>> findByHackathonWithMembri(int hackathonId) {
+        return esegui(dao -> dao.findByHackathonWithMembri(hackathonId));
+    }
+
+    /**
+     * Trova i team di cui un utente è membro
+     *
+     * @param utenteId l'ID dell'utente
+     * @return il futuro con lista dei team dell'utente
+     */
+    public CompletableFuture<List<Team>> findByMembro(int utenteId) {
+        return esegui(dao -> dao.findByMembro(utenteId));
+    }
+
+    /**
+     * Trova i team di cui un utente è capo
+     *
+     * @param capoTeamId l'ID del capo team
+     * @return il futuro con lista dei team di cui l'utente è capo
+     */
+    public CompletableFuture<List<Team>> findByCapoTeam(int capoTeamId) {
+        return esegui(dao -> dao.findByCapoTeam(capoTeamId));
+    }
+
+    /**
+     * Verifica se un utente è membro di un team
+     *
+     * @param teamId   l'ID del team
+     * @param utenteId l'ID dell'utente
+     * @return il futuro con true se l'utente è membro del team
+     */
+    public CompletableFuture<Boolean> isMembro(int teamId, int utenteId) {
+        return esegui(dao -> dao.isMembro(teamId, utenteId));
+    }
+
+    /**
+     * Verifica se un utente è capo di un team
+     *
+     * @param teamId   l'ID del team
+     * @param utenteId l'ID dell'utente
+     * @return il futuro con true se l'utente è capo del team
+     */
+    public CompletableFuture<Boolean> isCapoTeam(int teamId, int utenteId) {
+        return esegui(dao -> dao.isCapoTeam(teamId, utenteId));
+    }
+
+    /**
+     * Verifica se un team ha spazio disponibile
+     *
+     * @param teamId l'ID del team
+     * @return il futuro con true se il team ha spazio disponibile
+     */
+    public CompletableFuture<Boolean> haSpazioDisponibile(int teamId) {
+        return esegui(dao -> dao.haSpazioDisponibile(teamId));
+    }
+
+    /**
+     * Conta il numero di membri di un team
+     *
+     * @param teamId l'ID del team
+     * @return il futuro con il numero di membri
+     */
+    public CompletableFuture<Integer> contaMembri(int teamId) {
+        return esegui(dao -> dao.contaMembri(teamId));
+    }
+
+    /**
+     * Trova tutti i membri di un team
+     *
+     * @param teamId l'ID del team
+     * @return il futuro con lista degli ID dei membri
+     */
+    public CompletableFuture<List<Integer>> findMembri(int teamId) {
+        return esegui(dao -> dao.findMembri(teamId));
+    }
+
+    /**
+     * Trova le richieste di join per un team
+     *
+     * @param teamId l'ID del team
+     * @return il futuro con lista delle richieste di join
+     */
+    public CompletableFuture<List<RichiestaJoin>> findRichiesteJoin(int teamId) {
+        return esegui(dao -> dao.findRichiesteJoin(teamId));
+    }
+
+    /**
+     * Trova le richieste di join in attesa per un team
+     *
+     * @param teamId l'ID del team
+     * @return il futuro con lista delle richieste di join in attesa
+     */
+    public CompletableFuture<List<RichiestaJoin>> findRichiesteJoinInAttesa(int teamId) {
+        return esegui(dao -> dao.findRichiesteJoinInAttesa(teamId));
+    }
+
+    /**
+     * Trova le richieste di join di un utente
+     *
+     * @param utenteId l'ID dell'utente
+     * @return il futuro con lista delle richieste di join dell'utente
+     */
+    public CompletableFuture<List<RichiestaJoin>> findRichiesteJoinByUtente(int utenteId) {
+        return esegui(dao -> dao.findRichiesteJoinByUtente(utenteId));
+    }
+}
@@ -0,0 +1,143 @@
+package dao;
+
+import database.DatabaseExecutor;
+import model.Utente;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Facciata asincrona di {@link UtenteDAO}.
+ * Le letture vengono eseguite su virtual thread tramite {@link DatabaseExecutor};
+ * le altre operazioni sono disponibili con {@link #esegui}.
+ */
+public class AsyncUtenteDAO extends AsyncDAO<UtenteDAO> {
+
+    /**
+     * Crea la facciata asincrona usando l'executor condiviso
+     *
+     * @param dao il DAO bloccante da avvolgere
+     */
+    public AsyncUtenteDAO(UtenteDAO dao) {
+        super(dao, DatabaseExecutor.getInstance());
+    }
+
+    /**
+     * Trova un utente per ID
+     *
+     * @param id l'ID dell'utente
+     * @return il futuro con l'utente trovato o null se non esiste
+     */
+    public CompletableFuture<Utente> findById(int id) {
+        return esegui(dao -> dao.findById(id));
+    }
+
+    /**
+     * Trova più utenti per ID con una sola query
+     *
+     * @param ids gli ID degli utenti
+     * @return il futuro con gli utenti trovati per ID
+     */
+    public CompletableFuture<Map<Integer, Utente>> findByIds(Collection<Integer> ids) {
+        return esegui(dao -> dao.findByIds(ids));
+    }
+
+    /**
+     * Trova tutti gli utenti
+     *
+     * @return il futuro con lista di tutti gli utenti
+     */
+    public CompletableFuture<List<Utente>> findAll() {
+        return esegui(dao -> dao.findAll());
+    }
+
+    /**
+     * Trova un utente per login
+     *
+     * @param login il login dell'utente
+     * @return il futuro con l'utente trovato o null se non esiste
+     */
+    public CompletableFuture<Utente> findByLogin(String login) {
+        return esegui(dao -> dao.findByLogin(login));
+    }
+
+    /**
+     * Trova un utente per email
+     *
+     * @param email l'email dell'utente
+     * @return il futuro con l'utente trovato o null se non esiste
+     */
+    public CompletableFuture<Utente> findByEmail(String email) {
+        return esegui(dao -> dao.findByEmail(email));
+    }
+
+    /**
+     * Verifica le credenziali di un utente
+     *
+     * @param login    il login dell'utente
+     * @param password la password dell'utente
+     * @return il futuro con l'utente se le credenziali sono corrette, null altrimenti
+     */
+    public CompletableFuture<Utente> autentica(String login, String password) {
+        return esegui(dao -> dao.autentica(login, password));
+    }
+
+    /**
+     * Trova tutti gli organizzatori
+     *
+     * @return il futuro con lista di tutti gli organizzatori
+     */
+    public CompletableFuture<List<Utente>> findOrganizzatori() {
+        return esegui(dao -> dao.findOrganizzatori());
+    }
+
+    /**
+     * Trova tutti i giudici
+     *
+     * @return il futuro con lista di tutti i giudici
+     */
+    public CompletableFuture<List<Utente>> findGiudici() {
+        return esegui(dao -> dao.findGiudici());
+    }
+
+    /**
+     * Trova tutti i partecipanti
+     *
+     * @return il futuro con lista di tutti i partecipanti
+     */
+    public CompletableFuture<List<Utente>> findPartecipanti() {
+        return esegui(dao -> dao.findPartecipanti());
+    }
+
+    /**
+     * Trova utenti per ruolo
+     *
+     * @param ruolo il ruolo da cercare
+     * @return il futuro con lista di utenti con il ruolo specificato
+     */
+    public CompletableFuture<List<Utente>> findByRuolo(String ruolo) {
+        return esegui(dao -> dao.findByRuolo(ruolo));
+    }
+
+    /**
+     * Verifica se un login è già utilizzato
+     *
+     * @param login il login da verificare
+     * @return il futuro con true se il login è già utilizzato
+     */
+    public CompletableFuture<Boolean> isLoginUtilizzato(String login) {
+        return esegui(dao -> dao.isLoginUtilizzato(login));
+    }
+
+    /**
+     * Verifica se un'email è già utilizzata
+     *
+     * @param email l'email da verificare
+     * @return il futuro con true se l'email è già utilizzata
+     */
+    public CompletableFuture<Boolean> isEmailUtilizzata(String email) {
+        return esegui(dao -> dao.isEmailUtilizzata(email));
+    }
+}
@@ -1,7 +1,10 @@
 package dao;
 
+import database.ConflittoVersioneException;
 import model.Hackathon;
+import model.HackathonStats;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interfaccia per l'accesso ai dati degli Hackathon.
@@ -18,10 +21,14 @@ public interface HackathonDAO {
     int insert(Hackathon hackathon);
     
     /**
-     * Aggiorna un hackathon esistente nel database
+     * Aggiorna un hackathon esistente nel database.
+     * Vengono scritte solo le colonne dei campi modificati; se non ci sono modifiche
+     * non viene eseguita alcuna istruzione. Lo stato non viene mai scritto: si cambia
+     * con {@link #cambiaStato(int, int, Hackathon.StatoHackathon)}
      *
      * @param hackathon l'hackathon da aggiornare
-     * @return true se l'aggiornamento è riuscito
+     * @return true se l'aggiornamento è riuscito o non c'era nulla da aggiornare
+     * @throws ConflittoVersioneException se l'hackathon è stato modificato da altri dopo essere stato letto
      */
     boolean update(Hackathon hackathon);
     
@@ -48,6 +55,16 @@ public interface HackathonDAO {
      */
     List<Hackathon> findAll();
     
+    /**
+     * Trova una pagina degli hackathon in ordine di data di inizio decrescente, tramite paginazione keyset
+     *
+     * @param cursore    il cursore restituito dalla pagina precedente o null per la prima pagina
+     * @param dimensione il numero massimo di elementi della pagina
+     * @return la pagina trovata, con il cursore della pagina successiva
+     * @throws IllegalArgumentException se il cursore non è valido o la dimensione non è positiva
+     */
+    Page<Hackathon> findAll(String cursore, int dimensione);
+    
     /**
      * Trova gli hackathon organizzati da un utente specifico
      *
@@ -78,7 +95,7 @@ public interface HackathonDAO {
     List<Hackathon> findConclusi();
     
     /**
-     * Apre le registrazioni per un hackathon
+     * Apre le registrazioni per un hackathon, se lo stato corrente lo consente
      *
      * @param hackathonId l'ID dell'hackathon
      * @return true se l'operazione è riuscita
@@ -86,7 +103,7 @@ public interface HackathonDAO {
     boolean apriRegistrazioni(int hackathonId);
     
     /**
-     * Chiude le registrazioni per un hackathon
+     * Chiude le registrazioni per un hackathon, se sono aperte
      *
      * @param hackathonId l'ID dell'hackathon
      * @return true se l'operazione è riuscita
@@ -94,7 +111,7 @@ public interface HackathonDAO {
     boolean chiudiRegistrazioni(int hackathonId);
     
     /**
-     * Avvia un hackathon (pubblica il problema)
+     * Avvia un hackathon (pubblica il problema), se lo stato corrente lo consente
      *
      * @param hackathonId l'ID dell'hackathon
      * @param descrizioneProblema la descrizione del problema
@@ -103,7 +120,7 @@ public interface HackathonDAO {
     boolean avviaHackathon(int hackathonId, String descrizioneProblema);
     
     /**
-     * Conclude un hackathon
+     * Conclude un hackathon, se è in corso
      *
      * @param hackathonId l'ID dell'hackathon
      * @return true se l'operazione è riuscita
@@ -111,7 +128,32 @@ public interface HackathonDAO {
     boolean concludeHackathon(int hackathonId);
     
     /**
-     * Verifica se un hackathon ha raggiunto il numero massimo di partecipanti
+     * Porta un hackathon in un nuovo stato con un'unica istruzione condizionale:
+     * la transizione avviene solo se l'hackathon appartiene all'organizzatore e si trova
+     * in uno degli stati ammessi da {@link Hackathon.StatoHackathon#getPrecedenti()}
+     *
+     * @param hackathonId     l'ID dell'hackathon
+     * @param organizzatoreId l'ID dell'organizzatore che richiede la transizione
+     * @param nuovoStato      lo stato di destinazione
+     * @return l'hackathon aggiornato o null se la transizione non è ammessa
+     */
+    Hackathon cambiaStato(int hackathonId, int organizzatoreId, Hackathon.StatoHackathon nuovoStato);
+    
+    /**
+     * Avvia un hackathon pubblicando il problema, con un'unica istruzione condizionale
+     * come {@link #cambiaStato(int, int, Hackathon.StatoHackathon)}
+     *
+     * @param hackathonId         l'ID dell'hackathon
+     * @param organizzatoreId     l'ID dell'organizzatore che avvia l'evento
+     * @param descrizioneProblema la descrizione del problema
+     * @return l'hackathon aggiornato o null se la transizione non è ammessa
+     */
+    Hackathon avviaHackathon(int hackathonId, int organizzatoreId, String descrizioneProblema);
+    
+    /**
+     * Verifica se un hackathon ha raggiunto il numero massimo di partecipanti.
+     * Ogni registrazione da partecipante occupa un posto, anche se non ancora confermata,
+     * come in {@link RegistrazioneDAO#registraSeDisponibile}
      *
      * @param hackathonId l'ID dell'hackathon
      * @return true se ha raggiunto il limite
@@ -141,4 +183,21 @@ public interface HackathonDAO {
      * @return il numero di team
      */
     int contaTeam(int hackathonId);
+    
+    /**
+     * Carica con una sola query le statistiche di un hackathon: registrazioni
+     * (totali, confermate e per ruolo), team e progressi
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return le statistiche o null se l'hackathon non esiste
+     */
+    HackathonStats findStats(int hackathonId);
+    
+    /**
+     * Carica con una sola query le statistiche di più hackathon
+     *
+     * @param hackathonIds gli ID degli hackathon
+     * @return le statistiche per ID hackathon, nell'ordine degli ID; gli ID inesistenti sono omessi
+     */
+    Map<Integer, HackathonStats> findStats(List<Integer> hackathonIds);
 } 
\ No newline at end of file
@@ -0,0 +1,126 @@
+package dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Pagina di risultati ottenuta con paginazione keyset.
+ * Il cursore è un token opaco che codifica la chiave di ordinamento dell'ultimo
+ * elemento della pagina: la pagina successiva riparte da quella chiave tramite
+ * l'indice, quindi ogni pagina costa come la prima indipendentemente dalla profondità.
+ *
+ * @param <T> il tipo degli elementi
+ */
+public class Page<T> {
+    private static final String SEPARATORE = ".";
+
+    private final List<T> elementi;
+    private final String cursoreSuccessivo;
+
+    /**
+     * Costruttore per una pagina di risultati
+     *
+     * @param elementi          gli elementi della pagina
+     * @param cursoreSuccessivo il cursore della pagina successiva o null se è l'ultima
+     */
+    public Page(List<T> elementi, String cursoreSuccessivo) {
+        this.elementi = Collections.unmodifiableList(elementi);
+        this.cursoreSuccessivo = cursoreSuccessivo;
+    }
+
+    /**
+     * Crea una pagina dalle righe lette con LIMIT dimensione + 1: la riga in più,
+     * se presente, indica che esiste una pagina successiva e non viene restituita
+     *
+     * @param righe      le righe lette, al più dimensione + 1
+     * @param dimensione il numero di elementi per pagina
+     * @param chiave     estrae da un elemento i valori della chiave di ordinamento
+     * @param <T>        il tipo degli elementi
+     * @return la pagina
+     * @throws IllegalArgumentException se la dimensione non è positiva
+     */
+    public static <T> Page<T> da(List<T> righe, int dimensione, Function<T, Object[]> chiave) {
+        verificaDimensione(dimensione);
+        if (righe.size() <= dimensione) {
+            return new Page<>(righe, null);
+        }
+        List<T> elementi = new ArrayList<>(righe.subList(0, dimensione));
+        return new Page<>(elementi, creaCursore(chiave.apply(elementi.get(dimensione - 1))));
+    }
+
+    /**
+     * Verifica la dimensione di una pagina prima di usarla nel LIMIT di una query
+     *
+     * @param dimensione il numero di elementi per pagina richiesto
+     * @throws IllegalArgumentException se la dimensione non è positiva
+     */
+    public static void verificaDimensione(int dimensione) {
+        if (dimensione <= 0) {
+            throw new IllegalArgumentException("Dimensione della pagina non valida: " + dimensione);
+        }
+    }
+
+    /**
+     * Codifica i valori di una chiave di ordinamento in un cursore
+     *
+     * @param valori i valori della chiave, convertiti con toString()
+     * @return il cursore
+     */
+    public static String creaCursore(Object... valori) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        StringBuilder cursore = new StringBuilder();
+        for (Object valore : valori) {
+            if (cursore.length() > 0) {
+                cursore.append(SEPARATORE);
+            }
+            cursore.append(encoder.encodeToString(String.valueOf(valore).getBytes(StandardCharsets.UTF_8)));
+        }
+        return cursore.toString();
+    }
+
+    /**
+     * Decodifica un cursore nei valori della chiave di ordinamento
+     *
+     * @param cursore   il cursore ricevuto da una pagina precedente
+     * @param numValori il numero di valori atteso
+     * @return i valori della chiave come stringhe
+     * @throws IllegalArgumentException se il cursore non è valido
+     */
+    public static String[] leggiCursore(String cursore, int numValori) {
+        String[] parti = cursore.split("\\" + SEPARATORE, -1);
+        if (parti.length != numValori) {
+            throw new IllegalArgumentException("Cursore non valido: " + cursore);
+        }
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        String[] valori = new String[parti.length];
+        for (int i = 0; i < parti.length; i++) {
+            valori[i] = new String(decoder.decode(parti[i]), StandardCharsets.UTF_8);
+        }
+        return valori;
+    }
+
+    /**
+     * Verifica se esiste una pagina successiva
+     *
+     * @return true se esiste una pagina successiva
+     */
+    public boolean hasNext() {
+        return cursoreSuccessivo != null;
+    }
+
+    // Getters
+    public List<T> getElementi() { return elementi; }
+    public String getCursoreSuccessivo() { return cursoreSuccessivo; }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "elementi=" + elementi.size() +
+                ", cursoreSuccessivo='" + cursoreSuccessivo + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package dao;
+
+import model.Precondizioni;
+
+/**
+ * Interfaccia per le verifiche preliminari delle operazioni di scrittura.
+ * Ogni metodo raccoglie con una sola query tutte le condizioni di un flusso
+ * del Controller, che prima richiedevano più letture separate.
+ */
+public interface PrecondizioniDAO {
+    
+    /**
+     * Verifica le condizioni per la creazione di un team: registrazione dell'utente
+     * all'hackathon (esistente, confermata, come partecipante) e appartenenza,
+     * come capo o membro, ad un altro team dello stesso hackathon
+     *
+     * @param utenteId    l'ID dell'utente
+     * @param hackathonId l'ID dell'hackathon
+     * @return le precondizioni con registrato, confermato, partecipante e giaInTeam valorizzati
+     */
+    Precondizioni verificaCreaTeam(int utenteId, int hackathonId);
+    
+    /**
+     * Verifica le condizioni per il caricamento di un progresso: esistenza del team,
+     * suo hackathon e appartenenza dell'utente al team, come capo o membro
+     *
+     * @param utenteId l'ID dell'utente
+     * @param teamId   l'ID del team
+     * @return le precondizioni con teamEsiste, hackathonId e membro valorizzati
+     */
+    Precondizioni verificaCaricaProgresso(int utenteId, int teamId);
+    
+    /**
+     * Verifica le condizioni per l'assegnazione di un voto: esistenza del team,
+     * suo hackathon e presenza di una valutazione dello stesso giudice
+     *
+     * @param giudiceId l'ID del giudice
+     * @param teamId    l'ID del team
+     * @return le precondizioni con teamEsiste, hackathonId e giaValutato valorizzati
+     */
+    Precondizioni verificaAssegnaVoto(int giudiceId, int teamId);
+}
@@ -2,6 +2,7 @@ package dao;
 
 import model.Progress;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interfaccia per l'accesso ai dati dei Progress.
@@ -180,6 +181,15 @@ public interface ProgressDAO {
      */
     List<Progress> findAllOrderByDataCaricamento();
     
+    /**
+     * Scorre tutti i progressi ordinati per data di caricamento (più recenti prima),
+     * leggendoli dal database a blocchi. Lo Stream tiene occupata una connessione
+     * e va chiuso al termine, ad esempio con try-with-resources.
+     *
+     * @return lo Stream dei progressi ordinati per data
+     */
+    Stream<Progress> streamAllOrderByDataCaricamento();
+    
     /**
      * Trova i progressi di un team ordinati per data di caricamento
      *
@@ -1,7 +1,9 @@
 package dao;
 
+import model.EsitoRegistrazione;
 import model.Registrazione;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interfaccia per l'accesso ai dati delle Registrazioni.
@@ -17,6 +19,26 @@ public interface RegistrazioneDAO {
      */
     int insert(Registrazione registrazione);
     
+    /**
+     * Inserisce più registrazioni con un'unica istruzione batch, confermando a blocchi
+     *
+     * @param registrazioni le registrazioni da inserire
+     * @return gli ID delle registrazioni inserite, nello stesso ordine della lista
+     */
+    List<Integer> insertAll(List<Registrazione> registrazioni);
+    
+    /**
+     * Inserisce una registrazione in modo atomico solo se l'hackathon esiste, ha le
+     * registrazioni aperte e, per i partecipanti, non ha raggiunto max_partecipanti.
+     * Ogni registrazione da partecipante occupa un posto anche prima della conferma.
+     * Le registrazioni concorrenti allo stesso hackathon vengono serializzate,
+     * quindi il limite non può essere superato.
+     *
+     * @param registrazione la registrazione da inserire; in caso di successo ne viene impostato l'ID
+     * @return l'esito della registrazione
+     */
+    EsitoRegistrazione registraSeDisponibile(Registrazione registrazione);
+    
     /**
      * Aggiorna una registrazione esistente nel database
      *
@@ -48,6 +70,16 @@ public interface RegistrazioneDAO {
      */
     List<Registrazione> findAll();
     
+    /**
+     * Trova una pagina delle registrazioni in ordine di data di registrazione decrescente, tramite paginazione keyset
+     *
+     * @param cursore    il cursore restituito dalla pagina precedente o null per la prima pagina
+     * @param dimensione il numero massimo di elementi della pagina
+     * @return la pagina trovata, con il cursore della pagina successiva
+     * @throws IllegalArgumentException se il cursore non è valido o la dimensione non è positiva
+     */
+    Page<Registrazione> findAll(String cursore, int dimensione);
+    
     /**
      * Trova le registrazioni di un utente specifico
      *
@@ -64,6 +96,16 @@ public interface RegistrazioneDAO {
      */
     List<Registrazione> findByHackathon(int hackathonId);
     
+    /**
+     * Scorre le registrazioni di un hackathon leggendole dal database a blocchi.
+     * Lo Stream tiene occupata una connessione e va chiuso al termine,
+     * ad esempio con try-with-resources.
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return lo Stream delle registrazioni dell'hackathon
+     */
+    Stream<Registrazione> streamByHackathon(int hackathonId);
+    
     /**
      * Trova una registrazione specifica di un utente ad un hackathon
      *
@@ -1,7 +1,9 @@
 package dao;
 
+import database.ConflittoVersioneException;
 import model.Team;
 import model.RichiestaJoin;
+import model.EsitoRichiestaJoin;
 import java.util.List;
 
 /**
@@ -19,10 +21,13 @@ public interface TeamDAO {
     int insert(Team team);
     
     /**
-     * Aggiorna un team esistente nel database
+     * Aggiorna un team esistente nel database.
+     * Vengono scritte solo le colonne dei campi modificati; se non ci sono modifiche
+     * non viene eseguita alcuna istruzione
      *
      * @param team il team da aggiornare
-     * @return true se l'aggiornamento è riuscito
+     * @return true se l'aggiornamento è riuscito o non c'era nulla da aggiornare
+     * @throws ConflittoVersioneException se il team è stato modificato da altri dopo essere stato letto
      */
     boolean update(Team team);
     
@@ -42,6 +47,15 @@ public interface TeamDAO {
      */
     Team findById(int id);
     
+    /**
+     * Trova un team per ID insieme agli ID dei membri e al numero di richieste
+     * di join in attesa, con una sola query
+     *
+     * @param id l'ID del team
+     * @return il team con i membri popolati o null se non esiste
+     */
+    Team findByIdWithMembri(int id);
+    
     /**
      * Trova tutti i team
      *
@@ -49,6 +63,16 @@ public interface TeamDAO {
      */
     List<Team> findAll();
     
+    /**
+     * Trova una pagina dei team in ordine di nome, tramite paginazione keyset
+     *
+     * @param cursore    il cursore restituito dalla pagina precedente o null per la prima pagina
+     * @param dimensione il numero massimo di elementi della pagina
+     * @return la pagina trovata, con il cursore della pagina successiva
+     * @throws IllegalArgumentException se il cursore non è valido o la dimensione non è positiva
+     */
+    Page<Team> findAll(String cursore, int dimensione);
+    
     /**
      * Trova i team di un hackathon specifico
      *
@@ -57,6 +81,15 @@ public interface TeamDAO {
      */
     List<Team> findByHackathon(int hackathonId);
     
+    /**
+     * Trova i team di un hackathon insieme agli ID dei membri e al numero di
+     * richieste di join in attesa, con una sola query
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return lista dei team dell'hackathon con i membri popolati
+     */
+    List<Team> findByHackathonWithMembri(int hackathonId);
+    
     /**
      * Trova i team di cui un utente è membro
      *
@@ -82,6 +115,15 @@ public interface TeamDAO {
      */
     boolean aggiungiMembro(int teamId, int utenteId);
     
+    /**
+     * Aggiunge più membri ad un team con un'unica istruzione batch, confermando a blocchi
+     *
+     * @param teamId    l'ID del team
+     * @param utentiIds gli ID degli utenti da aggiungere
+     * @return il numero di membri aggiunti
+     */
+    int aggiungiMembri(int teamId, List<Integer> utentiIds);
+    
     /**
      * Rimuove un membro da un team
      *
@@ -118,7 +160,7 @@ public interface TeamDAO {
     boolean haSpazioDisponibile(int teamId);
     
     /**
-     * Conta il numero di membri di un team
+     * Conta il numero di membri di un team, compreso il capo team
      *
      * @param teamId l'ID del team
      * @return il numero di membri
@@ -174,18 +216,34 @@ public interface TeamDAO {
     List<RichiestaJoin> findRichiesteJoinByUtente(int utenteId);
     
     /**
-     * Accetta una richiesta di join
+     * Accetta una richiesta di join aggiungendo l'utente al team
      *
      * @param richiestaId l'ID della richiesta
+     * @param capoTeamId  l'ID dell'utente che accetta, che deve essere il capo del team
      * @return true se l'accettazione è riuscita
+     * @see #accettaRichiestaJoinConEsito(int, int)
+     */
+    boolean accettaRichiestaJoin(int richiestaId, int capoTeamId);
+    
+    /**
+     * Accetta una richiesta di join in modo atomico: blocca il team, verifica la
+     * dimensione massima, aggiunge l'utente ai membri, accetta la richiesta e rifiuta
+     * le altre richieste in attesa dello stesso utente per team dello stesso hackathon.
+     * Nulla viene modificato se chi accetta non è il capo del team o se l'utente guida
+     * o fa già parte di un altro team dello stesso hackathon
+     *
+     * @param richiestaId l'ID della richiesta
+     * @param capoTeamId  l'ID dell'utente che accetta, che deve essere il capo del team
+     * @return l'esito dell'accettazione
      */
-    boolean accettaRichiestaJoin(int richiestaId);
+    EsitoRichiestaJoin accettaRichiestaJoinConEsito(int richiestaId, int capoTeamId);
     
     /**
-     * Rifiuta una richiesta di join
+     * Rifiuta una richiesta di join ancora in attesa
      *
      * @param richiestaId l'ID della richiesta
+     * @param capoTeamId  l'ID dell'utente che rifiuta, che deve essere il capo del team
      * @return true se il rifiuto è riuscito
      */
-    boolean rifiutaRichiestaJoin(int richiestaId);
+    boolean rifiutaRichiestaJoin(int richiestaId, int capoTeamId);
 } 
\ No newline at end of file
@@ -1,7 +1,9 @@
 package dao;
 
 import model.Utente;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interfaccia per l'accesso ai dati degli Utenti.
@@ -18,10 +20,20 @@ public interface UtenteDAO {
     int insert(Utente utente);
     
     /**
-     * Aggiorna un utente esistente nel database
+     * Inserisce più utenti con un'unica istruzione batch, confermando a blocchi
+     *
+     * @param utenti gli utenti da inserire
+     * @return gli ID degli utenti inseriti, nello stesso ordine della lista
+     */
+    List<Integer> insertAll(List<Utente> utenti);
+    
+    /**
+     * Aggiorna un utente esistente nel database.
+     * Vengono scritte solo le colonne dei campi modificati; se non ci sono modifiche
+     * non viene eseguita alcuna istruzione
      *
      * @param utente l'utente da aggiornare
-     * @return true se l'aggiornamento è riuscito
+     * @return true se l'aggiornamento è riuscito o non c'era nulla da aggiornare
      */
     boolean update(Utente utente);
     
@@ -41,6 +53,14 @@ public interface UtenteDAO {
      */
     Utente findById(int id);
     
+    /**
+     * Trova più utenti per ID con una sola query
+     *
+     * @param ids gli ID degli utenti
+     * @return gli utenti trovati per ID; gli ID inesistenti non compaiono
+     */
+    Map<Integer, Utente> findByIds(Collection<Integer> ids);
+    
     /**
      * Trova tutti gli utenti
      *
@@ -48,6 +68,16 @@ public interface UtenteDAO {
      */
     List<Utente> findAll();
     
+    /**
+     * Trova una pagina degli utenti in ordine di nome e cognome, tramite paginazione keyset
+     *
+     * @param cursore    il cursore restituito dalla pagina precedente o null per la prima pagina
+     * @param dimensione il numero massimo di elementi della pagina
+     * @return la pagina trovata, con il cursore della pagina successiva
+     * @throws IllegalArgumentException se il cursore non è valido o la dimensione non è positiva
+     */
+    Page<Utente> findAll(String cursore, int dimensione);
+    
     /**
      * Trova un utente per login
      *
@@ -0,0 +1,112 @@
+package dao;
+
+import database.ConflittoVersioneException;
+import model.Valutazione;
+import java.util.List;
+
+/**
+ * Interfaccia per l'accesso ai dati delle Valutazioni.
+ * Definisce tutti i metodi CRUD e le operazioni specifiche per la gestione delle valutazioni.
+ */
+public interface ValutazioneDAO {
+    
+    /**
+     * Inserisce una nuova valutazione nel database
+     *
+     * @param valutazione la valutazione da inserire
+     * @return la valutazione con l'ID assegnato o null se l'inserimento fallisce
+     */
+    Valutazione insert(Valutazione valutazione);
+    
+    /**
+     * Aggiorna voto e commento di una valutazione esistente.
+     * La scrittura riesce solo se la valutazione non è stata modificata dopo essere stata letta
+     *
+     * @param valutazione la valutazione da aggiornare
+     * @return true se l'aggiornamento è riuscito
+     * @throws ConflittoVersioneException se la valutazione è stata modificata da altri dopo essere stata letta
+     */
+    boolean update(Valutazione valutazione);
+    
+    /**
+     * Elimina una valutazione dal database
+     *
+     * @param id l'ID della valutazione da eliminare
+     * @return true se l'eliminazione è riuscita
+     */
+    boolean delete(int id);
+    
+    /**
+     * Trova una valutazione per ID
+     *
+     * @param id l'ID della valutazione
+     * @return la valutazione trovata o null se non esiste
+     */
+    Valutazione findById(int id);
+    
+    /**
+     * Trova la valutazione assegnata da un giudice ad un team
+     *
+     * @param giudiceId l'ID del giudice
+     * @param teamId    l'ID del team
+     * @return la valutazione trovata o null se non esiste
+     */
+    Valutazione findByGiudiceAndTeam(int giudiceId, int teamId);
+    
+    /**
+     * Trova tutte le valutazioni di un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return lista delle valutazioni dell'hackathon
+     */
+    List<Valutazione> findByHackathon(int hackathonId);
+    
+    /**
+     * Trova tutte le valutazioni ricevute da un team
+     *
+     * @param teamId l'ID del team
+     * @return lista delle valutazioni del team
+     */
+    List<Valutazione> findByTeam(int teamId);
+    
+    /**
+     * Trova tutte le valutazioni assegnate da un giudice
+     *
+     * @param giudiceId l'ID del giudice
+     * @return lista delle valutazioni del giudice
+     */
+    List<Valutazione> findByGiudice(int giudiceId);
+    
+    /**
+     * Verifica se un giudice ha già valutato un team
+     *
+     * @param giudiceId l'ID del giudice
+     * @param teamId    l'ID del team
+     * @return true se il giudice ha già valutato il team
+     */
+    boolean haGiudiceValutatoTeam(int giudiceId, int teamId);
+    
+    /**
+     * Trova la classifica dei team di un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return lista degli ID dei team ordinati per valutazione media decrescente
+     */
+    List<Integer> findClassificaTeam(int hackathonId);
+    
+    /**
+     * Trova il team con la valutazione media più alta in un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     * @return l'ID del team vincitore o null se non ci sono valutazioni
+     */
+    Integer findTeamVincitore(int hackathonId);
+    
+    /**
+     * Calcola la valutazione media di un team
+     *
+     * @param teamId l'ID del team
+     * @return la valutazione media o 0 se il team non ha valutazioni
+     */
+    double findValutazioneMediaTeam(int teamId);
+}
@@ -0,0 +1,177 @@
+package database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache LRU dei PreparedStatement di una singola connessione fisica, indicizzata per testo SQL.
+ * Una connessione è usata da un solo thread alla volta, quindi la cache non è sincronizzata.
+ * Lo statement restituito è un proxy: close() lo riporta in cache invece di chiuderlo.
+ */
+final class CacheStatement {
+    private final int capacita;
+    private final AtomicLong hit;
+    private final AtomicLong miss;
+    private final LinkedHashMap<String, Voce> voci;
+
+    /**
+     * Crea una cache vuota
+     *
+     * @param capacita il numero massimo di statement mantenuti
+     * @param hit      contatore condiviso dei riutilizzi
+     * @param miss     contatore condiviso delle preparazioni
+     */
+    CacheStatement(int capacita, AtomicLong hit, AtomicLong miss) {
+        this.capacita = capacita;
+        this.hit = hit;
+        this.miss = miss;
+        this.voci = new LinkedHashMap<>(capacita, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Voce> eldest) {
+                if (size() > CacheStatement.this.capacita) {
+                    eldest.getValue().scarta();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Restituisce lo statement per il testo SQL indicato, preparandolo solo se non è in cache
+     *
+     * @param connection la connessione fisica
+     * @param sql        il testo SQL
+     * @return lo statement pronto all'uso
+     * @throws SQLException se la preparazione fallisce
+     */
+    PreparedStatement prepara(Connection connection, String sql) throws SQLException {
+        Voce voce = voci.get(sql);
+        if (voce != null) {
+            if (!voce.inUso) {
+                hit.incrementAndGet();
+                voce.inUso = true;
+                return voce.proxy;
+            }
+            // Stesso SQL già aperto su questa connessione: statement temporaneo fuori cache
+            miss.incrementAndGet();
+            return connection.prepareStatement(sql);
+        }
+
+        miss.incrementAndGet();
+        voce = new Voce(sql, connection.prepareStatement(sql));
+        voce.inUso = true;
+        voci.put(sql, voce);
+        return voce.proxy;
+    }
+
+    /**
+     * Riporta in cache gli statement che il chiamante non ha chiuso.
+     * Invocato quando la connessione logica viene restituita al pool.
+     */
+    void rilasciaTutti() {
+        List<Voce> aperte = new ArrayList<>();
+        for (Voce voce : voci.values()) {
+            if (voce.inUso) {
+                aperte.add(voce);
+            }
+        }
+        for (Voce voce : aperte) {
+            voce.rilascia();
+        }
+    }
+
+    /**
+     * Statement in cache con il relativo stato di utilizzo
+     */
+    private final class Voce {
+        private final String sql;
+        private final PreparedStatement statement;
+        private final PreparedStatement proxy;
+        private boolean inUso;
+        private boolean daChiudere;
+
+        private Voce(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (p, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                rilascia();
+                                return null;
+                            case "isClosed":
+                                return !inUso;
+                            case "equals":
+                                return p == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(p);
+                            default:
+                                if (!inUso) {
+                                    throw new SQLException("Statement già chiuso");
+                                }
+                                try {
+                                    return method.invoke(statement, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                        }
+                    });
+        }
+
+        /**
+         * Chiude l'eventuale ResultSet aperto e azzera i parametri per il prossimo utilizzo.
+         * Se non è possibile lo statement viene chiuso e tolto dalla cache
+         */
+        private void rilascia() {
+            if (!inUso) {
+                return;
+            }
+            inUso = false;
+            try {
+                ResultSet rs = statement.getResultSet();
+                if (rs != null) {
+                    rs.close();
+                }
+                statement.clearParameters();
+            } catch (SQLException e) {
+                daChiudere = true;
+            }
+            if (daChiudere) {
+                // Se la voce è stata scartata per capienza la mappa contiene già un'altra voce o nessuna
+                voci.remove(sql, this);
+                chiudi();
+            }
+        }
+
+        /**
+         * Rimuove lo statement dalla cache, chiudendolo subito se non è in uso
+         */
+        private void scarta() {
+            if (inUso) {
+                daChiudere = true;
+            } else {
+                chiudi();
+            }
+        }
+
+        private void chiudi() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("Errore durante la chiusura dello statement: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package database;
+
+/**
+ * Segnala che una riga è stata modificata da un'altra transazione dopo essere stata letta:
+ * la versione attesa non corrisponde più a quella sul database e la scrittura non è avvenuta.
+ * Il chiamante deve rileggere la riga e ripetere la modifica.
+ */
+public class ConflittoVersioneException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String tabella;
+    private final int id;
+    private final int versioneAttesa;
+
+    /**
+     * Costruttore per un conflitto di versione
+     *
+     * @param tabella        la tabella della riga
+     * @param id             l'ID della riga
+     * @param versioneAttesa la versione letta dal chiamante
+     */
+    public ConflittoVersioneException(String tabella, int id, int versioneAttesa) {
+        super("La riga " + id + " di " + tabella + " è stata modificata da un'altra transazione " +
+                "(versione attesa " + versioneAttesa + ")");
+        this.tabella = tabella;
+        this.id = id;
+        this.versioneAttesa = versioneAttesa;
+    }
+
+    // Getters
+    public String getTabella() { return tabella; }
+    public int getId() { return id; }
+    public int getVersioneAttesa() { return versioneAttesa; }
+}
@@ -1,20 +1,52 @@
 package database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.function.Supplier;
 
 /**
  * Gestisce le connessioni al database PostgreSQL.
- * Implementa il pattern Singleton per garantire una singola istanza.
+ * Implementa il pattern Singleton per garantire una singola istanza
+ * e distribuisce le connessioni tramite un {@link RoutingDataSource}:
+ * le scritture vanno sul primario, le letture sulla replica se configurata.
  */
 public class ConnectionManager {
     private static ConnectionManager instance;
-    private static final String URL = "jdbc:postgresql://localhost:5432/hackathon_db";
+    // prepareThreshold=1: prepara lato server gli statement fin dalla prima esecuzione
+    // reWriteBatchedInserts=true: il driver riscrive i batch di INSERT in INSERT multi-riga
+    private static final String URL = "jdbc:postgresql://localhost:5432/hackathon_db" +
+            "?prepareThreshold=1&reWriteBatchedInserts=true";
     private static final String USERNAME = "postgres";
     private static final String PASSWORD = "password";
-    
-    private Connection connection;
+
+    // URL della replica in sola lettura, es. -Dhackathon.db.replica.url=jdbc:postgresql://localhost:5433/hackathon_db
+    private static final String REPLICA_URL = System.getProperty("hackathon.db.replica.url");
+    private static final long FINESTRA_LETTURA_SCRITTURA_MS = 2_000;
+
+    // Parametri del pool di connessioni
+    private static final int POOL_MIN_SIZE = 2;
+    static final int POOL_MAX_SIZE = 10;
+    private static final long POOL_ACQUIRE_TIMEOUT_MS = 5_000;
+    private static final long POOL_IDLE_TIMEOUT_MS = 10 * 60_000;
+    private static final long POOL_LEAK_THRESHOLD_MS = 60_000;
+
+    // Righe confermate con un singolo commit negli inserimenti massivi, es. -Dhackathon.db.batch.size=1000
+    static final int BATCH_SIZE = Integer.getInteger("hackathon.db.batch.size", 500);
+
+    // Righe lette dal server per volta dalle query in streaming, es. -Dhackathon.db.fetch.size=5000
+    public static final int FETCH_SIZE = Integer.getInteger("hackathon.db.fetch.size", 1_000);
+
+    private RoutingDataSource dataSource;
+
+    /**
+     * Connessione ottenuta dal thread corrente, usata da commit() e rollback()
+     */
+    private final ThreadLocal<Connection> connessioneCorrente = new ThreadLocal<>();
+
+    /**
+     * Transazione aperta da inTransaction() sul thread corrente
+     */
+    private final ThreadLocal<Transazione> transazioneCorrente = new ThreadLocal<>();
 
     /**
      * Costruttore privato per il pattern Singleton
@@ -28,7 +60,7 @@ public class ConnectionManager {
      *
      * @return l'istanza del ConnectionManager
      */
-    public static ConnectionManager getInstance() {
+    public static synchronized ConnectionManager getInstance() {
         if (instance == null) {
             instance = new ConnectionManager();
         }
@@ -36,79 +68,189 @@ public class ConnectionManager {
     }
 
     /**
-     * Ottiene una connessione al database
+     * Ottiene una connessione dal pool.
+     * La connessione va chiusa al termine dell'uso per restituirla al pool.
+     * All'interno di inTransaction() viene restituita sempre la connessione della transazione.
      *
      * @return la connessione al database
      * @throws SQLException se si verifica un errore di connessione
      */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+        Transazione transazione = transazioneCorrente.get();
+        if (transazione != null) {
+            return transazione.getConnessioneCondivisa();
+        }
+
+        Connection connection = getDataSource().getConnection();
+        connessioneCorrente.set(connection);
+        return connection;
+    }
+
+    /**
+     * Ottiene una connessione per metodi DAO di sola lettura (find, conta, is).
+     * Viene servita dalla replica se configurata; all'interno di inTransaction()
+     * o subito dopo un commit del thread corrente viene usato il primario.
+     *
+     * @return la connessione da usare per la lettura
+     * @throws SQLException se si verifica un errore di connessione
+     */
+    public Connection getReadConnection() throws SQLException {
+        Transazione transazione = transazioneCorrente.get();
+        if (transazione != null) {
+            return transazione.getConnessioneCondivisa();
+        }
+
+        Connection connection = getDataSource().getReadConnection();
+        connessioneCorrente.set(connection);
+        return connection;
+    }
+
+    /**
+     * Ottiene il DataSource con instradamento lettura/scrittura, creandolo al primo utilizzo
+     *
+     * @return il DataSource dell'applicazione
+     * @throws SQLException se il driver PostgreSQL non è disponibile
+     */
+    public synchronized RoutingDataSource getDataSource() throws SQLException {
+        if (dataSource == null) {
             try {
                 // Carica il driver PostgreSQL
                 Class.forName("org.postgresql.Driver");
-                
-                // Stabilisce la connessione
-                connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-                connection.setAutoCommit(false); // Gestione manuale delle transazioni
-                
-                System.out.println("Connessione al database stabilita con successo");
             } catch (ClassNotFoundException e) {
                 throw new SQLException("Driver PostgreSQL non trovato", e);
-            } catch (SQLException e) {
-                System.err.println("Errore durante la connessione al database: " + e.getMessage());
-                throw e;
             }
+
+            ConnectionPool primario = creaPool(URL);
+            ConnectionPool replica = REPLICA_URL != null ? creaPool(REPLICA_URL) : null;
+            dataSource = new RoutingDataSource(primario, replica, FINESTRA_LETTURA_SCRITTURA_MS);
+            System.out.println("Pool di connessioni al database inizializzato" +
+                    (replica != null ? " (letture sulla replica " + REPLICA_URL + ")" : ""));
         }
-        return connection;
+        return dataSource;
     }
 
     /**
-     * Chiude la connessione al database
+     * Ottiene il pool di connessioni del database primario
+     *
+     * @return il pool di connessioni
+     * @throws SQLException se il driver PostgreSQL non è disponibile
      */
-    public void closeConnection() {
-        if (connection != null) {
+    public ConnectionPool getPool() throws SQLException {
+        return getDataSource().getPrimario();
+    }
+
+    /**
+     * Chiude i pool e tutte le connessioni al database
+     */
+    public synchronized void closeConnection() {
+        if (dataSource != null) {
+            dataSource.close();
+            dataSource = null;
+            System.out.println("Connessioni al database chiuse");
+        }
+    }
+
+    private ConnectionPool creaPool(String url) {
+        return new ConnectionPool(url, USERNAME, PASSWORD, POOL_MIN_SIZE, POOL_MAX_SIZE,
+                POOL_ACQUIRE_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS, POOL_LEAK_THRESHOLD_MS);
+    }
+
+    /**
+     * Esegue un'operazione in un'unica transazione.
+     * Tutte le chiamate ai DAO effettuate dal thread corrente durante l'operazione
+     * usano la stessa connessione e vengono confermate con un solo commit finale.
+     * Se un DAO esegue un rollback o l'operazione lancia un'eccezione, l'intera
+     * transazione viene annullata. Le chiamate annidate partecipano alla transazione esterna.
+     *
+     * @param operazione l'operazione da eseguire
+     * @param <T>        il tipo del risultato
+     * @return il risultato dell'operazione
+     * @throws SQLException se non è possibile ottenere la connessione o confermare la transazione,
+     *                      oppure se un DAO ha richiesto il rollback e nulla è stato confermato
+     */
+    public <T> T inTransaction(Supplier<T> operazione) throws SQLException {
+        if (transazioneCorrente.get() != null) {
+            return operazione.get();
+        }
+
+        Transazione transazione = new Transazione(getPool().getConnection());
+        transazioneCorrente.set(transazione);
+        T risultato;
+        try {
+            risultato = operazione.get();
+        } catch (RuntimeException | Error e) {
+            transazioneCorrente.remove();
+            // Un errore nel rollback non deve nascondere quello dell'operazione
             try {
-                connection.close();
-                System.out.println("Connessione al database chiusa");
-            } catch (SQLException e) {
-                System.err.println("Errore durante la chiusura della connessione: " + e.getMessage());
+                transazione.concludi(false);
+            } catch (SQLException erroreRollback) {
+                e.addSuppressed(erroreRollback);
             }
+            throw e;
         }
+
+        transazioneCorrente.remove();
+        if (!transazione.concludi(true)) {
+            throw new SQLException("Transazione annullata: un'operazione ha richiesto il rollback");
+        }
+        getDataSource().registraCommit();
+        return risultato;
+    }
+
+    /**
+     * Verifica se il thread corrente è all'interno di una transazione aperta con inTransaction()
+     *
+     * @return true se è attiva una transazione
+     */
+    public boolean isInTransaction() {
+        return transazioneCorrente.get() != null;
     }
 
     /**
-     * Esegue un commit della transazione corrente
+     * Esegue un commit della transazione corrente.
+     * All'interno di inTransaction() il commit è rimandato alla fine dell'operazione.
      *
      * @throws SQLException se si verifica un errore durante il commit
      */
     public void commit() throws SQLException {
+        if (transazioneCorrente.get() != null) {
+            return;
+        }
+        Connection connection = connessioneCorrente.get();
         if (connection != null && !connection.isClosed()) {
             connection.commit();
+            getDataSource().registraCommit();
         }
     }
 
     /**
-     * Esegue un rollback della transazione corrente
+     * Esegue un rollback della transazione corrente.
+     * Se la connessione è già stata restituita il pool ha già annullato le modifiche.
+     * All'interno di inTransaction() l'intera transazione viene segnata per il rollback.
      *
      * @throws SQLException se si verifica un errore durante il rollback
      */
     public void rollback() throws SQLException {
+        Transazione transazione = transazioneCorrente.get();
+        if (transazione != null) {
+            transazione.segnaSoloRollback();
+            return;
+        }
+
+        Connection connection = connessioneCorrente.get();
+        connessioneCorrente.remove();
         if (connection != null && !connection.isClosed()) {
             connection.rollback();
         }
     }
 
     /**
-     * Verifica se la connessione è attiva
+     * Verifica se il pool è attivo
      *
-     * @return true se la connessione è attiva
+     * @return true se il pool è attivo
      */
-    public boolean isConnected() {
-        try {
-            return connection != null && !connection.isClosed();
-        } catch (SQLException e) {
-            return false;
-        }
+    public synchronized boolean isConnected() {
+        return dataSource != null;
     }
 
     /**
@@ -117,12 +259,11 @@ public class ConnectionManager {
      * @return true se la connessione è riuscita
      */
     public boolean testConnection() {
-        try {
-            Connection conn = getConnection();
-            return conn != null && !conn.isClosed();
+        try (Connection conn = getConnection()) {
+            return conn.isValid(2);
         } catch (SQLException e) {
             System.err.println("Test connessione fallito: " + e.getMessage());
             return false;
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,434 @@
+package database;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Pool limitato di connessioni JDBC verso PostgreSQL.
+ * Le connessioni restituite sono proxy: chiamare close() le riconsegna al pool
+ * invece di chiudere la connessione fisica. Ogni connessione fisica mantiene
+ * una cache dei PreparedStatement, così le query ricorrenti non vengono ripreparate.
+ */
+public class ConnectionPool implements DataSource {
+
+    /**
+     * Intervallo entro il quale una connessione appena usata non viene rivalidata
+     */
+    private static final long INTERVALLO_VALIDAZIONE_MS = 500;
+    private static final int TIMEOUT_VALIDAZIONE_SEC = 2;
+    private static final long INTERVALLO_MANUTENZIONE_MS = 30_000;
+    private static final int DIMENSIONE_CACHE_STATEMENT = 64;
+
+    // Registra lo stack di chi ottiene ogni connessione, stampato con i leak, es. -Dhackathon.db.pool.traccia=true
+    private static final boolean TRACCIA_PRESTITI = Boolean.getBoolean("hackathon.db.pool.traccia");
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long leakThresholdMs;
+
+    private final Semaphore permessi;
+    private final LinkedBlockingDeque<ConnessioneFisica> idle = new LinkedBlockingDeque<>();
+    private final Map<ConnessioneFisica, Prestito> inUso = new ConcurrentHashMap<>();
+    private final AtomicInteger totale = new AtomicInteger();
+    private final AtomicLong cacheHit = new AtomicLong();
+    private final AtomicLong cacheMiss = new AtomicLong();
+    private final ScheduledExecutorService manutenzione;
+    private volatile boolean chiuso;
+
+    /**
+     * Crea un nuovo pool di connessioni
+     *
+     * @param url              l'URL JDBC del database
+     * @param username         l'utente del database
+     * @param password         la password del database
+     * @param minSize          il numero minimo di connessioni inattive da mantenere
+     * @param maxSize          il numero massimo di connessioni aperte
+     * @param acquireTimeoutMs il tempo massimo di attesa per ottenere una connessione
+     * @param idleTimeoutMs    il tempo dopo il quale una connessione inattiva viene chiusa
+     * @param leakThresholdMs  il tempo oltre il quale una connessione non restituita viene segnalata
+     */
+    public ConnectionPool(String url, String username, String password, int minSize, int maxSize,
+                          long acquireTimeoutMs, long idleTimeoutMs, long leakThresholdMs) {
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Dimensioni del pool non valide: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.leakThresholdMs = leakThresholdMs;
+        this.permessi = new Semaphore(maxSize, true);
+
+        this.manutenzione = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-manutenzione");
+            t.setDaemon(true);
+            return t;
+        });
+        manutenzione.scheduleWithFixedDelay(this::eseguiManutenzione,
+                INTERVALLO_MANUTENZIONE_MS, INTERVALLO_MANUTENZIONE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ottiene una connessione dal pool, attendendo al massimo acquireTimeoutMs
+     *
+     * @return una connessione logica da chiudere al termine dell'uso
+     * @throws SQLException se il pool è chiuso, se scade il timeout o se la connessione non può essere aperta
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (chiuso) {
+            throw new SQLException("Il pool di connessioni è chiuso");
+        }
+
+        try {
+            if (!permessi.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timeout di " + acquireTimeoutMs + " ms nell'attesa di una connessione libera " +
+                        "(attive: " + inUso.size() + "/" + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrotto durante l'attesa di una connessione", e);
+        }
+
+        try {
+            ConnessioneFisica fisica = prendiConnessioneValida();
+            inUso.put(fisica, new Prestito(System.currentTimeMillis(),
+                    TRACCIA_PRESTITI ? new Exception("Connessione ottenuta qui") : null));
+            return creaProxy(fisica);
+        } catch (SQLException | RuntimeException e) {
+            permessi.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Il pool usa credenziali fisse");
+    }
+
+    /**
+     * Chiude il pool e tutte le connessioni inattive.
+     * Le connessioni in uso vengono chiuse quando restituite.
+     */
+    public void close() {
+        chiuso = true;
+        manutenzione.shutdownNow();
+        ConnessioneFisica fisica;
+        while ((fisica = idle.pollFirst()) != null) {
+            chiudiFisica(fisica);
+        }
+    }
+
+    /**
+     * @return il numero di connessioni attualmente in uso
+     */
+    public int getConnessioniAttive() {
+        return inUso.size();
+    }
+
+    /**
+     * @return il numero di connessioni inattive nel pool
+     */
+    public int getConnessioniInattive() {
+        return idle.size();
+    }
+
+    /**
+     * @return il numero totale di connessioni fisiche aperte
+     */
+    public int getConnessioniTotali() {
+        return totale.get();
+    }
+
+    /**
+     * @return il numero di PreparedStatement riutilizzati dalla cache
+     */
+    public long getStatementCacheHit() {
+        return cacheHit.get();
+    }
+
+    /**
+     * @return il numero di PreparedStatement preparati perché assenti dalla cache
+     */
+    public long getStatementCacheMiss() {
+        return cacheMiss.get();
+    }
+
+    private ConnessioneFisica prendiConnessioneValida() throws SQLException {
+        ConnessioneFisica fisica;
+        while ((fisica = idle.pollFirst()) != null) {
+            if (System.currentTimeMillis() - fisica.ultimoUso < INTERVALLO_VALIDAZIONE_MS || fisica.isValida()) {
+                return fisica;
+            }
+            chiudiFisica(fisica);
+        }
+        return apriFisica();
+    }
+
+    private ConnessioneFisica apriFisica() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, username, password);
+        connection.setAutoCommit(false); // Gestione manuale delle transazioni
+        totale.incrementAndGet();
+        return new ConnessioneFisica(connection, new CacheStatement(DIMENSIONE_CACHE_STATEMENT, cacheHit, cacheMiss));
+    }
+
+    private void chiudiFisica(ConnessioneFisica fisica) {
+        totale.decrementAndGet();
+        try {
+            fisica.connection.close();
+        } catch (SQLException e) {
+            System.err.println("Errore durante la chiusura della connessione: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Riporta la connessione fisica nel pool annullando eventuali modifiche non confermate.
+     * Il rollback è eseguito solo se dall'ultimo commit o rollback sono stati creati statement
+     */
+    private void restituisci(ConnessioneFisica fisica) {
+        inUso.remove(fisica);
+        fisica.statement.rilasciaTutti();
+        try {
+            boolean riutilizzabile = !chiuso && !fisica.connection.isClosed();
+            if (riutilizzabile) {
+                if (!fisica.connection.getAutoCommit()) {
+                    if (fisica.sporca) {
+                        fisica.connection.rollback();
+                    }
+                } else {
+                    fisica.connection.setAutoCommit(false);
+                }
+                fisica.sporca = false;
+                fisica.ultimoUso = System.currentTimeMillis();
+                idle.offerFirst(fisica);
+            } else {
+                chiudiFisica(fisica);
+            }
+        } catch (SQLException e) {
+            System.err.println("Connessione scartata al rientro nel pool: " + e.getMessage());
+            chiudiFisica(fisica);
+        } finally {
+            permessi.release();
+        }
+    }
+
+    /**
+     * Chiude le connessioni inattive da troppo tempo, ripristina il minimo
+     * e segnala le connessioni non restituite oltre la soglia di leak
+     */
+    private void eseguiManutenzione() {
+        long ora = System.currentTimeMillis();
+
+        for (ConnessioneFisica fisica : idle) {
+            if (idle.size() <= minSize) {
+                break;
+            }
+            if (ora - fisica.ultimoUso > idleTimeoutMs && idle.remove(fisica)) {
+                chiudiFisica(fisica);
+            }
+        }
+
+        try {
+            while (!chiuso && idle.size() < minSize && totale.get() < maxSize) {
+                ConnessioneFisica fisica = apriFisica();
+                fisica.ultimoUso = ora;
+                idle.offerLast(fisica);
+            }
+        } catch (SQLException e) {
+            System.err.println("Impossibile ripristinare il minimo di connessioni: " + e.getMessage());
+        }
+
+        for (Prestito prestito : inUso.values()) {
+            if (!prestito.segnalato && ora - prestito.inizio > leakThresholdMs) {
+                prestito.segnalato = true;
+                System.err.println("Possibile leak: connessione non restituita da " + (ora - prestito.inizio) + " ms");
+                if (prestito.origine != null) {
+                    prestito.origine.printStackTrace();
+                } else {
+                    System.err.println("Avviare con -Dhackathon.db.pool.traccia=true per sapere dove è stata ottenuta");
+                }
+            }
+        }
+    }
+
+    private Connection creaProxy(ConnessioneFisica fisica) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnessioneLogica(fisica));
+    }
+
+    /**
+     * Intercetta close() sulla connessione logica e la riconsegna al pool
+     */
+    private final class ConnessioneLogica implements InvocationHandler {
+        private ConnessioneFisica fisica;
+
+        private ConnessioneLogica(ConnessioneFisica fisica) {
+            this.fisica = fisica;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (fisica != null) {
+                        ConnessioneFisica daRestituire = fisica;
+                        fisica = null;
+                        restituisci(daRestituire);
+                    }
+                    return null;
+                case "isClosed":
+                    return fisica == null || fisica.connection.isClosed();
+                case "prepareStatement":
+                    if (fisica != null) {
+                        fisica.sporca = true;
+                        if (args.length == 1) {
+                            return fisica.statement.prepara(fisica.connection, (String) args[0]);
+                        }
+                    }
+                    break;
+                case "createStatement":
+                case "prepareCall":
+                case "setSavepoint":
+                case "unwrap":
+                    // Da qui possono partire istruzioni che aprono una transazione
+                    if (fisica != null) {
+                        fisica.sporca = true;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConnessioneLogica[" + fisica + "]";
+                default:
+                    break;
+            }
+
+            if (fisica == null) {
+                throw new SQLException("Connessione già restituita al pool");
+            }
+            ConnessioneFisica corrente = fisica;
+            Object risultato;
+            try {
+                risultato = method.invoke(corrente.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (method.getName().equals("commit") || (method.getName().equals("rollback") && args == null)) {
+                corrente.sporca = false;
+            }
+            return risultato;
+        }
+    }
+
+    /**
+     * Connessione fisica gestita dal pool
+     */
+    private static final class ConnessioneFisica {
+        private final Connection connection;
+        private final CacheStatement statement;
+        private volatile long ultimoUso;
+
+        /**
+         * True se la connessione può avere una transazione aperta da annullare al rientro
+         */
+        private boolean sporca;
+
+        private ConnessioneFisica(Connection connection, CacheStatement statement) {
+            this.connection = connection;
+            this.statement = statement;
+            this.ultimoUso = System.currentTimeMillis();
+        }
+
+        private boolean isValida() {
+            try {
+                return connection.isValid(TIMEOUT_VALIDAZIONE_SEC);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Informazioni su un prestito in corso, usate per il rilevamento dei leak
+     */
+    private static final class Prestito {
+        private final long inizio;
+        private final Exception origine; // null se TRACCIA_PRESTITI non è attivo
+        private volatile boolean segnalato;
+
+        private Prestito(long inizio, Exception origine) {
+            this.inizio = inizio;
+            this.origine = origine;
+        }
+    }
+
+    // Metodi di DataSource non utilizzati dal pool
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return DriverManager.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        DriverManager.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Impossibile convertire il pool in " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
@@ -0,0 +1,73 @@
+package database;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Esegue operazioni sul database in modo asincrono su virtual thread.
+ * Il numero di operazioni contemporanee è limitato alla dimensione del pool,
+ * così i thread in eccesso attendono qui invece di scadere sul timeout del pool.
+ * Le operazioni asincrone non partecipano alla transazione del thread chiamante.
+ */
+public class DatabaseExecutor {
+    private static DatabaseExecutor instance;
+
+    private final ExecutorService executor;
+    private final Semaphore permessi;
+
+    /**
+     * Crea un executor con il limite di concorrenza indicato
+     *
+     * @param maxConcorrenza il numero massimo di operazioni eseguite contemporaneamente
+     */
+    public DatabaseExecutor(int maxConcorrenza) {
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.permessi = new Semaphore(maxConcorrenza, true);
+    }
+
+    /**
+     * Ottiene l'executor condiviso, limitato alla dimensione del pool del primario
+     *
+     * @return l'istanza condivisa
+     */
+    public static synchronized DatabaseExecutor getInstance() {
+        if (instance == null) {
+            instance = new DatabaseExecutor(ConnectionManager.POOL_MAX_SIZE);
+        }
+        return instance;
+    }
+
+    /**
+     * Esegue un'operazione bloccante su un virtual thread
+     *
+     * @param operazione l'operazione da eseguire
+     * @param <T>        il tipo del risultato
+     * @return il futuro risultato dell'operazione
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> operazione) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permessi.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return operazione.get();
+            } finally {
+                permessi.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Arresta l'executor attendendo le operazioni già avviate
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,219 @@
+package database;
+
+import model.ReportImportazione;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Importa grandi quantità di righe da CSV tramite COPY di PostgreSQL.
+ * Il file viene caricato così com'è in una tabella temporanea di appoggio con colonne
+ * testuali; validazione e deduplicazione rispetto ai vincoli UNIQUE avvengono in SQL,
+ * quindi le righe valide vengono unite nella tabella di destinazione nella stessa
+ * transazione. Le righe scartate sono riportate nel {@link ReportImportazione}.
+ * <p>
+ * I file CSV devono avere una riga di intestazione con le colonne nell'ordine indicato
+ * da ciascun metodo.
+ */
+public class ImportatoreMassivo {
+    private static final String RUOLI = "('ORGANIZZATORE', 'GIUDICE', 'PARTECIPANTE')";
+    private static final String INTERO = "'^[0-9]{1,9}$'";
+
+    private final ConnectionManager connectionManager;
+
+    /**
+     * Crea un importatore che usa il ConnectionManager dell'applicazione
+     */
+    public ImportatoreMassivo() {
+        this(ConnectionManager.getInstance());
+    }
+
+    /**
+     * Crea un importatore che usa il ConnectionManager indicato
+     *
+     * @param connectionManager il gestore delle connessioni
+     */
+    public ImportatoreMassivo(ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    /**
+     * Importa utenti da CSV con colonne login, password, nome, cognome, email, ruolo.
+     * Sono scartate le righe incomplete, con ruolo non valido, con login o email
+     * ripetuti nel file o già presenti nel database.
+     *
+     * @param csv il contenuto CSV
+     * @return il report dell'importazione
+     * @throws SQLException se l'importazione fallisce; in tal caso nessuna riga viene importata
+     * @throws IOException  se si verifica un errore nella lettura del CSV
+     */
+    public ReportImportazione importaUtenti(Reader csv) throws SQLException, IOException {
+        String staging = "import_utente";
+        return importa("utente", staging,
+                "login TEXT, password TEXT, nome TEXT, cognome TEXT, email TEXT, ruolo TEXT",
+                "login, password, nome, cognome, email, ruolo",
+                csv,
+                new String[][] {
+                    {"NULLIF(login, '') IS NULL OR NULLIF(password, '') IS NULL OR NULLIF(nome, '') IS NULL " +
+                        "OR NULLIF(cognome, '') IS NULL OR NULLIF(email, '') IS NULL",
+                        "campi obbligatori mancanti"},
+                    {"length(login) > 50 OR length(nome) > 100 OR length(cognome) > 100 " +
+                        "OR length(email) > 255 OR length(password) > 255",
+                        "lunghezza massima superata"},
+                    {"ruolo IS NULL OR ruolo NOT IN " + RUOLI, "ruolo non valido"},
+                    {duplicatoNelFile(staging, "login"), "login ripetuto nel file"},
+                    {duplicatoNelFile(staging, "email"), "email ripetuta nel file"},
+                    {"EXISTS (SELECT 1 FROM utente u WHERE u.login = s.login)", "login già utilizzato"},
+                    {"EXISTS (SELECT 1 FROM utente u WHERE u.email = s.email)", "email già utilizzata"}
+                },
+                "INSERT INTO utente (login, password, nome, cognome, email, ruolo) " +
+                    "SELECT login, password, nome, cognome, email, ruolo FROM " + staging + " " +
+                    "WHERE motivo IS NULL ORDER BY riga " +
+                    "ON CONFLICT DO NOTHING RETURNING login",
+                "login");
+    }
+
+    /**
+     * Importa registrazioni da CSV con colonne utente_id, hackathon_id, ruolo, confermata.
+     * La colonna confermata può essere vuota (false). Sono scartate le righe con ID non validi
+     * o inesistenti, ruolo non valido, coppia utente/hackathon ripetuta nel file
+     * o già registrata.
+     *
+     * @param csv il contenuto CSV
+     * @return il report dell'importazione
+     * @throws SQLException se l'importazione fallisce; in tal caso nessuna riga viene importata
+     * @throws IOException  se si verifica un errore nella lettura del CSV
+     */
+    public ReportImportazione importaRegistrazioni(Reader csv) throws SQLException, IOException {
+        String staging = "import_registrazione";
+        return importa("registrazione", staging,
+                "utente_id TEXT, hackathon_id TEXT, ruolo TEXT, confermata TEXT",
+                "utente_id, hackathon_id, ruolo, confermata",
+                csv,
+                new String[][] {
+                    {"utente_id IS NULL OR utente_id !~ " + INTERO +
+                        " OR hackathon_id IS NULL OR hackathon_id !~ " + INTERO,
+                        "ID utente o hackathon non valido"},
+                    {"ruolo IS NULL OR ruolo NOT IN " + RUOLI, "ruolo non valido"},
+                    {"lower(coalesce(confermata, 'false')) NOT IN ('true', 'false', 't', 'f', '1', '0')",
+                        "valore di confermata non valido"},
+                    {"NOT EXISTS (SELECT 1 FROM utente u WHERE u.id = s.utente_id::int)", "utente inesistente"},
+                    {"NOT EXISTS (SELECT 1 FROM hackathon h WHERE h.id = s.hackathon_id::int)",
+                        "hackathon inesistente"},
+                    {duplicatoNelFile(staging, "utente_id::int, hackathon_id::int"),
+                        "registrazione ripetuta nel file"},
+                    {"EXISTS (SELECT 1 FROM registrazione r " +
+                        "WHERE r.utente_id = s.utente_id::int AND r.hackathon_id = s.hackathon_id::int)",
+                        "utente già registrato all'hackathon"}
+                },
+                "INSERT INTO registrazione (utente_id, hackathon_id, ruolo, confermata) " +
+                    "SELECT utente_id::int, hackathon_id::int, ruolo, coalesce(confermata, 'false')::boolean " +
+                    "FROM " + staging + " WHERE motivo IS NULL ORDER BY riga " +
+                    "ON CONFLICT DO NOTHING RETURNING utente_id::text || '/' || hackathon_id::text",
+                "utente_id::int::text || '/' || hackathon_id::int::text");
+    }
+
+    /**
+     * Importa membri dei team da CSV con colonne team_id, utente_id.
+     * Sono scartate le righe con ID non validi o inesistenti, coppia ripetuta nel file
+     * o utente già membro del team.
+     *
+     * @param csv il contenuto CSV
+     * @return il report dell'importazione
+     * @throws SQLException se l'importazione fallisce; in tal caso nessuna riga viene importata
+     * @throws IOException  se si verifica un errore nella lettura del CSV
+     */
+    public ReportImportazione importaMembriTeam(Reader csv) throws SQLException, IOException {
+        String staging = "import_team_members";
+        return importa("team_members", staging,
+                "team_id TEXT, utente_id TEXT",
+                "team_id, utente_id",
+                csv,
+                new String[][] {
+                    {"team_id IS NULL OR team_id !~ " + INTERO + " OR utente_id IS NULL OR utente_id !~ " + INTERO,
+                        "ID team o utente non valido"},
+                    {"NOT EXISTS (SELECT 1 FROM team t WHERE t.id = s.team_id::int)", "team inesistente"},
+                    {"NOT EXISTS (SELECT 1 FROM utente u WHERE u.id = s.utente_id::int)", "utente inesistente"},
+                    {duplicatoNelFile(staging, "team_id::int, utente_id::int"), "membro ripetuto nel file"},
+                    {"EXISTS (SELECT 1 FROM team_members tm " +
+                        "WHERE tm.team_id = s.team_id::int AND tm.utente_id = s.utente_id::int)",
+                        "utente già membro del team"}
+                },
+                "INSERT INTO team_members (team_id, utente_id) " +
+                    "SELECT team_id::int, utente_id::int FROM " + staging + " " +
+                    "WHERE motivo IS NULL ORDER BY riga " +
+                    "ON CONFLICT DO NOTHING RETURNING team_id::text || '/' || utente_id::text",
+                "team_id::int::text || '/' || utente_id::int::text");
+    }
+
+    /**
+     * Condizione vera per le righe valide che ripetono una chiave già vista in una riga precedente
+     *
+     * @param staging la tabella di appoggio
+     * @param chiave  le espressioni che formano la chiave
+     * @return la condizione SQL
+     */
+    private static String duplicatoNelFile(String staging, String chiave) {
+        return "s.riga IN (SELECT riga FROM (SELECT riga, row_number() OVER " +
+                "(PARTITION BY " + chiave + " ORDER BY riga) AS n FROM " + staging + " " +
+                "WHERE motivo IS NULL) d WHERE d.n > 1)";
+    }
+
+    /**
+     * Esegue l'importazione: COPY nella tabella di appoggio, validazione, unione e report.
+     * Le validazioni sono applicate in ordine e a ciascuna riga viene assegnato il primo
+     * motivo di scarto trovato; il CASE garantisce che una condizione (ad esempio un cast)
+     * sia valutata solo sulle righe che hanno superato le precedenti. L'unione usa ON CONFLICT DO NOTHING; le righe valide non
+     * restituite dall'INSERT sono state anticipate da un inserimento concorrente e
+     * vengono anch'esse riportate come scartate.
+     */
+    private ReportImportazione importa(String tabella, String staging, String colonneStaging,
+                                       String colonneCsv, Reader csv, String[][] validazioni,
+                                       String unione, String chiaveUnione) throws SQLException, IOException {
+        ReportImportazione report = new ReportImportazione(tabella);
+
+        try (Connection conn = connectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            try {
+                stmt.execute("DROP TABLE IF EXISTS " + staging);
+                stmt.execute("CREATE TEMP TABLE " + staging + " (riga SERIAL, " + colonneStaging +
+                        ", motivo TEXT) ON COMMIT DROP");
+
+                CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+                long lette = copyManager.copyIn("COPY " + staging + " (" + colonneCsv + ") " +
+                        "FROM STDIN WITH (FORMAT csv, HEADER true)", csv);
+                report.setRigheLette((int) lette);
+
+                for (String[] validazione : validazioni) {
+                    stmt.addBatch("UPDATE " + staging + " s SET motivo = '" + validazione[1].replace("'", "''") +
+                            "' WHERE CASE WHEN s.motivo IS NULL THEN (" + validazione[0] + ") ELSE false END");
+                }
+                stmt.executeBatch();
+
+                stmt.executeUpdate("WITH inserite AS (" + unione + ") " +
+                        "UPDATE " + staging + " SET motivo = 'in conflitto con un inserimento concorrente' " +
+                        "WHERE motivo IS NULL AND " + chiaveUnione + " NOT IN (SELECT * FROM inserite)");
+
+                try (ResultSet rs = stmt.executeQuery("SELECT riga, motivo FROM " + staging +
+                        " WHERE motivo IS NOT NULL ORDER BY riga")) {
+                    while (rs.next()) {
+                        report.aggiungiScarto(rs.getInt(1), rs.getString(2));
+                    }
+                }
+                report.setRigheImportate(report.getRigheLette() - report.getScarti().size());
+
+                connectionManager.commit();
+            } catch (SQLException | IOException e) {
+                connectionManager.rollback();
+                throw e;
+            }
+        }
+        return report;
+    }
+}
@@ -0,0 +1,81 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Verifica e ricostruisce la tabella team_score, il riepilogo dei voti per team
+ * mantenuto dal trigger su valutazione e letto dalla classifica.
+ */
+public class ManutenzioneClassifica {
+
+    /**
+     * Riepilogo calcolato dai voti, con le stesse colonne di team_score
+     */
+    private static final String RIEPILOGO_VOTI = "SELECT team_id, MAX(hackathon_id) AS hackathon_id, " +
+            "SUM(voto) AS somma, COUNT(*) AS numero, coalesce(MAX(data_valutazione), CURRENT_TIMESTAMP) AS ultimo_aggiornamento " +
+            "FROM valutazione GROUP BY team_id";
+
+    private final ConnectionManager connectionManager;
+
+    /**
+     * Crea il job che usa il ConnectionManager dell'applicazione
+     */
+    public ManutenzioneClassifica() {
+        this(ConnectionManager.getInstance());
+    }
+
+    /**
+     * Crea il job che usa il ConnectionManager indicato
+     *
+     * @param connectionManager il gestore delle connessioni
+     */
+    public ManutenzioneClassifica(ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    /**
+     * Conta i team la cui riga in team_score manca, è di troppo o non corrisponde ai voti
+     *
+     * @return il numero di team non allineati, 0 se la tabella è coerente
+     * @throws SQLException se la verifica fallisce
+     */
+    public int verifica() throws SQLException {
+        try (Connection conn = connectionManager.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM team_score s " +
+                     "FULL JOIN (" + RIEPILOGO_VOTI + ") v ON v.team_id = s.team_id " +
+                     "WHERE s.team_id IS NULL OR v.team_id IS NULL " +
+                     "OR s.somma <> v.somma OR s.numero <> v.numero OR s.hackathon_id <> v.hackathon_id")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Ricostruisce team_score dai voti in una sola transazione. valutazione è bloccata
+     * in SHARE MODE durante la ricostruzione, così nessun voto concorrente va perso;
+     * le letture della classifica vedono la tabella precedente fino al commit.
+     *
+     * @return il numero di team in classifica dopo la ricostruzione
+     * @throws SQLException se la ricostruzione fallisce; in tal caso la tabella resta invariata
+     */
+    public int ricostruisci() throws SQLException {
+        try (Connection conn = connectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            try {
+                stmt.execute("LOCK TABLE valutazione IN SHARE MODE");
+                stmt.executeUpdate("DELETE FROM team_score");
+                int righe = stmt.executeUpdate("INSERT INTO team_score " +
+                        "(team_id, hackathon_id, somma, numero, ultimo_aggiornamento) " + RIEPILOGO_VOTI);
+                connectionManager.commit();
+                return righe;
+            } catch (SQLException e) {
+                connectionManager.rollback();
+                throw e;
+            }
+        }
+    }
+}
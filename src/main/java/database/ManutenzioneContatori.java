@@ -0,0 +1,105 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Verifica e ricalcola i contatori denormalizzati mantenuti dai trigger del database:
+ * hackathon.partecipanti_confermati, hackathon.posti_occupati, hackathon.num_team e team.num_membri.
+ * I trigger li tengono allineati in ogni transazione; questo job serve a rilevare e
+ * correggere eventuali derive, ad esempio dopo una modifica manuale con i trigger disabilitati.
+ */
+public class ManutenzioneContatori {
+
+    /**
+     * Per ogni contatore: tabella, colonna e conteggio effettivo per la riga "x" della tabella
+     */
+    private static final String[][] CONTATORI = {
+        {"hackathon", "partecipanti_confermati",
+            "SELECT COUNT(*) FROM registrazione r WHERE r.hackathon_id = x.id AND r.confermata"},
+        {"hackathon", "posti_occupati",
+            "SELECT COUNT(*) FROM registrazione r WHERE r.hackathon_id = x.id AND r.ruolo = 'PARTECIPANTE'"},
+        {"hackathon", "num_team",
+            "SELECT COUNT(*) FROM team t WHERE t.hackathon_id = x.id"},
+        {"team", "num_membri",
+            "SELECT COUNT(*) FROM team_members tm WHERE tm.team_id = x.id " +
+                "AND tm.utente_id IS DISTINCT FROM x.capo_team_id"}
+    };
+
+    private final ConnectionManager connectionManager;
+
+    /**
+     * Crea il job che usa il ConnectionManager dell'applicazione
+     */
+    public ManutenzioneContatori() {
+        this(ConnectionManager.getInstance());
+    }
+
+    /**
+     * Crea il job che usa il ConnectionManager indicato
+     *
+     * @param connectionManager il gestore delle connessioni
+     */
+    public ManutenzioneContatori(ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    /**
+     * Conta le righe il cui contatore non corrisponde al conteggio effettivo.
+     * Ogni confronto è una singola query, quindi vede contatori e righe nello stesso
+     * snapshot e non segnala differenze dovute a scritture concorrenti.
+     *
+     * @return per ogni contatore, nella forma tabella.colonna, il numero di righe non allineate
+     * @throws SQLException se la verifica fallisce
+     */
+    public Map<String, Integer> verifica() throws SQLException {
+        Map<String, Integer> disallineati = new LinkedHashMap<>();
+
+        try (Connection conn = connectionManager.getReadConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String[] contatore : CONTATORI) {
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + contatore[0] + " x " +
+                        "WHERE x." + contatore[1] + " <> (" + contatore[2] + ")")) {
+                    rs.next();
+                    disallineati.put(contatore[0] + "." + contatore[1], rs.getInt(1));
+                }
+            }
+        }
+        return disallineati;
+    }
+
+    /**
+     * Ricalcola tutti i contatori dai dati e corregge quelli non allineati, in una sola transazione.
+     * Le tabelle contate sono bloccate in SHARE MODE per la durata del ricalcolo: le scritture
+     * concorrenti attendono, così nessun incremento dei trigger va perso, mentre le letture
+     * proseguono normalmente.
+     *
+     * @return per ogni contatore, nella forma tabella.colonna, il numero di righe corrette
+     * @throws SQLException se il ricalcolo fallisce; in tal caso nessun contatore viene modificato
+     */
+    public Map<String, Integer> ripara() throws SQLException {
+        Map<String, Integer> corretti = new LinkedHashMap<>();
+
+        try (Connection conn = connectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            try {
+                stmt.execute("LOCK TABLE registrazione, team, team_members IN SHARE MODE");
+                for (String[] contatore : CONTATORI) {
+                    int righe = stmt.executeUpdate("UPDATE " + contatore[0] + " x " +
+                            "SET " + contatore[1] + " = (" + contatore[2] + ") " +
+                            "WHERE x." + contatore[1] + " <> (" + contatore[2] + ")");
+                    corretti.put(contatore[0] + "." + contatore[1], righe);
+                }
+                connectionManager.commit();
+            } catch (SQLException e) {
+                connectionManager.rollback();
+                throw e;
+            }
+        }
+        return corretti;
+    }
+}
@@ -0,0 +1,152 @@
+package database;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+/**
+ * DataSource che instrada le scritture sul database primario e le letture
+ * su una replica in sola lettura, se configurata.
+ * Dopo un commit il thread che ha scritto continua a leggere dal primario
+ * per una finestra configurabile, così vede sempre le proprie modifiche.
+ */
+public class RoutingDataSource implements DataSource {
+    private final ConnectionPool primario;
+    private final ConnectionPool replica;
+    private final long finestraLetturaScritturaMs;
+
+    /**
+     * Istante dell'ultimo commit eseguito dal thread corrente
+     */
+    private final ThreadLocal<Long> ultimoCommit = new ThreadLocal<>();
+
+    /**
+     * Crea un DataSource con instradamento lettura/scrittura
+     *
+     * @param primario                   il pool del database primario
+     * @param replica                    il pool della replica, o null per leggere sempre dal primario
+     * @param finestraLetturaScritturaMs per quanto tempo dopo un commit le letture restano sul primario (0 per disattivare)
+     */
+    public RoutingDataSource(ConnectionPool primario, ConnectionPool replica, long finestraLetturaScritturaMs) {
+        this.primario = primario;
+        this.replica = replica;
+        this.finestraLetturaScritturaMs = finestraLetturaScritturaMs;
+    }
+
+    /**
+     * Ottiene una connessione al database primario, da usare per le scritture
+     *
+     * @return la connessione al primario
+     * @throws SQLException se non è possibile ottenere la connessione
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        return primario.getConnection();
+    }
+
+    /**
+     * Ottiene una connessione per sole letture.
+     * Usa la replica se configurata, a meno che il thread corrente abbia
+     * eseguito un commit all'interno della finestra di lettura delle proprie scritture.
+     *
+     * @return la connessione alla replica o al primario
+     * @throws SQLException se non è possibile ottenere la connessione
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (replica == null || deveLeggereDalPrimario()) {
+            return primario.getConnection();
+        }
+        return replica.getConnection();
+    }
+
+    /**
+     * Registra che il thread corrente ha appena confermato delle scritture
+     */
+    public void registraCommit() {
+        if (replica != null && finestraLetturaScritturaMs > 0) {
+            ultimoCommit.set(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * @return il pool del database primario
+     */
+    public ConnectionPool getPrimario() {
+        return primario;
+    }
+
+    /**
+     * @return il pool della replica o null se non configurata
+     */
+    public ConnectionPool getReplica() {
+        return replica;
+    }
+
+    /**
+     * Chiude entrambi i pool
+     */
+    public void close() {
+        primario.close();
+        if (replica != null) {
+            replica.close();
+        }
+    }
+
+    private boolean deveLeggereDalPrimario() {
+        Long commit = ultimoCommit.get();
+        if (commit == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - commit < finestraLetturaScritturaMs) {
+            return true;
+        }
+        ultimoCommit.remove();
+        return false;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Il DataSource usa credenziali fisse");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primario.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        primario.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primario.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primario.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Impossibile convertire il DataSource in " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
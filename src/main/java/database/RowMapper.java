@@ -0,0 +1,24 @@
+package database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Converte la riga corrente di un ResultSet in un oggetto.
+ * I mapper leggono le colonne per posizione, secondo l'elenco esplicito
+ * di colonne della query, e sono pensati per essere istanze condivise.
+ *
+ * @param <T> il tipo dell'oggetto prodotto
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Mappa la riga corrente
+     *
+     * @param rs il ResultSet posizionato sulla riga da leggere
+     * @return l'oggetto mappato
+     * @throws SQLException se si verifica un errore durante la lettura
+     */
+    T mapRow(ResultSet rs) throws SQLException;
+}
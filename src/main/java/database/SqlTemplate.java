@@ -0,0 +1,509 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Esegue le query dei DAO gestendo connessioni, commit, rollback ed errori.
+ * Le letture usano {@link ConnectionManager#getReadConnection()}, le scritture
+ * {@link ConnectionManager#getConnection()} seguite da commit.
+ * In caso di errore l'eccezione viene stampata e viene restituito un valore neutro,
+ * come previsto dalle interfacce DAO.
+ */
+public class SqlTemplate {
+
+    /**
+     * Esito interno di {@link #updateColonneVersionate} per una riga modificata nel frattempo
+     */
+    private static final int VERSIONE_IN_CONFLITTO = -2;
+
+    private final ConnectionManager connectionManager;
+
+    /**
+     * Crea un template che usa il ConnectionManager dell'applicazione
+     */
+    public SqlTemplate() {
+        this(ConnectionManager.getInstance());
+    }
+
+    /**
+     * Crea un template che usa il ConnectionManager indicato
+     *
+     * @param connectionManager il gestore delle connessioni
+     */
+    public SqlTemplate(ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    /**
+     * Esegue una query che restituisce al più una riga
+     *
+     * @param sql       la query
+     * @param mapper    il mapper della riga
+     * @param parametri i parametri della query
+     * @param <T>       il tipo del risultato
+     * @return l'oggetto mappato o null se non ci sono righe o in caso di errore
+     */
+    public <T> T queryForObject(String sql, RowMapper<T> mapper, Object... parametri) {
+        try (Connection conn = connectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            imposta(pstmt, parametri);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapper.mapRow(rs);
+                }
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Esegue una query che restituisce più righe
+     *
+     * @param sql       la query
+     * @param mapper    il mapper delle righe
+     * @param parametri i parametri della query
+     * @param <T>       il tipo degli elementi
+     * @return la lista degli oggetti mappati, vuota in caso di errore
+     */
+    public <T> List<T> queryForList(String sql, RowMapper<T> mapper, Object... parametri) {
+        List<T> risultati = new ArrayList<>();
+
+        try (Connection conn = connectionManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            imposta(pstmt, parametri);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    risultati.add(mapper.mapRow(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return risultati;
+    }
+
+    /**
+     * Esegue una query restituendo le righe come Stream letto a blocchi dal server.
+     * La connessione resta in uso finché lo Stream non viene chiuso: va usato
+     * in un try-with-resources, la cui chiusura rilascia ResultSet, statement e connessione.
+     * Con autocommit disattivato PostgreSQL legge tramite cursore il numero di righe
+     * configurato in {@link ConnectionManager} per volta, quindi la memoria usata
+     * non dipende dal numero di righe.
+     *
+     * @param sql       la query
+     * @param mapper    il mapper delle righe
+     * @param parametri i parametri della query
+     * @param <T>       il tipo degli elementi
+     * @return lo Stream delle righe mappate, vuoto in caso di errore nell'esecuzione
+     */
+    public <T> Stream<T> queryForStream(String sql, RowMapper<T> mapper, Object... parametri) {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = connectionManager.getReadConnection();
+            if (conn.getAutoCommit()) {
+                conn.setAutoCommit(false);
+            }
+            // Statement fuori dalla cache: il fetch size non deve passare ad altri utilizzi dello stesso SQL
+            pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(ConnectionManager.FETCH_SIZE);
+            imposta(pstmt, parametri);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            chiudi(rs, pstmt, conn);
+            e.printStackTrace();
+            return Stream.empty();
+        }
+
+        ResultSet risultati = rs;
+        PreparedStatement statement = pstmt;
+        Connection connessione = conn;
+        Spliterator<T> righe = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> azione) {
+                try {
+                    if (!risultati.next()) {
+                        return false;
+                    }
+                    azione.accept(mapper.mapRow(risultati));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Errore durante la lettura delle righe", e);
+                }
+            }
+        };
+        return StreamSupport.stream(righe, false)
+                .onClose(() -> chiudi(risultati, statement, connessione));
+    }
+
+    /**
+     * Esegue una query che restituisce un intero nella prima colonna
+     *
+     * @param sql       la query
+     * @param parametri i parametri della query
+     * @return il valore letto, 0 se non ci sono righe o in caso di errore
+     */
+    public int queryForInt(String sql, Object... parametri) {
+        Integer valore = queryForObject(sql, rs -> rs.getInt(1), parametri);
+        return valore != null ? valore : 0;
+    }
+
+    /**
+     * Verifica se una query restituisce almeno una riga
+     *
+     * @param sql       la query, tipicamente "SELECT 1 FROM ... WHERE ..."
+     * @param parametri i parametri della query
+     * @return true se esiste almeno una riga
+     */
+    public boolean exists(String sql, Object... parametri) {
+        return queryForObject(sql, rs -> Boolean.TRUE, parametri) != null;
+    }
+
+    /**
+     * Esegue un'istruzione di modifica e ne conferma la transazione
+     *
+     * @param sql       l'istruzione INSERT, UPDATE o DELETE
+     * @param parametri i parametri dell'istruzione
+     * @return il numero di righe modificate, 0 in caso di errore
+     */
+    public int update(String sql, Object... parametri) {
+        try (Connection conn = connectionManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            imposta(pstmt, parametri);
+            int rowsAffected = pstmt.executeUpdate();
+            connectionManager.commit();
+            return rowsAffected;
+
+        } catch (SQLException e) {
+            rollback();
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * Aggiorna solo le colonne indicate della riga con l'ID specificato.
+     * L'istruzione UPDATE viene generata dalle chiavi della mappa, nel loro ordine
+     *
+     * @param tabella la tabella da aggiornare
+     * @param valori  i nuovi valori per nome di colonna, non vuota
+     * @param id      l'ID della riga
+     * @return il numero di righe modificate, 0 in caso di errore
+     */
+    public int updateColonne(String tabella, Map<String, Object> valori, int id) {
+        StringBuilder sql = new StringBuilder("UPDATE ").append(tabella).append(" SET ");
+        List<Object> parametri = new ArrayList<>(valori.size() + 1);
+        for (Map.Entry<String, Object> valore : valori.entrySet()) {
+            if (!parametri.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append(valore.getKey()).append(" = ?");
+            parametri.add(valore.getValue());
+        }
+        sql.append(" WHERE id = ?");
+        parametri.add(id);
+
+        return update(sql.toString(), parametri.toArray());
+    }
+
+    /**
+     * Aggiorna solo le colonne indicate della riga con l'ID specificato, con controllo
+     * di concorrenza ottimistico: la scrittura avviene solo se la colonna versione vale
+     * ancora quella letta dal chiamante, e la incrementa. Nessun lock viene mantenuto
+     * tra lettura e scrittura, quindi le letture non bloccano mai le scritture
+     *
+     * @param tabella  la tabella da aggiornare, con colonna versione
+     * @param valori   i nuovi valori per nome di colonna
+     * @param id       l'ID della riga
+     * @param versione la versione letta dal chiamante
+     * @return la nuova versione della riga, -1 se la riga non esiste o in caso di errore
+     * @throws ConflittoVersioneException se la riga è stata modificata da un'altra transazione
+     */
+    public int updateColonneVersionate(String tabella, Map<String, Object> valori, int id, int versione) {
+        StringBuilder sql = new StringBuilder("WITH aggiornata AS (UPDATE ").append(tabella).append(" SET ");
+        List<Object> parametri = new ArrayList<>(valori.size() + 3);
+        for (Map.Entry<String, Object> valore : valori.entrySet()) {
+            sql.append(valore.getKey()).append(" = ?, ");
+            parametri.add(valore.getValue());
+        }
+        // Se nessuna riga viene aggiornata, la seconda colonna distingue la riga assente
+        // da quella modificata nel frattempo senza un secondo round trip
+        sql.append("versione = versione + 1 WHERE id = ? AND versione = ? RETURNING versione) ")
+                .append("SELECT (SELECT versione FROM aggiornata), EXISTS (SELECT 1 FROM ")
+                .append(tabella).append(" WHERE id = ?)");
+        parametri.add(id);
+        parametri.add(versione);
+        parametri.add(id);
+
+        Integer nuovaVersione = updateReturning(sql.toString(), rs -> {
+            int aggiornata = rs.getInt(1);
+            if (!rs.wasNull()) {
+                return aggiornata;
+            }
+            return rs.getBoolean(2) ? VERSIONE_IN_CONFLITTO : -1;
+        }, parametri.toArray());
+        if (nuovaVersione == null) {
+            return -1;
+        }
+        if (nuovaVersione == VERSIONE_IN_CONFLITTO) {
+            throw new ConflittoVersioneException(tabella, id, versione);
+        }
+        return nuovaVersione;
+    }
+
+    /**
+     * Esegue un'istruzione di modifica con clausola RETURNING e ne conferma la transazione
+     *
+     * @param sql       l'istruzione UPDATE, INSERT o DELETE con clausola RETURNING
+     * @param mapper    il mapper della riga restituita
+     * @param parametri i parametri dell'istruzione
+     * @param <T>       il tipo del risultato
+     * @return l'oggetto mappato o null se nessuna riga è stata modificata o in caso di errore
+     */
+    public <T> T updateReturning(String sql, RowMapper<T> mapper, Object... parametri) {
+        try (Connection conn = connectionManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            imposta(pstmt, parametri);
+            T risultato = null;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    risultato = mapper.mapRow(rs);
+                }
+            }
+            connectionManager.commit();
+            return risultato;
+
+        } catch (SQLException e) {
+            rollback();
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Esegue una INSERT ... RETURNING id e ne conferma la transazione
+     *
+     * @param sql       l'istruzione di inserimento con clausola RETURNING id
+     * @param parametri i parametri dell'istruzione
+     * @return l'ID generato o -1 in caso di errore
+     */
+    public int insertReturningId(String sql, Object... parametri) {
+        try (Connection conn = connectionManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            imposta(pstmt, parametri);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    int id = rs.getInt(1);
+                    connectionManager.commit();
+                    return id;
+                }
+            }
+
+        } catch (SQLException e) {
+            rollback();
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * Come {@link #batchInsertReturningIds(String, List, int)}, con la dimensione
+     * del blocco configurata in {@link ConnectionManager}
+     *
+     * @param sql   l'istruzione di inserimento, senza clausola RETURNING
+     * @param righe i parametri di ciascuna riga
+     * @return gli ID generati nell'ordine delle righe, fino al primo blocco fallito
+     */
+    public List<Integer> batchInsertReturningIds(String sql, List<Object[]> righe) {
+        return batchInsertReturningIds(sql, righe, ConnectionManager.BATCH_SIZE);
+    }
+
+    /**
+     * Esegue un'istruzione INSERT per ogni riga tramite batch JDBC, confermando
+     * la transazione ogni {@code dimensioneBlocco} righe.
+     * In caso di errore il blocco corrente viene annullato e l'inserimento si interrompe:
+     * i blocchi già confermati restano nel database.
+     *
+     * @param sql              l'istruzione di inserimento, senza clausola RETURNING
+     * @param righe            i parametri di ciascuna riga
+     * @param dimensioneBlocco il numero di righe per commit
+     * @return gli ID generati nell'ordine delle righe, fino al primo blocco fallito
+     */
+    public List<Integer> batchInsertReturningIds(String sql, List<Object[]> righe, int dimensioneBlocco) {
+        List<Integer> ids = new ArrayList<>(righe.size());
+
+        try (Connection conn = connectionManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, new String[] {"id"})) {
+
+            for (int inizio = 0; inizio < righe.size(); inizio += dimensioneBlocco) {
+                int fine = Math.min(inizio + dimensioneBlocco, righe.size());
+                for (Object[] parametri : righe.subList(inizio, fine)) {
+                    imposta(pstmt, parametri);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+
+                List<Integer> idsBlocco = new ArrayList<>(fine - inizio);
+                try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                    while (rs.next()) {
+                        idsBlocco.add(rs.getInt(1));
+                    }
+                }
+                connectionManager.commit();
+                ids.addAll(idsBlocco);
+            }
+
+        } catch (SQLException e) {
+            rollback();
+            e.printStackTrace();
+        }
+        return ids;
+    }
+
+    /**
+     * Come {@link #batchUpdate(String, List, int)}, con la dimensione
+     * del blocco configurata in {@link ConnectionManager}
+     *
+     * @param sql   l'istruzione INSERT, UPDATE o DELETE
+     * @param righe i parametri di ciascuna riga
+     * @return il numero di righe confermate, fino al primo blocco fallito
+     */
+    public int batchUpdate(String sql, List<Object[]> righe) {
+        return batchUpdate(sql, righe, ConnectionManager.BATCH_SIZE);
+    }
+
+    /**
+     * Esegue un'istruzione di modifica per ogni riga tramite batch JDBC, confermando
+     * la transazione ogni {@code dimensioneBlocco} righe
+     *
+     * @param sql              l'istruzione INSERT, UPDATE o DELETE
+     * @param righe            i parametri di ciascuna riga
+     * @param dimensioneBlocco il numero di righe per commit
+     * @return il numero di righe confermate, fino al primo blocco fallito
+     */
+    public int batchUpdate(String sql, List<Object[]> righe, int dimensioneBlocco) {
+        int confermate = 0;
+
+        try (Connection conn = connectionManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (int inizio = 0; inizio < righe.size(); inizio += dimensioneBlocco) {
+                int fine = Math.min(inizio + dimensioneBlocco, righe.size());
+                for (Object[] parametri : righe.subList(inizio, fine)) {
+                    imposta(pstmt, parametri);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                connectionManager.commit();
+                confermate += fine - inizio;
+            }
+
+        } catch (SQLException e) {
+            rollback();
+            e.printStackTrace();
+        }
+        return confermate;
+    }
+
+    /**
+     * @return il gestore delle connessioni usato dal template
+     */
+    public ConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    /**
+     * Annulla la transazione corrente dopo un errore
+     */
+    public void rollback() {
+        try {
+            connectionManager.rollback();
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Chiude le risorse di una query nell'ordine inverso di apertura, ignorando quelle nulle
+     */
+    private static void chiudi(AutoCloseable... risorse) {
+        for (AutoCloseable risorsa : risorse) {
+            if (risorsa != null) {
+                try {
+                    risorsa.close();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Imposta i parametri di uno statement in base al loro tipo
+     *
+     * @param pstmt     lo statement
+     * @param parametri i parametri, nell'ordine dei segnaposto
+     * @throws SQLException se un parametro non può essere impostato
+     */
+    public static void imposta(PreparedStatement pstmt, Object... parametri) throws SQLException {
+        for (int i = 0; i < parametri.length; i++) {
+            Object valore = parametri[i];
+            int indice = i + 1;
+            if (valore == null) {
+                pstmt.setNull(indice, Types.NULL);
+            } else if (valore instanceof Integer) {
+                pstmt.setInt(indice, (Integer) valore);
+            } else if (valore instanceof String) {
+                pstmt.setString(indice, (String) valore);
+            } else if (valore instanceof Boolean) {
+                pstmt.setBoolean(indice, (Boolean) valore);
+            } else if (valore instanceof LocalDateTime) {
+                pstmt.setTimestamp(indice, Timestamp.valueOf((LocalDateTime) valore));
+            } else if (valore instanceof Enum) {
+                pstmt.setString(indice, ((Enum<?>) valore).name());
+            } else if (valore instanceof Integer[]) {
+                // Per condizioni del tipo "id = ANY(?)"
+                pstmt.setArray(indice, pstmt.getConnection().createArrayOf("integer", (Integer[]) valore));
+            } else if (valore instanceof String[]) {
+                pstmt.setArray(indice, pstmt.getConnection().createArrayOf("varchar", (String[]) valore));
+            } else {
+                pstmt.setObject(indice, valore);
+            }
+        }
+    }
+
+    /**
+     * Converte un Timestamp che può essere NULL
+     *
+     * @param timestamp il valore letto dal database
+     * @return la data corrispondente o null
+     */
+    public static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,88 @@
+package database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Transazione legata al thread corrente che abbraccia più chiamate ai DAO.
+ * I DAO ricevono una vista della connessione su cui close() non ha effetto,
+ * mentre commit e rollback vengono decisi da {@link ConnectionManager#inTransaction}.
+ */
+class Transazione {
+    private final Connection connessione;
+    private final Connection condivisa;
+    private boolean soloRollback;
+
+    /**
+     * Crea una transazione sulla connessione indicata
+     *
+     * @param connessione la connessione ottenuta dal pool
+     */
+    Transazione(Connection connessione) {
+        this.connessione = connessione;
+        this.condivisa = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null; // La connessione viene restituita al termine della transazione
+                        case "commit":
+                            return null; // Il commit è unico, alla fine della transazione
+                        case "rollback":
+                            if (args == null) {
+                                soloRollback = true;
+                                return null;
+                            }
+                            break;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connessione, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * @return la connessione da fornire ai DAO durante la transazione
+     */
+    Connection getConnessioneCondivisa() {
+        return condivisa;
+    }
+
+    /**
+     * Segna la transazione in modo che venga annullata al termine
+     */
+    void segnaSoloRollback() {
+        soloRollback = true;
+    }
+
+    /**
+     * Conclude la transazione con commit o rollback e restituisce la connessione al pool
+     *
+     * @param successo true se l'operazione è terminata senza errori
+     * @return true se la transazione è stata confermata
+     * @throws SQLException se si verifica un errore durante il commit
+     */
+    boolean concludi(boolean successo) throws SQLException {
+        try {
+            if (successo && !soloRollback) {
+                connessione.commit();
+                return true;
+            }
+            connessione.rollback();
+            return false;
+        } finally {
+            connessione.close();
+        }
+    }
+}
@@ -301,9 +301,12 @@ public class EventiPanel extends JPanel {
                 JOptionPane.YES_NO_OPTION);
             
             if (choice == JOptionPane.YES_OPTION) {
-                // TODO: Implement concludeHackathon in controller
-                mainFrame.showInfo("Evento concluso con successo!");
-                refreshData();
+                if (controller.concludeHackathon(selectedEvento.getId())) {
+                    mainFrame.showInfo("Evento concluso con successo!");
+                    refreshData();
+                } else {
+                    mainFrame.showError("Errore durante la conclusione dell'evento");
+                }
             }
         }
     }
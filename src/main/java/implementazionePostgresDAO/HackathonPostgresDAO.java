@@ -1,478 +1,316 @@
 package implementazionePostgresDAO;
 
 import dao.HackathonDAO;
-import database.ConnectionManager;
+import dao.Page;
+import database.RowMapper;
+import database.SqlTemplate;
 import model.Hackathon;
+import model.HackathonStats;
 
-import java.sql.*;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementazione PostgreSQL dell'interfaccia HackathonDAO.
  * Gestisce tutte le operazioni CRUD e specifiche per gli hackathon.
  */
 public class HackathonPostgresDAO implements HackathonDAO {
-    
-    private final ConnectionManager connectionManager;
-    
+
+    /**
+     * Colonne lette da {@link #HACKATHON_MAPPER}, nell'ordine in cui vengono mappate
+     */
+    static final String COLONNE = "id, nome, data_inizio, data_fine, sede, is_virtuale, organizzatore_id, " +
+            "max_partecipanti, max_team, stato, descrizione_problema, versione";
+
     /**
-     * Costruttore che inizializza il connection manager
+     * Mappa una riga selezionata con {@link #COLONNE} in un oggetto Hackathon
+     */
+    static final RowMapper<Hackathon> HACKATHON_MAPPER = rs -> {
+        Hackathon hackathon = new Hackathon(
+            rs.getString(2),
+            rs.getTimestamp(3).toLocalDateTime(),
+            rs.getString(5),
+            rs.getBoolean(6),
+            rs.getInt(7),
+            rs.getInt(8),
+            rs.getInt(9)
+        );
+
+        hackathon.setId(rs.getInt(1));
+        hackathon.setDataFine(rs.getTimestamp(4).toLocalDateTime());
+        hackathon.setStato(Hackathon.StatoHackathon.valueOf(rs.getString(10)));
+        hackathon.setDescrizioneProblema(rs.getString(11));
+        hackathon.setVersione(rs.getInt(12));
+        hackathon.pulisciModifiche();
+
+        return hackathon;
+    };
+
+    /**
+     * Statistiche di ogni hackathon: le FILTER permettono di contare con un solo
+     * passaggio su registrazione tutte le categorie, i progressi sono contati con una
+     * subquery LATERAL così le tabelle non si moltiplicano tra loro nel join.
+     * Il numero di team è il contatore mantenuto dai trigger
+     */
+    static final String SELECT_STATS = "SELECT h.id, r.totali, r.confermate, r.organizzatori, r.giudici, " +
+            "r.partecipanti, h.num_team, p.progressi FROM hackathon h " +
+            "CROSS JOIN LATERAL (SELECT COUNT(*) AS totali, " +
+            "COUNT(*) FILTER (WHERE confermata) AS confermate, " +
+            "COUNT(*) FILTER (WHERE ruolo = 'ORGANIZZATORE') AS organizzatori, " +
+            "COUNT(*) FILTER (WHERE ruolo = 'GIUDICE') AS giudici, " +
+            "COUNT(*) FILTER (WHERE ruolo = 'PARTECIPANTE') AS partecipanti " +
+            "FROM registrazione WHERE hackathon_id = h.id) r " +
+            "CROSS JOIN LATERAL (SELECT COUNT(*) AS progressi FROM progress WHERE hackathon_id = h.id) p ";
+
+    /**
+     * Mappa una riga selezionata con {@link #SELECT_STATS} in un oggetto HackathonStats
+     */
+    static final RowMapper<HackathonStats> STATS_MAPPER = rs -> {
+        HackathonStats stats = new HackathonStats(rs.getInt(1));
+        stats.setRegistrazioni(rs.getInt(2));
+        stats.setRegistrazioniConfermate(rs.getInt(3));
+        stats.setOrganizzatori(rs.getInt(4));
+        stats.setGiudici(rs.getInt(5));
+        stats.setPartecipanti(rs.getInt(6));
+        stats.setTeam(rs.getInt(7));
+        stats.setProgressi(rs.getInt(8));
+        return stats;
+    };
+
+    private final SqlTemplate sqlTemplate;
+
+    /**
+     * Costruttore che inizializza il template SQL
      */
     public HackathonPostgresDAO() {
-        this.connectionManager = ConnectionManager.getInstance();
+        this.sqlTemplate = new SqlTemplate();
     }
 
     @Override
     public int insert(Hackathon hackathon) {
-        // TODO: Implementare query INSERT per inserire un nuovo hackathon
         String sql = "INSERT INTO hackathon (nome, data_inizio, data_fine, sede, is_virtuale, " +
-                    "organizzatore_id, max_partecipanti, max_team, registrazioni_aperte, " +
-                    "descrizione_problema, evento_avviato, evento_concluso) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING id";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            // TODO: Impostare i parametri della query
-            pstmt.setString(1, hackathon.getNome());
-            pstmt.setTimestamp(2, Timestamp.valueOf(hackathon.getDataInizio()));
-            pstmt.setTimestamp(3, Timestamp.valueOf(hackathon.getDataFine()));
-            pstmt.setString(4, hackathon.getSede());
-            pstmt.setBoolean(5, hackathon.isVirtuale());
-            pstmt.setInt(6, hackathon.getOrganizzatoreId());
-            pstmt.setInt(7, hackathon.getMaxPartecipanti());
-            pstmt.setInt(8, hackathon.getMaxTeam());
-            pstmt.setBoolean(9, hackathon.isRegistrazioniAperte());
-            pstmt.setString(10, hackathon.getDescrizioneProblema());
-            pstmt.setBoolean(11, hackathon.isEventoAvviato());
-            pstmt.setBoolean(12, hackathon.isEventoConcluso());
-            
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int id = rs.getInt("id");
-                hackathon.setId(id);
-                connectionManager.commit();
-                return id;
-            }
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
+                    "organizzatore_id, max_partecipanti, max_team, stato, descrizione_problema) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING id";
+
+        int id = sqlTemplate.insertReturningId(sql,
+                hackathon.getNome(),
+                hackathon.getDataInizio(),
+                hackathon.getDataFine(),
+                hackathon.getSede(),
+                hackathon.isVirtuale(),
+                hackathon.getOrganizzatoreId(),
+                hackathon.getMaxPartecipanti(),
+                hackathon.getMaxTeam(),
+                hackathon.getStato(),
+                hackathon.getDescrizioneProblema());
+        if (id > 0) {
+            hackathon.setId(id);
+            hackathon.pulisciModifiche();
         }
-        return -1;
+        return id;
     }
 
     @Override
     public boolean update(Hackathon hackathon) {
-        // TODO: Implementare query UPDATE per aggiornare un hackathon esistente
-        String sql = "UPDATE hackathon SET nome = ?, data_inizio = ?, data_fine = ?, sede = ?, " +
-                    "is_virtuale = ?, organizzatore_id = ?, max_partecipanti = ?, max_team = ?, " +
-                    "registrazioni_aperte = ?, descrizione_problema = ?, evento_avviato = ?, " +
-                    "evento_concluso = ? WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            // TODO: Impostare i parametri della query
-            pstmt.setString(1, hackathon.getNome());
-            pstmt.setTimestamp(2, Timestamp.valueOf(hackathon.getDataInizio()));
-            pstmt.setTimestamp(3, Timestamp.valueOf(hackathon.getDataFine()));
-            pstmt.setString(4, hackathon.getSede());
-            pstmt.setBoolean(5, hackathon.isVirtuale());
-            pstmt.setInt(6, hackathon.getOrganizzatoreId());
-            pstmt.setInt(7, hackathon.getMaxPartecipanti());
-            pstmt.setInt(8, hackathon.getMaxTeam());
-            pstmt.setBoolean(9, hackathon.isRegistrazioniAperte());
-            pstmt.setString(10, hackathon.getDescrizioneProblema());
-            pstmt.setBoolean(11, hackathon.isEventoAvviato());
-            pstmt.setBoolean(12, hackathon.isEventoConcluso());
-            pstmt.setInt(13, hackathon.getId());
-            
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
+        if (hackathon.getCampiModificati().isEmpty()) {
+            return true; // Nessuna modifica da scrivere
+        }
+
+        Map<String, Object> valori = new LinkedHashMap<>();
+        for (String campo : hackathon.getCampiModificati()) {
+            switch (campo) {
+                case "nome": valori.put("nome", hackathon.getNome()); break;
+                case "dataInizio": valori.put("data_inizio", hackathon.getDataInizio()); break;
+                case "dataFine": valori.put("data_fine", hackathon.getDataFine()); break;
+                case "sede": valori.put("sede", hackathon.getSede()); break;
+                case "isVirtuale": valori.put("is_virtuale", hackathon.isVirtuale()); break;
+                case "organizzatoreId": valori.put("organizzatore_id", hackathon.getOrganizzatoreId()); break;
+                case "maxPartecipanti": valori.put("max_partecipanti", hackathon.getMaxPartecipanti()); break;
+                case "maxTeam": valori.put("max_team", hackathon.getMaxTeam()); break;
+                case "descrizioneProblema": valori.put("descrizione_problema", hackathon.getDescrizioneProblema()); break;
+                default: throw new IllegalStateException("Campo non gestito: " + campo);
             }
-            e.printStackTrace();
         }
-        return false;
+
+        int versione = sqlTemplate.updateColonneVersionate("hackathon", valori, hackathon.getId(), hackathon.getVersione());
+        if (versione < 0) {
+            return false;
+        }
+        hackathon.setVersione(versione);
+        hackathon.pulisciModifiche();
+        return true;
     }
 
     @Override
     public boolean delete(int id) {
-        // TODO: Implementare query DELETE per eliminare un hackathon
         String sql = "DELETE FROM hackathon WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-        }
-        return false;
+        return sqlTemplate.update(sql, id) > 0;
     }
 
     @Override
     public Hackathon findById(int id) {
-        // TODO: Implementare query SELECT per trovare un hackathon per ID
-        String sql = "SELECT * FROM hackathon WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return mapResultSetToHackathon(rs);
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return null;
+        String sql = "SELECT " + COLONNE + " FROM hackathon WHERE id = ?";
+        return sqlTemplate.queryForObject(sql, HACKATHON_MAPPER, id);
     }
 
     @Override
     public List<Hackathon> findAll() {
-        // TODO: Implementare query SELECT per trovare tutti gli hackathon
-        String sql = "SELECT * FROM hackathon ORDER BY data_inizio DESC";
-        List<Hackathon> hackathons = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
-            
-            while (rs.next()) {
-                hackathons.add(mapResultSetToHackathon(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
+        String sql = "SELECT " + COLONNE + " FROM hackathon ORDER BY data_inizio DESC";
+        return sqlTemplate.queryForList(sql, HACKATHON_MAPPER);
+    }
+
+    @Override
+    public Page<Hackathon> findAll(String cursore, int dimensione) {
+        Page.verificaDimensione(dimensione);
+        List<Hackathon> righe;
+        if (cursore == null) {
+            String sql = "SELECT " + COLONNE + " FROM hackathon ORDER BY data_inizio DESC, id DESC LIMIT ?";
+            righe = sqlTemplate.queryForList(sql, HACKATHON_MAPPER, dimensione + 1);
+        } else {
+            String[] chiave = Page.leggiCursore(cursore, 2);
+            String sql = "SELECT " + COLONNE + " FROM hackathon WHERE (data_inizio, id) < (?, ?) " +
+                        "ORDER BY data_inizio DESC, id DESC LIMIT ?";
+            righe = sqlTemplate.queryForList(sql, HACKATHON_MAPPER,
+                    LocalDateTime.parse(chiave[0]), Integer.parseInt(chiave[1]), dimensione + 1);
         }
-        return hackathons;
+        return Page.da(righe, dimensione, h -> new Object[] {h.getDataInizio(), h.getId()});
     }
 
     @Override
     public List<Hackathon> findByOrganizzatore(int organizzatoreId) {
-        // TODO: Implementare query per trovare hackathon per organizzatore
-        String sql = "SELECT * FROM hackathon WHERE organizzatore_id = ? ORDER BY data_inizio DESC";
-        List<Hackathon> hackathons = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, organizzatoreId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                hackathons.add(mapResultSetToHackathon(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return hackathons;
+        String sql = "SELECT " + COLONNE + " FROM hackathon WHERE organizzatore_id = ? ORDER BY data_inizio DESC";
+        return sqlTemplate.queryForList(sql, HACKATHON_MAPPER, organizzatoreId);
     }
 
     @Override
     public List<Hackathon> findConRegistrazioniAperte() {
-        // TODO: Implementare query per trovare hackathon con registrazioni aperte
-        String sql = "SELECT * FROM hackathon WHERE registrazioni_aperte = true ORDER BY data_inizio";
-        List<Hackathon> hackathons = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
-            
-            while (rs.next()) {
-                hackathons.add(mapResultSetToHackathon(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return hackathons;
+        String sql = "SELECT " + COLONNE + " FROM hackathon WHERE stato = 'REGISTRAZIONI_APERTE' ORDER BY data_inizio";
+        return sqlTemplate.queryForList(sql, HACKATHON_MAPPER);
     }
 
     @Override
     public List<Hackathon> findInCorso() {
-        // TODO: Implementare query per trovare hackathon in corso
-        String sql = "SELECT * FROM hackathon WHERE evento_avviato = true AND evento_concluso = false " +
+        String sql = "SELECT " + COLONNE + " FROM hackathon WHERE stato = 'IN_CORSO' " +
                     "AND data_inizio <= NOW() AND data_fine >= NOW() ORDER BY data_inizio";
-        List<Hackathon> hackathons = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
-            
-            while (rs.next()) {
-                hackathons.add(mapResultSetToHackathon(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return hackathons;
+        return sqlTemplate.queryForList(sql, HACKATHON_MAPPER);
     }
 
     @Override
     public List<Hackathon> findConclusi() {
-        // TODO: Implementare query per trovare hackathon conclusi
-        String sql = "SELECT * FROM hackathon WHERE evento_concluso = true ORDER BY data_fine DESC";
-        List<Hackathon> hackathons = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
-            
-            while (rs.next()) {
-                hackathons.add(mapResultSetToHackathon(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return hackathons;
+        String sql = "SELECT " + COLONNE + " FROM hackathon WHERE stato = 'CONCLUSO' ORDER BY data_fine DESC";
+        return sqlTemplate.queryForList(sql, HACKATHON_MAPPER);
     }
 
     @Override
     public boolean apriRegistrazioni(int hackathonId) {
-        // TODO: Implementare query per aprire le registrazioni
-        String sql = "UPDATE hackathon SET registrazioni_aperte = true WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, hackathonId);
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-        }
-        return false;
+        return transizione(hackathonId, null, Hackathon.StatoHackathon.REGISTRAZIONI_APERTE, null) != null;
     }
 
     @Override
     public boolean chiudiRegistrazioni(int hackathonId) {
-        // TODO: Implementare query per chiudere le registrazioni
-        String sql = "UPDATE hackathon SET registrazioni_aperte = false WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, hackathonId);
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-        }
-        return false;
+        return transizione(hackathonId, null, Hackathon.StatoHackathon.REGISTRAZIONI_CHIUSE, null) != null;
     }
 
     @Override
     public boolean avviaHackathon(int hackathonId, String descrizioneProblema) {
-        // TODO: Implementare query per avviare l'hackathon
-        String sql = "UPDATE hackathon SET evento_avviato = true, descrizione_problema = ? WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, descrizioneProblema);
-            pstmt.setInt(2, hackathonId);
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-        }
-        return false;
+        return transizione(hackathonId, null, Hackathon.StatoHackathon.IN_CORSO, descrizioneProblema) != null;
     }
 
     @Override
     public boolean concludeHackathon(int hackathonId) {
-        // TODO: Implementare query per concludere l'hackathon
-        String sql = "UPDATE hackathon SET evento_concluso = true WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, hackathonId);
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
+        return transizione(hackathonId, null, Hackathon.StatoHackathon.CONCLUSO, null) != null;
+    }
+
+    @Override
+    public Hackathon cambiaStato(int hackathonId, int organizzatoreId, Hackathon.StatoHackathon nuovoStato) {
+        return transizione(hackathonId, organizzatoreId, nuovoStato, null);
+    }
+
+    @Override
+    public Hackathon avviaHackathon(int hackathonId, int organizzatoreId, String descrizioneProblema) {
+        return transizione(hackathonId, organizzatoreId, Hackathon.StatoHackathon.IN_CORSO, descrizioneProblema);
+    }
+
+    /**
+     * Esegue una transizione di stato come compare-and-set: l'UPDATE modifica la riga
+     * solo se lo stato corrente è tra i precedenti ammessi e, se indicato, l'organizzatore
+     * corrisponde, quindi due transizioni concorrenti non possono riuscire entrambe
+     *
+     * @param hackathonId         l'ID dell'hackathon
+     * @param organizzatoreId     l'ID dell'organizzatore o null per non verificarlo
+     * @param nuovoStato          lo stato di destinazione
+     * @param descrizioneProblema la descrizione del problema da impostare o null per lasciarla invariata
+     * @return l'hackathon aggiornato o null se la transizione non è ammessa
+     */
+    private Hackathon transizione(int hackathonId, Integer organizzatoreId,
+                                  Hackathon.StatoHackathon nuovoStato, String descrizioneProblema) {
+        Hackathon.StatoHackathon[] precedenti = nuovoStato.getPrecedenti();
+        String[] statiAmmessi = new String[precedenti.length];
+        for (int i = 0; i < precedenti.length; i++) {
+            statiAmmessi[i] = precedenti[i].name();
         }
-        return false;
+
+        String sql = "UPDATE hackathon SET stato = ?, descrizione_problema = coalesce(?, descrizione_problema), " +
+                    "versione = versione + 1 " +
+                    "WHERE id = ? AND stato = ANY(?) AND (?::int IS NULL OR organizzatore_id = ?) " +
+                    "RETURNING " + COLONNE;
+        return sqlTemplate.updateReturning(sql, HACKATHON_MAPPER,
+                nuovoStato, descrizioneProblema, hackathonId, statiAmmessi, organizzatoreId, organizzatoreId);
     }
 
     @Override
     public boolean haRaggiuntoLimitePartecipanti(int hackathonId) {
-        // TODO: Implementare logica per verificare limite partecipanti
-        // Questa query dovrebbe confrontare il numero di partecipanti registrati con max_partecipanti
-        String sql = "SELECT COUNT(*) as partecipanti, max_partecipanti FROM registrazione r " +
-                    "JOIN hackathon h ON r.hackathon_id = h.id " +
-                    "WHERE h.id = ? AND r.confermata = true GROUP BY h.max_partecipanti";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, hackathonId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                int partecipanti = rs.getInt("partecipanti");
-                int maxPartecipanti = rs.getInt("max_partecipanti");
-                return partecipanti >= maxPartecipanti;
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
+        // I contatori sono mantenuti dai trigger: basta leggere la riga dell'hackathon
+        String sql = "SELECT posti_occupati >= max_partecipanti FROM hackathon WHERE id = ?";
+        return Boolean.TRUE.equals(sqlTemplate.queryForObject(sql, rs -> rs.getBoolean(1), hackathonId));
     }
 
     @Override
     public boolean haRaggiuntoLimiteTeam(int hackathonId) {
-        // TODO: Implementare logica per verificare limite team
-        String sql = "SELECT COUNT(*) as team, max_team FROM team t " +
-                    "JOIN hackathon h ON t.hackathon_id = h.id " +
-                    "WHERE h.id = ? GROUP BY h.max_team";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, hackathonId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                int team = rs.getInt("team");
-                int maxTeam = rs.getInt("max_team");
-                return team >= maxTeam;
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
+        String sql = "SELECT num_team >= max_team FROM hackathon WHERE id = ?";
+        return Boolean.TRUE.equals(sqlTemplate.queryForObject(sql, rs -> rs.getBoolean(1), hackathonId));
     }
 
     @Override
     public int contaPartecipanti(int hackathonId) {
-        // TODO: Implementare query per contare partecipanti
-        String sql = "SELECT COUNT(*) as partecipanti FROM registrazione " +
-                    "WHERE hackathon_id = ? AND confermata = true";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, hackathonId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("partecipanti");
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return 0;
+        String sql = "SELECT partecipanti_confermati FROM hackathon WHERE id = ?";
+        return sqlTemplate.queryForInt(sql, hackathonId);
     }
 
     @Override
     public int contaTeam(int hackathonId) {
-        // TODO: Implementare query per contare team
-        String sql = "SELECT COUNT(*) as team FROM team WHERE hackathon_id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, hackathonId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("team");
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return 0;
+        String sql = "SELECT num_team FROM hackathon WHERE id = ?";
+        return sqlTemplate.queryForInt(sql, hackathonId);
     }
 
-    /**
-     * Mappa un ResultSet in un oggetto Hackathon
-     *
-     * @param rs il ResultSet da mappare
-     * @return l'oggetto Hackathon mappato
-     * @throws SQLException se si verifica un errore durante la lettura
-     */
-    private Hackathon mapResultSetToHackathon(ResultSet rs) throws SQLException {
-        Hackathon hackathon = new Hackathon(
-            rs.getString("nome"),
-            rs.getTimestamp("data_inizio").toLocalDateTime(),
-            rs.getString("sede"),
-            rs.getBoolean("is_virtuale"),
-            rs.getInt("organizzatore_id"),
-            rs.getInt("max_partecipanti"),
-            rs.getInt("max_team")
-        );
-        
-        hackathon.setId(rs.getInt("id"));
-        hackathon.setDataFine(rs.getTimestamp("data_fine").toLocalDateTime());
-        hackathon.setRegistrazioniAperte(rs.getBoolean("registrazioni_aperte"));
-        hackathon.setDescrizioneProblema(rs.getString("descrizione_problema"));
-        hackathon.setEventoAvviato(rs.getBoolean("evento_avviato"));
-        hackathon.setEventoConcluso(rs.getBoolean("evento_concluso"));
-        
-        return hackathon;
+    @Override
+    public HackathonStats findStats(int hackathonId) {
+        String sql = SELECT_STATS + "WHERE h.id = ?";
+        return sqlTemplate.queryForObject(sql, STATS_MAPPER, hackathonId);
+    }
+
+    @Override
+    public Map<Integer, HackathonStats> findStats(List<Integer> hackathonIds) {
+        Map<Integer, HackathonStats> statistiche = new LinkedHashMap<>();
+        if (hackathonIds.isEmpty()) {
+            return statistiche;
+        }
+
+        String sql = SELECT_STATS + "WHERE h.id = ANY(?)";
+        Map<Integer, HackathonStats> trovate = new HashMap<>();
+        for (HackathonStats stats : sqlTemplate.queryForList(sql, STATS_MAPPER,
+                (Object) hackathonIds.toArray(new Integer[0]))) {
+            trovate.put(stats.getHackathonId(), stats);
+        }
+        for (Integer id : hackathonIds) {
+            HackathonStats stats = trovate.get(id);
+            if (stats != null) {
+                statistiche.put(id, stats);
+            }
+        }
+        return statistiche;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package implementazionePostgresDAO;
+
+import dao.PrecondizioniDAO;
+import database.SqlTemplate;
+import model.Precondizioni;
+
+/**
+ * Implementazione PostgreSQL dell'interfaccia PrecondizioniDAO.
+ * Ogni verifica è una sola istruzione composta da sottoquery EXISTS.
+ */
+public class PrecondizioniPostgresDAO implements PrecondizioniDAO {
+
+    /**
+     * Condizione vera se l'utente, passato in entrambi i parametri, è capo o membro del team "t"
+     */
+    private static final String MEMBRO_DI_T = "(t.capo_team_id = ? OR EXISTS (SELECT 1 FROM team_members tm " +
+            "WHERE tm.team_id = t.id AND tm.utente_id = ?))";
+
+    private final SqlTemplate sqlTemplate;
+
+    /**
+     * Costruttore che inizializza il template SQL
+     */
+    public PrecondizioniPostgresDAO() {
+        this.sqlTemplate = new SqlTemplate();
+    }
+
+    @Override
+    public Precondizioni verificaCreaTeam(int utenteId, int hackathonId) {
+        String sql = "SELECT r.id IS NOT NULL, coalesce(r.confermata, false), " +
+                    "coalesce(r.ruolo = 'PARTECIPANTE', false), " +
+                    "EXISTS (SELECT 1 FROM team t WHERE t.hackathon_id = ? AND " + MEMBRO_DI_T + ") " +
+                    "FROM (SELECT 1) uno " +
+                    "LEFT JOIN registrazione r ON r.utente_id = ? AND r.hackathon_id = ?";
+
+        Precondizioni precondizioni = sqlTemplate.queryForObject(sql, rs -> {
+            Precondizioni p = new Precondizioni();
+            p.setRegistrato(rs.getBoolean(1));
+            p.setConfermato(rs.getBoolean(2));
+            p.setPartecipante(rs.getBoolean(3));
+            p.setGiaInTeam(rs.getBoolean(4));
+            p.setHackathonId(hackathonId);
+            return p;
+        }, hackathonId, utenteId, utenteId, utenteId, hackathonId);
+        return precondizioni != null ? precondizioni : new Precondizioni();
+    }
+
+    @Override
+    public Precondizioni verificaCaricaProgresso(int utenteId, int teamId) {
+        String sql = "SELECT t.hackathon_id, " + MEMBRO_DI_T + " FROM team t WHERE t.id = ?";
+
+        Precondizioni precondizioni = sqlTemplate.queryForObject(sql, rs -> {
+            Precondizioni p = new Precondizioni();
+            p.setTeamEsiste(true);
+            p.setHackathonId(rs.getInt(1));
+            p.setMembro(rs.getBoolean(2));
+            return p;
+        }, utenteId, utenteId, teamId);
+        return precondizioni != null ? precondizioni : new Precondizioni();
+    }
+
+    @Override
+    public Precondizioni verificaAssegnaVoto(int giudiceId, int teamId) {
+        String sql = "SELECT t.hackathon_id, EXISTS (SELECT 1 FROM valutazione v " +
+                    "WHERE v.giudice_id = ? AND v.team_id = t.id) FROM team t WHERE t.id = ?";
+
+        Precondizioni precondizioni = sqlTemplate.queryForObject(sql, rs -> {
+            Precondizioni p = new Precondizioni();
+            p.setTeamEsiste(true);
+            p.setHackathonId(rs.getInt(1));
+            p.setGiaValutato(rs.getBoolean(2));
+            return p;
+        }, giudiceId, teamId);
+        return precondizioni != null ? precondizioni : new Precondizioni();
+    }
+}
@@ -0,0 +1,234 @@
+package implementazionePostgresDAO;
+
+import dao.ProgressDAO;
+import database.RowMapper;
+import database.SqlTemplate;
+import model.Progress;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Implementazione PostgreSQL dell'interfaccia ProgressDAO.
+ * Gestisce tutte le operazioni CRUD e specifiche per i progressi dei team.
+ */
+public class ProgressPostgresDAO implements ProgressDAO {
+
+    /**
+     * Colonne lette da {@link #PROGRESS_MAPPER}, nell'ordine in cui vengono mappate
+     */
+    static final String COLONNE = "id, team_id, hackathon_id, titolo, descrizione, documento_path, " +
+            "data_caricamento, commento_giudice, giudice_id, data_commento";
+
+    /**
+     * Mappa una riga selezionata con {@link #COLONNE} in un oggetto Progress
+     */
+    static final RowMapper<Progress> PROGRESS_MAPPER = rs -> {
+        Progress progress = new Progress(
+            rs.getInt(2),
+            rs.getInt(3),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getString(6)
+        );
+
+        progress.setId(rs.getInt(1));
+        progress.setDataCaricamento(SqlTemplate.toLocalDateTime(rs.getTimestamp(7)));
+        progress.setCommentoGiudice(rs.getString(8));
+        progress.setGiudiceId(rs.getInt(9));
+        progress.setDataCommento(SqlTemplate.toLocalDateTime(rs.getTimestamp(10)));
+
+        return progress;
+    };
+
+    private final SqlTemplate sqlTemplate;
+
+    /**
+     * Costruttore che inizializza il template SQL
+     */
+    public ProgressPostgresDAO() {
+        this.sqlTemplate = new SqlTemplate();
+    }
+
+    @Override
+    public int insert(Progress progress) {
+        String sql = "INSERT INTO progress (team_id, hackathon_id, titolo, descrizione, documento_path, " +
+                    "data_caricamento, commento_giudice, giudice_id, data_commento) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING id";
+
+        int id = sqlTemplate.insertReturningId(sql,
+                progress.getTeamId(),
+                progress.getHackathonId(),
+                progress.getTitolo(),
+                progress.getDescrizione(),
+                progress.getDocumentoPath(),
+                progress.getDataCaricamento(),
+                progress.getCommentoGiudice(),
+                giudiceOppureNull(progress),
+                progress.getDataCommento());
+        if (id > 0) {
+            progress.setId(id);
+        }
+        return id;
+    }
+
+    @Override
+    public boolean update(Progress progress) {
+        String sql = "UPDATE progress SET team_id = ?, hackathon_id = ?, titolo = ?, descrizione = ?, " +
+                    "documento_path = ?, data_caricamento = ?, commento_giudice = ?, giudice_id = ?, " +
+                    "data_commento = ? WHERE id = ?";
+
+        return sqlTemplate.update(sql,
+                progress.getTeamId(),
+                progress.getHackathonId(),
+                progress.getTitolo(),
+                progress.getDescrizione(),
+                progress.getDocumentoPath(),
+                progress.getDataCaricamento(),
+                progress.getCommentoGiudice(),
+                giudiceOppureNull(progress),
+                progress.getDataCommento(),
+                progress.getId()) > 0;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        String sql = "DELETE FROM progress WHERE id = ?";
+        return sqlTemplate.update(sql, id) > 0;
+    }
+
+    @Override
+    public Progress findById(int id) {
+        String sql = "SELECT " + COLONNE + " FROM progress WHERE id = ?";
+        return sqlTemplate.queryForObject(sql, PROGRESS_MAPPER, id);
+    }
+
+    @Override
+    public List<Progress> findAll() {
+        String sql = "SELECT " + COLONNE + " FROM progress ORDER BY id";
+        return sqlTemplate.queryForList(sql, PROGRESS_MAPPER);
+    }
+
+    @Override
+    public List<Progress> findByTeam(int teamId) {
+        String sql = "SELECT " + COLONNE + " FROM progress WHERE team_id = ? ORDER BY data_caricamento DESC";
+        return sqlTemplate.queryForList(sql, PROGRESS_MAPPER, teamId);
+    }
+
+    @Override
+    public List<Progress> findByHackathon(int hackathonId) {
+        String sql = "SELECT " + COLONNE + " FROM progress WHERE hackathon_id = ? ORDER BY data_caricamento DESC";
+        return sqlTemplate.queryForList(sql, PROGRESS_MAPPER, hackathonId);
+    }
+
+    @Override
+    public List<Progress> findByTeamAndHackathon(int teamId, int hackathonId) {
+        String sql = "SELECT " + COLONNE + " FROM progress WHERE team_id = ? AND hackathon_id = ? " +
+                    "ORDER BY data_caricamento DESC";
+        return sqlTemplate.queryForList(sql, PROGRESS_MAPPER, teamId, hackathonId);
+    }
+
+    @Override
+    public List<Progress> findByGiudice(int giudiceId) {
+        String sql = "SELECT " + COLONNE + " FROM progress WHERE giudice_id = ? ORDER BY data_commento DESC";
+        return sqlTemplate.queryForList(sql, PROGRESS_MAPPER, giudiceId);
+    }
+
+    @Override
+    public List<Progress> findSenzaCommenti() {
+        String sql = "SELECT " + COLONNE + " FROM progress " +
+                    "WHERE commento_giudice IS NULL OR commento_giudice = '' ORDER BY data_caricamento";
+        return sqlTemplate.queryForList(sql, PROGRESS_MAPPER);
+    }
+
+    @Override
+    public List<Progress> findConCommenti() {
+        String sql = "SELECT " + COLONNE + " FROM progress " +
+                    "WHERE commento_giudice IS NOT NULL AND commento_giudice <> '' ORDER BY data_commento DESC";
+        return sqlTemplate.queryForList(sql, PROGRESS_MAPPER);
+    }
+
+    @Override
+    public boolean aggiungiCommentoGiudice(int progressId, int giudiceId, String commento) {
+        String sql = "UPDATE progress SET commento_giudice = ?, giudice_id = ?, data_commento = NOW() " +
+                    "WHERE id = ?";
+        return sqlTemplate.update(sql, commento, giudiceId, progressId) > 0;
+    }
+
+    @Override
+    public boolean aggiornaCommentoGiudice(int progressId, int giudiceId, String nuovoCommento) {
+        String sql = "UPDATE progress SET commento_giudice = ?, data_commento = NOW() " +
+                    "WHERE id = ? AND giudice_id = ?";
+        return sqlTemplate.update(sql, nuovoCommento, progressId, giudiceId) > 0;
+    }
+
+    @Override
+    public boolean rimuoviCommentoGiudice(int progressId, int giudiceId) {
+        String sql = "UPDATE progress SET commento_giudice = NULL, giudice_id = NULL, data_commento = NULL " +
+                    "WHERE id = ? AND giudice_id = ?";
+        return sqlTemplate.update(sql, progressId, giudiceId) > 0;
+    }
+
+    @Override
+    public boolean haCommentoGiudice(int progressId) {
+        String sql = "SELECT 1 FROM progress WHERE id = ? AND commento_giudice IS NOT NULL AND commento_giudice <> ''";
+        return sqlTemplate.exists(sql, progressId);
+    }
+
+    @Override
+    public String findCommentoGiudice(int progressId, int giudiceId) {
+        String sql = "SELECT commento_giudice FROM progress WHERE id = ? AND giudice_id = ?";
+        return sqlTemplate.queryForObject(sql, rs -> rs.getString(1), progressId, giudiceId);
+    }
+
+    @Override
+    public int contaProgressiTeam(int teamId) {
+        String sql = "SELECT COUNT(*) FROM progress WHERE team_id = ?";
+        return sqlTemplate.queryForInt(sql, teamId);
+    }
+
+    @Override
+    public int contaProgressiHackathon(int hackathonId) {
+        String sql = "SELECT COUNT(*) FROM progress WHERE hackathon_id = ?";
+        return sqlTemplate.queryForInt(sql, hackathonId);
+    }
+
+    @Override
+    public int contaProgressiCommentati(int giudiceId) {
+        String sql = "SELECT COUNT(*) FROM progress WHERE giudice_id = ? " +
+                    "AND commento_giudice IS NOT NULL AND commento_giudice <> ''";
+        return sqlTemplate.queryForInt(sql, giudiceId);
+    }
+
+    @Override
+    public Progress findUltimoProgressoTeam(int teamId) {
+        String sql = "SELECT " + COLONNE + " FROM progress WHERE team_id = ? " +
+                    "ORDER BY data_caricamento DESC, id DESC LIMIT 1";
+        return sqlTemplate.queryForObject(sql, PROGRESS_MAPPER, teamId);
+    }
+
+    @Override
+    public List<Progress> findAllOrderByDataCaricamento() {
+        String sql = "SELECT " + COLONNE + " FROM progress ORDER BY data_caricamento DESC";
+        return sqlTemplate.queryForList(sql, PROGRESS_MAPPER);
+    }
+
+    @Override
+    public Stream<Progress> streamAllOrderByDataCaricamento() {
+        String sql = "SELECT " + COLONNE + " FROM progress ORDER BY data_caricamento DESC";
+        return sqlTemplate.queryForStream(sql, PROGRESS_MAPPER);
+    }
+
+    @Override
+    public List<Progress> findByTeamOrderByDataCaricamento(int teamId) {
+        String sql = "SELECT " + COLONNE + " FROM progress WHERE team_id = ? ORDER BY data_caricamento";
+        return sqlTemplate.queryForList(sql, PROGRESS_MAPPER, teamId);
+    }
+
+    /**
+     * Il modello usa 0 per "nessun giudice", la colonna giudice_id richiede NULL
+     */
+    private static Integer giudiceOppureNull(Progress progress) {
+        return progress.getGiudiceId() > 0 ? progress.getGiudiceId() : null;
+    }
+}
@@ -1,292 +1,261 @@
 package implementazionePostgresDAO;
 
 import dao.RegistrazioneDAO;
+import dao.Page;
 import database.ConnectionManager;
+import database.RowMapper;
+import database.SqlTemplate;
+import model.EsitoRegistrazione;
 import model.Registrazione;
 
-import java.sql.*;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Implementazione PostgreSQL dell'interfaccia RegistrazioneDAO.
  * Gestisce tutte le operazioni CRUD e specifiche per le registrazioni.
  */
 public class RegistrazionePostgresDAO implements RegistrazioneDAO {
-    
-    private final ConnectionManager connectionManager;
-    
+
     /**
-     * Costruttore che inizializza il connection manager
+     * Colonne lette da {@link #REGISTRAZIONE_MAPPER}, nell'ordine in cui vengono mappate
+     */
+    static final String COLONNE = "id, utente_id, hackathon_id, data_registrazione, ruolo, confermata";
+
+    /**
+     * Mappa una riga selezionata con {@link #COLONNE} in un oggetto Registrazione
+     */
+    static final RowMapper<Registrazione> REGISTRAZIONE_MAPPER = rs -> {
+        Registrazione registrazione = new Registrazione(
+            rs.getInt(2),
+            rs.getInt(3),
+            Registrazione.Ruolo.valueOf(rs.getString(5))
+        );
+
+        registrazione.setId(rs.getInt(1));
+        registrazione.setDataRegistrazione(rs.getTimestamp(4).toLocalDateTime());
+        registrazione.setConfermata(rs.getBoolean(6));
+
+        return registrazione;
+    };
+
+    private final SqlTemplate sqlTemplate;
+
+    /**
+     * Costruttore che inizializza il template SQL
      */
     public RegistrazionePostgresDAO() {
-        this.connectionManager = ConnectionManager.getInstance();
+        this.sqlTemplate = new SqlTemplate();
     }
 
     @Override
     public int insert(Registrazione registrazione) {
-        // TODO: Implementare query INSERT per inserire una nuova registrazione
         String sql = "INSERT INTO registrazione (utente_id, hackathon_id, data_registrazione, " +
                     "ruolo, confermata) VALUES (?, ?, ?, ?, ?) RETURNING id";
-        
+
+        int id = sqlTemplate.insertReturningId(sql,
+                registrazione.getUtenteId(),
+                registrazione.getHackathonId(),
+                registrazione.getDataRegistrazione(),
+                registrazione.getRuolo(),
+                registrazione.isConfermata());
+        if (id > 0) {
+            registrazione.setId(id);
+        }
+        return id;
+    }
+
+    @Override
+    public List<Integer> insertAll(List<Registrazione> registrazioni) {
+        String sql = "INSERT INTO registrazione (utente_id, hackathon_id, data_registrazione, " +
+                    "ruolo, confermata) VALUES (?, ?, ?, ?, ?)";
+
+        List<Object[]> righe = new ArrayList<>(registrazioni.size());
+        for (Registrazione registrazione : registrazioni) {
+            righe.add(new Object[] {
+                registrazione.getUtenteId(),
+                registrazione.getHackathonId(),
+                registrazione.getDataRegistrazione(),
+                registrazione.getRuolo(),
+                registrazione.isConfermata()
+            });
+        }
+
+        List<Integer> ids = sqlTemplate.batchInsertReturningIds(sql, righe);
+        for (int i = 0; i < ids.size(); i++) {
+            registrazioni.get(i).setId(ids.get(i));
+        }
+        return ids;
+    }
+
+    @Override
+    public EsitoRegistrazione registraSeDisponibile(Registrazione registrazione) {
+        // Due istruzioni in un solo round trip: il lock sulla riga dell'hackathon serializza
+        // le registrazioni concorrenti, e la seconda istruzione, con uno snapshot preso dopo
+        // il lock, vede il contatore posti_occupati aggiornato dai trigger delle transazioni
+        // già confermate. I posti occupati sono le registrazioni da partecipante, confermate o no,
+        // come in HackathonDAO.haRaggiuntoLimitePartecipanti.
+        String sql = "SELECT id FROM hackathon WHERE id = ? FOR UPDATE; " +
+                    "WITH h AS (SELECT id, stato = 'REGISTRAZIONI_APERTE' AS aperte, max_partecipanti, " +
+                    "posti_occupati >= max_partecipanti AS completo FROM hackathon WHERE id = ?), " +
+                    "inserita AS (INSERT INTO registrazione (utente_id, hackathon_id, data_registrazione, " +
+                    "ruolo, confermata) SELECT ?, h.id, ?, ?, ? FROM h " +
+                    "WHERE h.aperte AND (? <> 'PARTECIPANTE' OR NOT h.completo) " +
+                    "ON CONFLICT (utente_id, hackathon_id) DO NOTHING RETURNING id) " +
+                    "SELECT (SELECT id FROM inserita), h.aperte, " +
+                    "EXISTS (SELECT 1 FROM registrazione WHERE utente_id = ? AND hackathon_id = h.id), " +
+                    "h.completo FROM h";
+
+        ConnectionManager connectionManager = sqlTemplate.getConnectionManager();
         try (Connection conn = connectionManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, registrazione.getUtenteId());
-            pstmt.setInt(2, registrazione.getHackathonId());
-            pstmt.setTimestamp(3, Timestamp.valueOf(registrazione.getDataRegistrazione()));
-            pstmt.setString(4, registrazione.getRuolo().name());
-            pstmt.setBoolean(5, registrazione.isConfermata());
-            
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int id = rs.getInt("id");
-                registrazione.setId(id);
-                connectionManager.commit();
-                return id;
-            }
-            
-        } catch (SQLException e) {
-            try {
+
+            SqlTemplate.imposta(pstmt,
+                    registrazione.getHackathonId(),
+                    registrazione.getHackathonId(),
+                    registrazione.getUtenteId(),
+                    registrazione.getDataRegistrazione(),
+                    registrazione.getRuolo(),
+                    registrazione.isConfermata(),
+                    registrazione.getRuolo(),
+                    registrazione.getUtenteId());
+
+            pstmt.execute();
+            // Il primo risultato è il SELECT ... FOR UPDATE, l'esito è nel secondo
+            if (!pstmt.getMoreResults()) {
                 connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
+                return EsitoRegistrazione.ERRORE;
             }
+
+            EsitoRegistrazione esito;
+            try (ResultSet rs = pstmt.getResultSet()) {
+                if (!rs.next()) {
+                    esito = EsitoRegistrazione.NON_TROVATO;
+                } else {
+                    int id = rs.getInt(1);
+                    if (!rs.wasNull()) {
+                        registrazione.setId(id);
+                        esito = EsitoRegistrazione.OK;
+                    } else if (!rs.getBoolean(2)) {
+                        esito = EsitoRegistrazione.CHIUSO;
+                    } else if (rs.getBoolean(3) || registrazione.getRuolo() != Registrazione.Ruolo.PARTECIPANTE) {
+                        // Un conflitto sul vincolo UNIQUE non ancora visibile nello snapshot è comunque un duplicato
+                        esito = EsitoRegistrazione.DUPLICATO;
+                    } else if (rs.getBoolean(4)) {
+                        esito = EsitoRegistrazione.COMPLETO;
+                    } else {
+                        esito = EsitoRegistrazione.DUPLICATO;
+                    }
+                }
+            }
+            connectionManager.commit();
+            return esito;
+
+        } catch (SQLException e) {
+            sqlTemplate.rollback();
             e.printStackTrace();
         }
-        return -1;
+        return EsitoRegistrazione.ERRORE;
     }
 
     @Override
     public boolean update(Registrazione registrazione) {
-        // TODO: Implementare query UPDATE per aggiornare una registrazione esistente
         String sql = "UPDATE registrazione SET utente_id = ?, hackathon_id = ?, " +
                     "data_registrazione = ?, ruolo = ?, confermata = ? WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, registrazione.getUtenteId());
-            pstmt.setInt(2, registrazione.getHackathonId());
-            pstmt.setTimestamp(3, Timestamp.valueOf(registrazione.getDataRegistrazione()));
-            pstmt.setString(4, registrazione.getRuolo().name());
-            pstmt.setBoolean(5, registrazione.isConfermata());
-            pstmt.setInt(6, registrazione.getId());
-            
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-        }
-        return false;
+
+        return sqlTemplate.update(sql,
+                registrazione.getUtenteId(),
+                registrazione.getHackathonId(),
+                registrazione.getDataRegistrazione(),
+                registrazione.getRuolo(),
+                registrazione.isConfermata(),
+                registrazione.getId()) > 0;
     }
 
     @Override
     public boolean delete(int id) {
-        // TODO: Implementare query DELETE per eliminare una registrazione
         String sql = "DELETE FROM registrazione WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-        }
-        return false;
+        return sqlTemplate.update(sql, id) > 0;
     }
 
     @Override
     public Registrazione findById(int id) {
-        // TODO: Implementare query SELECT per trovare una registrazione per ID
-        String sql = "SELECT * FROM registrazione WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return mapResultSetToRegistrazione(rs);
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return null;
+        String sql = "SELECT " + COLONNE + " FROM registrazione WHERE id = ?";
+        return sqlTemplate.queryForObject(sql, REGISTRAZIONE_MAPPER, id);
     }
 
     @Override
     public List<Registrazione> findAll() {
-        // TODO: Implementare query SELECT per trovare tutte le registrazioni
-        String sql = "SELECT * FROM registrazione ORDER BY data_registrazione DESC";
-        List<Registrazione> registrazioni = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
-            
-            while (rs.next()) {
-                registrazioni.add(mapResultSetToRegistrazione(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
+        String sql = "SELECT " + COLONNE + " FROM registrazione ORDER BY data_registrazione DESC";
+        return sqlTemplate.queryForList(sql, REGISTRAZIONE_MAPPER);
+    }
+
+    @Override
+    public Page<Registrazione> findAll(String cursore, int dimensione) {
+        Page.verificaDimensione(dimensione);
+        List<Registrazione> righe;
+        if (cursore == null) {
+            String sql = "SELECT " + COLONNE + " FROM registrazione ORDER BY data_registrazione DESC, id DESC LIMIT ?";
+            righe = sqlTemplate.queryForList(sql, REGISTRAZIONE_MAPPER, dimensione + 1);
+        } else {
+            String[] chiave = Page.leggiCursore(cursore, 2);
+            String sql = "SELECT " + COLONNE + " FROM registrazione WHERE (data_registrazione, id) < (?, ?) " +
+                        "ORDER BY data_registrazione DESC, id DESC LIMIT ?";
+            righe = sqlTemplate.queryForList(sql, REGISTRAZIONE_MAPPER,
+                    LocalDateTime.parse(chiave[0]), Integer.parseInt(chiave[1]), dimensione + 1);
         }
-        return registrazioni;
+        return Page.da(righe, dimensione, r -> new Object[] {r.getDataRegistrazione(), r.getId()});
     }
 
     @Override
     public List<Registrazione> findByUtente(int utenteId) {
-        // TODO: Implementare query per trovare registrazioni di un utente
-        String sql = "SELECT * FROM registrazione WHERE utente_id = ? ORDER BY data_registrazione DESC";
-        List<Registrazione> registrazioni = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, utenteId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                registrazioni.add(mapResultSetToRegistrazione(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return registrazioni;
+        String sql = "SELECT " + COLONNE + " FROM registrazione WHERE utente_id = ? ORDER BY data_registrazione DESC";
+        return sqlTemplate.queryForList(sql, REGISTRAZIONE_MAPPER, utenteId);
     }
 
     @Override
     public List<Registrazione> findByHackathon(int hackathonId) {
-        // TODO: Implementare query per trovare registrazioni di un hackathon
-        String sql = "SELECT * FROM registrazione WHERE hackathon_id = ? ORDER BY data_registrazione DESC";
-        List<Registrazione> registrazioni = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, hackathonId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                registrazioni.add(mapResultSetToRegistrazione(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return registrazioni;
+        String sql = "SELECT " + COLONNE + " FROM registrazione WHERE hackathon_id = ? ORDER BY data_registrazione DESC";
+        return sqlTemplate.queryForList(sql, REGISTRAZIONE_MAPPER, hackathonId);
+    }
+
+    @Override
+    public Stream<Registrazione> streamByHackathon(int hackathonId) {
+        String sql = "SELECT " + COLONNE + " FROM registrazione WHERE hackathon_id = ? ORDER BY data_registrazione DESC";
+        return sqlTemplate.queryForStream(sql, REGISTRAZIONE_MAPPER, hackathonId);
     }
 
     @Override
     public Registrazione findByUtenteAndHackathon(int utenteId, int hackathonId) {
-        // TODO: Implementare query per trovare registrazione specifica utente-hackathon
-        String sql = "SELECT * FROM registrazione WHERE utente_id = ? AND hackathon_id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, utenteId);
-            pstmt.setInt(2, hackathonId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return mapResultSetToRegistrazione(rs);
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return null;
+        String sql = "SELECT " + COLONNE + " FROM registrazione WHERE utente_id = ? AND hackathon_id = ?";
+        return sqlTemplate.queryForObject(sql, REGISTRAZIONE_MAPPER, utenteId, hackathonId);
     }
 
     @Override
     public List<Registrazione> findConfermateByHackathon(int hackathonId) {
-        // TODO: Implementare query per trovare registrazioni confermate di un hackathon
-        String sql = "SELECT * FROM registrazione WHERE hackathon_id = ? AND confermata = true " +
+        String sql = "SELECT " + COLONNE + " FROM registrazione WHERE hackathon_id = ? AND confermata = true " +
                     "ORDER BY data_registrazione DESC";
-        List<Registrazione> registrazioni = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, hackathonId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                registrazioni.add(mapResultSetToRegistrazione(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return registrazioni;
+        return sqlTemplate.queryForList(sql, REGISTRAZIONE_MAPPER, hackathonId);
     }
 
     @Override
     public List<Registrazione> findNonConfermateByHackathon(int hackathonId) {
-        // TODO: Implementare query per trovare registrazioni non confermate di un hackathon
-        String sql = "SELECT * FROM registrazione WHERE hackathon_id = ? AND confermata = false " +
+        String sql = "SELECT " + COLONNE + " FROM registrazione WHERE hackathon_id = ? AND confermata = false " +
                     "ORDER BY data_registrazione DESC";
-        List<Registrazione> registrazioni = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, hackathonId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                registrazioni.add(mapResultSetToRegistrazione(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return registrazioni;
+        return sqlTemplate.queryForList(sql, REGISTRAZIONE_MAPPER, hackathonId);
     }
 
     @Override
     public List<Registrazione> findByHackathonAndRuolo(int hackathonId, Registrazione.Ruolo ruolo) {
-        // TODO: Implementare query per trovare registrazioni per ruolo in un hackathon
-        String sql = "SELECT * FROM registrazione WHERE hackathon_id = ? AND ruolo = ? " +
+        String sql = "SELECT " + COLONNE + " FROM registrazione WHERE hackathon_id = ? AND ruolo = ? " +
                     "ORDER BY data_registrazione DESC";
-        List<Registrazione> registrazioni = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, hackathonId);
-            pstmt.setString(2, ruolo.name());
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                registrazioni.add(mapResultSetToRegistrazione(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return registrazioni;
+        return sqlTemplate.queryForList(sql, REGISTRAZIONE_MAPPER, hackathonId, ruolo);
     }
 
     @Override
@@ -306,154 +275,37 @@ public class RegistrazionePostgresDAO implements RegistrazioneDAO {
 
     @Override
     public boolean confermaRegistrazione(int registrazioneId) {
-        // TODO: Implementare query per confermare una registrazione
         String sql = "UPDATE registrazione SET confermata = true WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, registrazioneId);
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-        }
-        return false;
+        return sqlTemplate.update(sql, registrazioneId) > 0;
     }
 
     @Override
     public boolean isRegistrato(int utenteId, int hackathonId) {
-        // TODO: Implementare query per verificare se utente è registrato
-        String sql = "SELECT COUNT(*) as count FROM registrazione WHERE utente_id = ? AND hackathon_id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, utenteId);
-            pstmt.setInt(2, hackathonId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("count") > 0;
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
+        String sql = "SELECT 1 FROM registrazione WHERE utente_id = ? AND hackathon_id = ?";
+        return sqlTemplate.exists(sql, utenteId, hackathonId);
     }
 
     @Override
     public boolean isConfermato(int utenteId, int hackathonId) {
-        // TODO: Implementare query per verificare se utente è confermato
-        String sql = "SELECT COUNT(*) as count FROM registrazione WHERE utente_id = ? AND hackathon_id = ? AND confermata = true";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, utenteId);
-            pstmt.setInt(2, hackathonId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("count") > 0;
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
+        String sql = "SELECT 1 FROM registrazione WHERE utente_id = ? AND hackathon_id = ? AND confermata = true";
+        return sqlTemplate.exists(sql, utenteId, hackathonId);
     }
 
     @Override
     public int contaRegistrazioni(int hackathonId) {
-        // TODO: Implementare query per contare registrazioni di un hackathon
-        String sql = "SELECT COUNT(*) as count FROM registrazione WHERE hackathon_id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, hackathonId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("count");
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return 0;
+        String sql = "SELECT COUNT(*) FROM registrazione WHERE hackathon_id = ?";
+        return sqlTemplate.queryForInt(sql, hackathonId);
     }
 
     @Override
     public int contaRegistrazioniConfermate(int hackathonId) {
-        // TODO: Implementare query per contare registrazioni confermate di un hackathon
-        String sql = "SELECT COUNT(*) as count FROM registrazione WHERE hackathon_id = ? AND confermata = true";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, hackathonId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("count");
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return 0;
+        String sql = "SELECT COUNT(*) FROM registrazione WHERE hackathon_id = ? AND confermata = true";
+        return sqlTemplate.queryForInt(sql, hackathonId);
     }
 
     @Override
     public int contaRegistrazioniPerRuolo(int hackathonId, Registrazione.Ruolo ruolo) {
-        // TODO: Implementare query per contare registrazioni per ruolo in un hackathon
-        String sql = "SELECT COUNT(*) as count FROM registrazione WHERE hackathon_id = ? AND ruolo = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, hackathonId);
-            pstmt.setString(2, ruolo.name());
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("count");
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return 0;
-    }
-
-    /**
-     * Mappa un ResultSet in un oggetto Registrazione
-     *
-     * @param rs il ResultSet da mappare
-     * @return l'oggetto Registrazione mappato
-     * @throws SQLException se si verifica un errore durante la lettura
-     */
-    private Registrazione mapResultSetToRegistrazione(ResultSet rs) throws SQLException {
-        Registrazione registrazione = new Registrazione(
-            rs.getInt("utente_id"),
-            rs.getInt("hackathon_id"),
-            Registrazione.Ruolo.valueOf(rs.getString("ruolo"))
-        );
-        
-        registrazione.setId(rs.getInt("id"));
-        registrazione.setDataRegistrazione(rs.getTimestamp("data_registrazione").toLocalDateTime());
-        registrazione.setConfermata(rs.getBoolean("confermata"));
-        
-        return registrazione;
+        String sql = "SELECT COUNT(*) FROM registrazione WHERE hackathon_id = ? AND ruolo = ?";
+        return sqlTemplate.queryForInt(sql, hackathonId, ruolo);
     }
-} 
\ No newline at end of file
+}
@@ -1,604 +1,428 @@
 package implementazionePostgresDAO;
 
 import dao.TeamDAO;
+import dao.Page;
 import database.ConnectionManager;
+import database.RowMapper;
+import database.SqlTemplate;
 import model.Team;
 import model.RichiestaJoin;
+import model.EsitoRichiestaJoin;
 
-import java.sql.*;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementazione PostgreSQL dell'interfaccia TeamDAO.
  * Gestisce tutte le operazioni CRUD e specifiche per i team.
  */
 public class TeamPostgresDAO implements TeamDAO {
-    
-    private final ConnectionManager connectionManager;
-    
+
+    /**
+     * Colonne lette da {@link #TEAM_MAPPER}, nell'ordine in cui vengono mappate
+     */
+    static final String COLONNE = "id, nome, hackathon_id, capo_team_id, dimensione_massima, versione";
+
+    /**
+     * Le stesse colonne di {@link #COLONNE} qualificate con l'alias "t"
+     */
+    static final String COLONNE_T = "t.id, t.nome, t.hackathon_id, t.capo_team_id, t.dimensione_massima, t.versione";
+
+    /**
+     * Posti occupati in un team: i membri in team_members, escluso il capo, più il capo stesso
+     */
+    static final String POSTI_OCCUPATI = "(num_membri + (capo_team_id IS NOT NULL)::int)";
+
+    /**
+     * Colonne lette da {@link #RICHIESTA_MAPPER}, nell'ordine in cui vengono mappate
+     */
+    static final String COLONNE_RICHIESTA = "id, utente_id, team_id, messaggio_motivazionale, data_richiesta, stato";
+
+    /**
+     * Mappa una riga selezionata con {@link #COLONNE} in un oggetto Team
+     */
+    static final RowMapper<Team> TEAM_MAPPER = rs -> {
+        Team team = new Team(
+            rs.getString(2),
+            rs.getInt(3),
+            rs.getInt(4),
+            rs.getInt(5)
+        );
+
+        team.setId(rs.getInt(1));
+        team.setVersione(rs.getInt(6));
+        team.pulisciModifiche();
+        return team;
+    };
+
+    /**
+     * Mappa una riga selezionata con {@link #COLONNE_RICHIESTA} in un oggetto RichiestaJoin
+     */
+    static final RowMapper<RichiestaJoin> RICHIESTA_MAPPER = rs -> {
+        RichiestaJoin richiesta = new RichiestaJoin(
+            rs.getInt(2),
+            rs.getInt(3),
+            rs.getString(4)
+        );
+
+        richiesta.setId(rs.getInt(1));
+        richiesta.setDataRichiesta(rs.getTimestamp(5).toLocalDateTime());
+        richiesta.setStato(RichiestaJoin.StatoRichiesta.valueOf(rs.getString(6)));
+
+        return richiesta;
+    };
+
     /**
-     * Costruttore che inizializza il connection manager
+     * Team con membri e richieste in attesa: le subquery LATERAL aggregano
+     * team_members e richiesta_join per ciascun team senza moltiplicare le righe
+     */
+    static final String SELECT_CON_MEMBRI = "SELECT " + COLONNE_T + ", m.membri, r.in_attesa FROM team t " +
+            "CROSS JOIN LATERAL (SELECT array_agg(tm.utente_id ORDER BY tm.joined_at, tm.utente_id) AS membri " +
+            "FROM team_members tm WHERE tm.team_id = t.id) m " +
+            "CROSS JOIN LATERAL (SELECT COUNT(*) AS in_attesa FROM richiesta_join rj " +
+            "WHERE rj.team_id = t.id AND rj.stato = 'IN_ATTESA') r ";
+
+    /**
+     * Mappa una riga selezionata con {@link #SELECT_CON_MEMBRI} in un Team con i membri popolati.
+     * Il capo team resta sempre il primo membro, come nel costruttore di Team.
+     */
+    static final RowMapper<Team> TEAM_CON_MEMBRI_MAPPER = rs -> {
+        Team team = TEAM_MAPPER.mapRow(rs);
+
+        List<Integer> membri = new ArrayList<>();
+        membri.add(team.getCapoTeamId());
+        Array array = rs.getArray(7);
+        if (array != null) {
+            for (Integer utenteId : (Integer[]) array.getArray()) {
+                if (utenteId != team.getCapoTeamId()) {
+                    membri.add(utenteId);
+                }
+            }
+            array.free();
+        }
+        team.setMembriId(membri);
+        team.setRichiesteInAttesa(rs.getInt(8));
+
+        return team;
+    };
+
+    private final SqlTemplate sqlTemplate;
+
+    /**
+     * Costruttore che inizializza il template SQL
      */
     public TeamPostgresDAO() {
-        this.connectionManager = ConnectionManager.getInstance();
+        this.sqlTemplate = new SqlTemplate();
     }
 
     @Override
     public int insert(Team team) {
-        // TODO: Implementare query INSERT per inserire un nuovo team
         String sql = "INSERT INTO team (nome, hackathon_id, capo_team_id, dimensione_massima) " +
                     "VALUES (?, ?, ?, ?) RETURNING id";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, team.getNome());
-            pstmt.setInt(2, team.getHackathonId());
-            pstmt.setInt(3, team.getCapoTeamId());
-            pstmt.setInt(4, team.getDimensioneMassima());
-            
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int id = rs.getInt("id");
-                team.setId(id);
-                connectionManager.commit();
-                return id;
-            }
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
+
+        int id = sqlTemplate.insertReturningId(sql,
+                team.getNome(),
+                team.getHackathonId(),
+                team.getCapoTeamId(),
+                team.getDimensioneMassima());
+        if (id > 0) {
+            team.setId(id);
+            team.pulisciModifiche();
         }
-        return -1;
+        return id;
     }
 
     @Override
     public boolean update(Team team) {
-        // TODO: Implementare query UPDATE per aggiornare un team esistente
-        String sql = "UPDATE team SET nome = ?, hackathon_id = ?, capo_team_id = ?, " +
-                    "dimensione_massima = ? WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, team.getNome());
-            pstmt.setInt(2, team.getHackathonId());
-            pstmt.setInt(3, team.getCapoTeamId());
-            pstmt.setInt(4, team.getDimensioneMassima());
-            pstmt.setInt(5, team.getId());
-            
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
+        if (team.getCampiModificati().isEmpty()) {
+            return true; // Nessuna modifica da scrivere
+        }
+
+        Map<String, Object> valori = new LinkedHashMap<>();
+        for (String campo : team.getCampiModificati()) {
+            switch (campo) {
+                case "nome": valori.put("nome", team.getNome()); break;
+                case "hackathonId": valori.put("hackathon_id", team.getHackathonId()); break;
+                case "capoTeamId": valori.put("capo_team_id", team.getCapoTeamId()); break;
+                case "dimensioneMassima": valori.put("dimensione_massima", team.getDimensioneMassima()); break;
+                default: throw new IllegalStateException("Campo non gestito: " + campo);
             }
-            e.printStackTrace();
         }
-        return false;
+
+        int versione = sqlTemplate.updateColonneVersionate("team", valori, team.getId(), team.getVersione());
+        if (versione < 0) {
+            return false;
+        }
+        team.setVersione(versione);
+        team.pulisciModifiche();
+        return true;
     }
 
     @Override
     public boolean delete(int id) {
-        // TODO: Implementare query DELETE per eliminare un team
         String sql = "DELETE FROM team WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-        }
-        return false;
+        return sqlTemplate.update(sql, id) > 0;
     }
 
     @Override
     public Team findById(int id) {
-        // TODO: Implementare query SELECT per trovare un team per ID
-        String sql = "SELECT * FROM team WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return mapResultSetToTeam(rs);
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return null;
+        String sql = "SELECT " + COLONNE + " FROM team WHERE id = ?";
+        return sqlTemplate.queryForObject(sql, TEAM_MAPPER, id);
+    }
+
+    @Override
+    public Team findByIdWithMembri(int id) {
+        String sql = SELECT_CON_MEMBRI + "WHERE t.id = ?";
+        return sqlTemplate.queryForObject(sql, TEAM_CON_MEMBRI_MAPPER, id);
     }
 
     @Override
     public List<Team> findAll() {
-        // TODO: Implementare query SELECT per trovare tutti i team
-        String sql = "SELECT * FROM team ORDER BY nome";
-        List<Team> teams = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
-            
-            while (rs.next()) {
-                teams.add(mapResultSetToTeam(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
+        String sql = "SELECT " + COLONNE + " FROM team ORDER BY nome";
+        return sqlTemplate.queryForList(sql, TEAM_MAPPER);
+    }
+
+    @Override
+    public Page<Team> findAll(String cursore, int dimensione) {
+        Page.verificaDimensione(dimensione);
+        List<Team> righe;
+        if (cursore == null) {
+            String sql = "SELECT " + COLONNE + " FROM team ORDER BY nome, id LIMIT ?";
+            righe = sqlTemplate.queryForList(sql, TEAM_MAPPER, dimensione + 1);
+        } else {
+            String[] chiave = Page.leggiCursore(cursore, 2);
+            String sql = "SELECT " + COLONNE + " FROM team WHERE (nome, id) > (?, ?) " +
+                        "ORDER BY nome, id LIMIT ?";
+            righe = sqlTemplate.queryForList(sql, TEAM_MAPPER,
+                    chiave[0], Integer.parseInt(chiave[1]), dimensione + 1);
         }
-        return teams;
+        return Page.da(righe, dimensione, t -> new Object[] {t.getNome(), t.getId()});
     }
 
     @Override
     public List<Team> findByHackathon(int hackathonId) {
-        // TODO: Implementare query per trovare team per hackathon
-        String sql = "SELECT * FROM team WHERE hackathon_id = ? ORDER BY nome";
-        List<Team> teams = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, hackathonId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                teams.add(mapResultSetToTeam(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return teams;
+        String sql = "SELECT " + COLONNE + " FROM team WHERE hackathon_id = ? ORDER BY nome";
+        return sqlTemplate.queryForList(sql, TEAM_MAPPER, hackathonId);
+    }
+
+    @Override
+    public List<Team> findByHackathonWithMembri(int hackathonId) {
+        String sql = SELECT_CON_MEMBRI + "WHERE t.hackathon_id = ? ORDER BY t.nome";
+        return sqlTemplate.queryForList(sql, TEAM_CON_MEMBRI_MAPPER, hackathonId);
     }
 
     @Override
     public List<Team> findByMembro(int utenteId) {
-        // TODO: Implementare query per trovare team di cui un utente è membro
-        String sql = "SELECT t.* FROM team t " +
-                    "JOIN team_membro tm ON t.id = tm.team_id " +
+        String sql = "SELECT " + COLONNE_T + " FROM team t " +
+                    "JOIN team_members tm ON t.id = tm.team_id " +
                     "WHERE tm.utente_id = ? ORDER BY t.nome";
-        List<Team> teams = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, utenteId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                teams.add(mapResultSetToTeam(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return teams;
+        return sqlTemplate.queryForList(sql, TEAM_MAPPER, utenteId);
     }
 
     @Override
     public List<Team> findByCapoTeam(int capoTeamId) {
-        // TODO: Implementare query per trovare team di cui un utente è capo
-        String sql = "SELECT * FROM team WHERE capo_team_id = ? ORDER BY nome";
-        List<Team> teams = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, capoTeamId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                teams.add(mapResultSetToTeam(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return teams;
+        String sql = "SELECT " + COLONNE + " FROM team WHERE capo_team_id = ? ORDER BY nome";
+        return sqlTemplate.queryForList(sql, TEAM_MAPPER, capoTeamId);
     }
 
     @Override
     public boolean aggiungiMembro(int teamId, int utenteId) {
-        // TODO: Implementare query per aggiungere membro al team
-        String sql = "INSERT INTO team_membro (team_id, utente_id) VALUES (?, ?)";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, teamId);
-            pstmt.setInt(2, utenteId);
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
+        String sql = "INSERT INTO team_members (team_id, utente_id) VALUES (?, ?)";
+        return sqlTemplate.update(sql, teamId, utenteId) > 0;
+    }
+
+    @Override
+    public int aggiungiMembri(int teamId, List<Integer> utentiIds) {
+        String sql = "INSERT INTO team_members (team_id, utente_id) VALUES (?, ?)";
+
+        List<Object[]> righe = new ArrayList<>(utentiIds.size());
+        for (Integer utenteId : utentiIds) {
+            righe.add(new Object[] {teamId, utenteId});
         }
-        return false;
+        return sqlTemplate.batchUpdate(sql, righe);
     }
 
     @Override
     public boolean rimuoviMembro(int teamId, int utenteId) {
-        // TODO: Implementare query per rimuovere membro dal team
-        String sql = "DELETE FROM team_membro WHERE team_id = ? AND utente_id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, teamId);
-            pstmt.setInt(2, utenteId);
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-        }
-        return false;
+        String sql = "DELETE FROM team_members WHERE team_id = ? AND utente_id = ?";
+        return sqlTemplate.update(sql, teamId, utenteId) > 0;
     }
 
     @Override
     public boolean isMembro(int teamId, int utenteId) {
-        // TODO: Implementare query per verificare se utente è membro del team
-        String sql = "SELECT COUNT(*) as count FROM team_membro WHERE team_id = ? AND utente_id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, teamId);
-            pstmt.setInt(2, utenteId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("count") > 0;
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
+        String sql = "SELECT 1 FROM team_members WHERE team_id = ? AND utente_id = ?";
+        return sqlTemplate.exists(sql, teamId, utenteId);
     }
 
     @Override
     public boolean isCapoTeam(int teamId, int utenteId) {
-        // TODO: Implementare query per verificare se utente è capo del team
-        String sql = "SELECT COUNT(*) as count FROM team WHERE id = ? AND capo_team_id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, teamId);
-            pstmt.setInt(2, utenteId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("count") > 0;
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
+        String sql = "SELECT 1 FROM team WHERE id = ? AND capo_team_id = ?";
+        return sqlTemplate.exists(sql, teamId, utenteId);
     }
 
     @Override
     public boolean haSpazioDisponibile(int teamId) {
-        // TODO: Implementare query per verificare spazio disponibile nel team
-        String sql = "SELECT t.dimensione_massima, COUNT(tm.utente_id) as membri " +
-                    "FROM team t LEFT JOIN team_membro tm ON t.id = tm.team_id " +
-                    "WHERE t.id = ? GROUP BY t.dimensione_massima";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, teamId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                int dimensioneMassima = rs.getInt("dimensione_massima");
-                int membri = rs.getInt("membri");
-                return membri < dimensioneMassima;
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
+        String sql = "SELECT " + POSTI_OCCUPATI + " < dimensione_massima FROM team WHERE id = ?";
+        return Boolean.TRUE.equals(sqlTemplate.queryForObject(sql, rs -> rs.getBoolean(1), teamId));
     }
 
     @Override
     public int contaMembri(int teamId) {
-        // TODO: Implementare query per contare membri del team
-        String sql = "SELECT COUNT(*) as membri FROM team_membro WHERE team_id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, teamId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("membri");
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return 0;
+        String sql = "SELECT " + POSTI_OCCUPATI + " FROM team WHERE id = ?";
+        return sqlTemplate.queryForInt(sql, teamId);
     }
 
     @Override
     public List<Integer> findMembri(int teamId) {
-        // TODO: Implementare query per trovare membri del team
-        String sql = "SELECT utente_id FROM team_membro WHERE team_id = ?";
-        List<Integer> membri = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, teamId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                membri.add(rs.getInt("utente_id"));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return membri;
+        String sql = "SELECT utente_id FROM team_members WHERE team_id = ?";
+        return sqlTemplate.queryForList(sql, rs -> rs.getInt(1), teamId);
     }
 
     @Override
     public int insertRichiestaJoin(RichiestaJoin richiesta) {
-        // TODO: Implementare query INSERT per inserire richiesta di join
         String sql = "INSERT INTO richiesta_join (utente_id, team_id, messaggio_motivazionale, " +
                     "data_richiesta, stato) VALUES (?, ?, ?, ?, ?) RETURNING id";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, richiesta.getUtenteId());
-            pstmt.setInt(2, richiesta.getTeamId());
-            pstmt.setString(3, richiesta.getMessaggioMotivazionale());
-            pstmt.setTimestamp(4, Timestamp.valueOf(richiesta.getDataRichiesta()));
-            pstmt.setString(5, richiesta.getStato().name());
-            
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int id = rs.getInt("id");
-                richiesta.setId(id);
-                connectionManager.commit();
-                return id;
-            }
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
+
+        int id = sqlTemplate.insertReturningId(sql,
+                richiesta.getUtenteId(),
+                richiesta.getTeamId(),
+                richiesta.getMessaggioMotivazionale(),
+                richiesta.getDataRichiesta(),
+                richiesta.getStato());
+        if (id > 0) {
+            richiesta.setId(id);
         }
-        return -1;
+        return id;
     }
 
     @Override
     public boolean updateRichiestaJoin(RichiestaJoin richiesta) {
-        // TODO: Implementare query UPDATE per aggiornare richiesta di join
         String sql = "UPDATE richiesta_join SET utente_id = ?, team_id = ?, " +
                     "messaggio_motivazionale = ?, data_richiesta = ?, stato = ? WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, richiesta.getUtenteId());
-            pstmt.setInt(2, richiesta.getTeamId());
-            pstmt.setString(3, richiesta.getMessaggioMotivazionale());
-            pstmt.setTimestamp(4, Timestamp.valueOf(richiesta.getDataRichiesta()));
-            pstmt.setString(5, richiesta.getStato().name());
-            pstmt.setInt(6, richiesta.getId());
-            
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-        }
-        return false;
+
+        return sqlTemplate.update(sql,
+                richiesta.getUtenteId(),
+                richiesta.getTeamId(),
+                richiesta.getMessaggioMotivazionale(),
+                richiesta.getDataRichiesta(),
+                richiesta.getStato(),
+                richiesta.getId()) > 0;
     }
 
     @Override
     public List<RichiestaJoin> findRichiesteJoin(int teamId) {
-        // TODO: Implementare query per trovare richieste di join per team
-        String sql = "SELECT * FROM richiesta_join WHERE team_id = ? ORDER BY data_richiesta DESC";
-        List<RichiestaJoin> richieste = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, teamId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                richieste.add(mapResultSetToRichiestaJoin(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return richieste;
+        String sql = "SELECT " + COLONNE_RICHIESTA + " FROM richiesta_join WHERE team_id = ? " +
+                    "ORDER BY data_richiesta DESC";
+        return sqlTemplate.queryForList(sql, RICHIESTA_MAPPER, teamId);
     }
 
     @Override
     public List<RichiestaJoin> findRichiesteJoinInAttesa(int teamId) {
-        // TODO: Implementare query per trovare richieste di join in attesa
-        String sql = "SELECT * FROM richiesta_join WHERE team_id = ? AND stato = 'IN_ATTESA' " +
+        String sql = "SELECT " + COLONNE_RICHIESTA + " FROM richiesta_join WHERE team_id = ? AND stato = 'IN_ATTESA' " +
                     "ORDER BY data_richiesta DESC";
-        List<RichiestaJoin> richieste = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, teamId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                richieste.add(mapResultSetToRichiestaJoin(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return richieste;
+        return sqlTemplate.queryForList(sql, RICHIESTA_MAPPER, teamId);
     }
 
     @Override
     public List<RichiestaJoin> findRichiesteJoinByUtente(int utenteId) {
-        // TODO: Implementare query per trovare richieste di join di un utente
-        String sql = "SELECT * FROM richiesta_join WHERE utente_id = ? ORDER BY data_richiesta DESC";
-        List<RichiestaJoin> richieste = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, utenteId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                richieste.add(mapResultSetToRichiestaJoin(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return richieste;
+        String sql = "SELECT " + COLONNE_RICHIESTA + " FROM richiesta_join WHERE utente_id = ? " +
+                    "ORDER BY data_richiesta DESC";
+        return sqlTemplate.queryForList(sql, RICHIESTA_MAPPER, utenteId);
     }
 
     @Override
-    public boolean accettaRichiestaJoin(int richiestaId) {
-        // TODO: Implementare query per accettare richiesta di join
-        String sql = "UPDATE richiesta_join SET stato = 'ACCETTATA' WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, richiestaId);
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-        }
-        return false;
+    public boolean accettaRichiestaJoin(int richiestaId, int capoTeamId) {
+        return accettaRichiestaJoinConEsito(richiestaId, capoTeamId) == EsitoRichiestaJoin.OK;
     }
 
     @Override
-    public boolean rifiutaRichiestaJoin(int richiestaId) {
-        // TODO: Implementare query per rifiutare richiesta di join
-        String sql = "UPDATE richiesta_join SET stato = 'RIFIUTATA' WHERE id = ?";
-        
+    public EsitoRichiestaJoin accettaRichiestaJoinConEsito(int richiestaId, int capoTeamId) {
+        // Tre istruzioni in un solo round trip. Le prime due bloccano la riga del team,
+        // che serializza le accettazioni verso lo stesso team, e le richieste in attesa
+        // dell'utente, così due capi team non possono accettarlo contemporaneamente.
+        // La terza, con uno snapshot preso dopo i lock, fa tutto il resto.
+        // Solo il capo del team può accettare: per gli altri nessuna riga viene bloccata o modificata.
+        // I posti occupati sono quelli di haSpazioDisponibile: il capo team non è in
+        // team_members ma occupa un posto, come in Team. Un utente che nel frattempo guida
+        // o è entrato in un altro team dello stesso hackathon non viene ammesso.
+        String sql = "SELECT 1 FROM team WHERE id = (SELECT team_id FROM richiesta_join WHERE id = ?) " +
+                    "AND capo_team_id = ? FOR UPDATE; " +
+                    "SELECT 1 FROM richiesta_join WHERE stato = 'IN_ATTESA' " +
+                    "AND utente_id = (SELECT utente_id FROM richiesta_join WHERE id = ?) " +
+                    "AND EXISTS (SELECT 1 FROM richiesta_join r JOIN team t ON t.id = r.team_id " +
+                    "WHERE r.id = ? AND t.capo_team_id = ?) FOR UPDATE; " +
+                    "WITH rj AS (SELECT id, utente_id, team_id, stato FROM richiesta_join WHERE id = ?), " +
+                    "t AS (SELECT t.id, t.hackathon_id, t.dimensione_massima, " +
+                    POSTI_OCCUPATI + " AS occupati, coalesce(t.capo_team_id = ?, false) AS autorizzato, " +
+                    "EXISTS (SELECT 1 FROM team a WHERE a.hackathon_id = t.hackathon_id AND a.id <> t.id " +
+                    "AND (a.capo_team_id = rj.utente_id OR EXISTS (SELECT 1 FROM team_members tm " +
+                    "WHERE tm.team_id = a.id AND tm.utente_id = rj.utente_id))) AS gia_in_team " +
+                    "FROM team t JOIN rj ON rj.team_id = t.id), " +
+                    "ammessa AS (SELECT rj.id, rj.utente_id, t.id AS team_id, t.hackathon_id FROM rj, t " +
+                    "WHERE t.autorizzato AND rj.stato = 'IN_ATTESA' AND NOT t.gia_in_team " +
+                    "AND t.occupati < t.dimensione_massima), " +
+                    "membro AS (INSERT INTO team_members (team_id, utente_id) " +
+                    "SELECT team_id, utente_id FROM ammessa ON CONFLICT DO NOTHING), " +
+                    "accettata AS (UPDATE richiesta_join SET stato = 'ACCETTATA' " +
+                    "WHERE id IN (SELECT id FROM ammessa)), " +
+                    "rifiutate AS (UPDATE richiesta_join r SET stato = 'RIFIUTATA' FROM ammessa a " +
+                    "WHERE r.utente_id = a.utente_id AND r.id <> a.id AND r.stato = 'IN_ATTESA' " +
+                    "AND r.team_id IN (SELECT id FROM team WHERE hackathon_id = a.hackathon_id)) " +
+                    "SELECT rj.stato, t.occupati < t.dimensione_massima, t.autorizzato, t.gia_in_team " +
+                    "FROM rj JOIN t ON true";
+
+        ConnectionManager connectionManager = sqlTemplate.getConnectionManager();
         try (Connection conn = connectionManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, richiestaId);
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
+
+            SqlTemplate.imposta(pstmt, richiestaId, capoTeamId, richiestaId, richiestaId, capoTeamId,
+                    richiestaId, capoTeamId);
+
+            pstmt.execute();
+            // I primi due risultati sono i SELECT ... FOR UPDATE, l'esito è nel terzo
+            if (!pstmt.getMoreResults() || !pstmt.getMoreResults()) {
                 connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
+                return EsitoRichiestaJoin.ERRORE;
+            }
+
+            EsitoRichiestaJoin esito;
+            try (ResultSet rs = pstmt.getResultSet()) {
+                if (!rs.next()) {
+                    esito = EsitoRichiestaJoin.NON_TROVATA;
+                } else if (!rs.getBoolean(3)) {
+                    esito = EsitoRichiestaJoin.NON_AUTORIZZATO;
+                } else if (!RichiestaJoin.StatoRichiesta.IN_ATTESA.name().equals(rs.getString(1))) {
+                    esito = EsitoRichiestaJoin.NON_IN_ATTESA;
+                } else if (rs.getBoolean(4)) {
+                    esito = EsitoRichiestaJoin.GIA_IN_TEAM;
+                } else if (!rs.getBoolean(2)) {
+                    esito = EsitoRichiestaJoin.TEAM_COMPLETO;
+                } else {
+                    esito = EsitoRichiestaJoin.OK;
+                }
             }
+            connectionManager.commit();
+            return esito;
+
+        } catch (SQLException e) {
+            sqlTemplate.rollback();
             e.printStackTrace();
         }
-        return false;
+        return EsitoRichiestaJoin.ERRORE;
     }
 
-    /**
-     * Mappa un ResultSet in un oggetto Team
-     *
-     * @param rs il ResultSet da mappare
-     * @return l'oggetto Team mappato
-     * @throws SQLException se si verifica un errore durante la lettura
-     */
-    private Team mapResultSetToTeam(ResultSet rs) throws SQLException {
-        Team team = new Team(
-            rs.getString("nome"),
-            rs.getInt("hackathon_id"),
-            rs.getInt("capo_team_id"),
-            rs.getInt("dimensione_massima")
-        );
-        
-        team.setId(rs.getInt("id"));
-        return team;
-    }
-
-    /**
-     * Mappa un ResultSet in un oggetto RichiestaJoin
-     *
-     * @param rs il ResultSet da mappare
-     * @return l'oggetto RichiestaJoin mappato
-     * @throws SQLException se si verifica un errore durante la lettura
-     */
-    private RichiestaJoin mapResultSetToRichiestaJoin(ResultSet rs) throws SQLException {
-        RichiestaJoin richiesta = new RichiestaJoin(
-            rs.getInt("utente_id"),
-            rs.getInt("team_id"),
-            rs.getString("messaggio_motivazionale")
-        );
-        
-        richiesta.setId(rs.getInt("id"));
-        richiesta.setDataRichiesta(rs.getTimestamp("data_richiesta").toLocalDateTime());
-        richiesta.setStato(RichiestaJoin.StatoRichiesta.valueOf(rs.getString("stato")));
-        
-        return richiesta;
+    @Override
+    public boolean rifiutaRichiestaJoin(int richiestaId, int capoTeamId) {
+        // Una richiesta già accettata non può più essere rifiutata: l'utente resta nel team
+        String sql = "UPDATE richiesta_join r SET stato = 'RIFIUTATA' FROM team t " +
+                    "WHERE r.id = ? AND r.stato = 'IN_ATTESA' AND t.id = r.team_id AND t.capo_team_id = ?";
+        return sqlTemplate.update(sql, richiestaId, capoTeamId) > 0;
     }
-} 
\ No newline at end of file
+}
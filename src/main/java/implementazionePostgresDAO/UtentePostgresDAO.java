@@ -1,374 +1,234 @@
 package implementazionePostgresDAO;
 
 import dao.UtenteDAO;
-import database.ConnectionManager;
+import dao.Page;
+import database.RowMapper;
+import database.SqlTemplate;
 import model.Utente;
 
-import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementazione PostgreSQL dell'interfaccia UtenteDAO.
  * Gestisce tutte le operazioni CRUD e specifiche per gli utenti.
  */
 public class UtentePostgresDAO implements UtenteDAO {
-    
-    private final ConnectionManager connectionManager;
-    
+
+    /**
+     * Colonne lette da {@link #UTENTE_MAPPER}, nell'ordine in cui vengono mappate
+     */
+    static final String COLONNE = "id, login, password, nome, cognome, email, ruolo";
+
     /**
-     * Costruttore che inizializza il connection manager
+     * Mappa una riga selezionata con {@link #COLONNE} in un oggetto Utente
+     */
+    static final RowMapper<Utente> UTENTE_MAPPER = rs -> {
+        Utente utente = new Utente(
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getString(6),
+            rs.getString(7)
+        );
+        utente.setId(rs.getInt(1));
+        utente.pulisciModifiche();
+        return utente;
+    };
+
+    private final SqlTemplate sqlTemplate;
+
+    /**
+     * Costruttore che inizializza il template SQL
      */
     public UtentePostgresDAO() {
-        this.connectionManager = ConnectionManager.getInstance();
+        this.sqlTemplate = new SqlTemplate();
     }
 
     @Override
     public int insert(Utente utente) {
-        // TODO: Implementare query INSERT per inserire un nuovo utente
         String sql = "INSERT INTO utente (login, password, nome, cognome, email, ruolo) " +
                     "VALUES (?, ?, ?, ?, ?, ?) RETURNING id";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, utente.getLogin());
-            pstmt.setString(2, utente.getPassword());
-            pstmt.setString(3, utente.getNome());
-            pstmt.setString(4, utente.getCognome());
-            pstmt.setString(5, utente.getEmail());
-            pstmt.setString(6, utente.getRuolo());
-            
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int id = rs.getInt("id");
-                utente.setId(id);
-                connectionManager.commit();
-                return id;
-            }
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
+
+        int id = sqlTemplate.insertReturningId(sql,
+                utente.getLogin(),
+                utente.getPassword(),
+                utente.getNome(),
+                utente.getCognome(),
+                utente.getEmail(),
+                utente.getRuolo());
+        if (id > 0) {
+            utente.setId(id);
+            utente.pulisciModifiche();
+        }
+        return id;
+    }
+
+    @Override
+    public List<Integer> insertAll(List<Utente> utenti) {
+        String sql = "INSERT INTO utente (login, password, nome, cognome, email, ruolo) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+
+        List<Object[]> righe = new ArrayList<>(utenti.size());
+        for (Utente utente : utenti) {
+            righe.add(new Object[] {
+                utente.getLogin(),
+                utente.getPassword(),
+                utente.getNome(),
+                utente.getCognome(),
+                utente.getEmail(),
+                utente.getRuolo()
+            });
         }
-        return -1;
+
+        List<Integer> ids = sqlTemplate.batchInsertReturningIds(sql, righe);
+        for (int i = 0; i < ids.size(); i++) {
+            utenti.get(i).setId(ids.get(i));
+            utenti.get(i).pulisciModifiche();
+        }
+        return ids;
     }
 
     @Override
     public boolean update(Utente utente) {
-        // TODO: Implementare query UPDATE per aggiornare un utente esistente
-        String sql = "UPDATE utente SET login = ?, password = ?, nome = ?, cognome = ?, " +
-                    "email = ?, ruolo = ? WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, utente.getLogin());
-            pstmt.setString(2, utente.getPassword());
-            pstmt.setString(3, utente.getNome());
-            pstmt.setString(4, utente.getCognome());
-            pstmt.setString(5, utente.getEmail());
-            pstmt.setString(6, utente.getRuolo());
-            pstmt.setInt(7, utente.getId());
-            
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
+        if (utente.getCampiModificati().isEmpty()) {
+            return true; // Nessuna modifica da scrivere
+        }
+
+        Map<String, Object> valori = new LinkedHashMap<>();
+        for (String campo : utente.getCampiModificati()) {
+            switch (campo) {
+                case "login": valori.put("login", utente.getLogin()); break;
+                case "password": valori.put("password", utente.getPassword()); break;
+                case "nome": valori.put("nome", utente.getNome()); break;
+                case "cognome": valori.put("cognome", utente.getCognome()); break;
+                case "email": valori.put("email", utente.getEmail()); break;
+                case "ruolo": valori.put("ruolo", utente.getRuolo()); break;
+                default: throw new IllegalStateException("Campo non gestito: " + campo);
             }
-            e.printStackTrace();
         }
-        return false;
+
+        boolean aggiornato = sqlTemplate.updateColonne("utente", valori, utente.getId()) > 0;
+        if (aggiornato) {
+            utente.pulisciModifiche();
+        }
+        return aggiornato;
     }
 
     @Override
     public boolean delete(int id) {
-        // TODO: Implementare query DELETE per eliminare un utente
         String sql = "DELETE FROM utente WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-        }
-        return false;
+        return sqlTemplate.update(sql, id) > 0;
     }
 
     @Override
     public Utente findById(int id) {
-        // TODO: Implementare query SELECT per trovare un utente per ID
-        String sql = "SELECT * FROM utente WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return mapResultSetToUtente(rs);
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
+        String sql = "SELECT " + COLONNE + " FROM utente WHERE id = ?";
+        return sqlTemplate.queryForObject(sql, UTENTE_MAPPER, id);
+    }
+
+    @Override
+    public Map<Integer, Utente> findByIds(Collection<Integer> ids) {
+        Map<Integer, Utente> utenti = new HashMap<>();
+        if (ids.isEmpty()) {
+            return utenti;
+        }
+
+        String sql = "SELECT " + COLONNE + " FROM utente WHERE id = ANY(?)";
+        for (Utente utente : sqlTemplate.queryForList(sql, UTENTE_MAPPER, (Object) ids.toArray(new Integer[0]))) {
+            utenti.put(utente.getId(), utente);
         }
-        return null;
+        return utenti;
     }
 
     @Override
     public List<Utente> findAll() {
-        // TODO: Implementare query SELECT per trovare tutti gli utenti
-        String sql = "SELECT * FROM utente ORDER BY nome, cognome";
-        List<Utente> utenti = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
-            
-            while (rs.next()) {
-                utenti.add(mapResultSetToUtente(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
+        String sql = "SELECT " + COLONNE + " FROM utente ORDER BY nome, cognome";
+        return sqlTemplate.queryForList(sql, UTENTE_MAPPER);
+    }
+
+    @Override
+    public Page<Utente> findAll(String cursore, int dimensione) {
+        Page.verificaDimensione(dimensione);
+        List<Utente> righe;
+        if (cursore == null) {
+            String sql = "SELECT " + COLONNE + " FROM utente ORDER BY nome, cognome, id LIMIT ?";
+            righe = sqlTemplate.queryForList(sql, UTENTE_MAPPER, dimensione + 1);
+        } else {
+            String[] chiave = Page.leggiCursore(cursore, 3);
+            String sql = "SELECT " + COLONNE + " FROM utente WHERE (nome, cognome, id) > (?, ?, ?) " +
+                        "ORDER BY nome, cognome, id LIMIT ?";
+            righe = sqlTemplate.queryForList(sql, UTENTE_MAPPER,
+                    chiave[0], chiave[1], Integer.parseInt(chiave[2]), dimensione + 1);
         }
-        return utenti;
+        return Page.da(righe, dimensione, u -> new Object[] {u.getNome(), u.getCognome(), u.getId()});
     }
 
     @Override
     public Utente findByLogin(String login) {
-        // TODO: Implementare query per trovare utente per login
-        String sql = "SELECT * FROM utente WHERE login = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, login);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return mapResultSetToUtente(rs);
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return null;
+        String sql = "SELECT " + COLONNE + " FROM utente WHERE login = ?";
+        return sqlTemplate.queryForObject(sql, UTENTE_MAPPER, login);
     }
 
     @Override
     public Utente findByEmail(String email) {
-        // TODO: Implementare query per trovare utente per email
-        String sql = "SELECT * FROM utente WHERE email = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, email);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return mapResultSetToUtente(rs);
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return null;
+        String sql = "SELECT " + COLONNE + " FROM utente WHERE email = ?";
+        return sqlTemplate.queryForObject(sql, UTENTE_MAPPER, email);
     }
 
     @Override
     public Utente autentica(String login, String password) {
-        // TODO: Implementare autenticazione utente
-        String sql = "SELECT * FROM utente WHERE login = ? AND password = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, login);
-            pstmt.setString(2, password);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return mapResultSetToUtente(rs);
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return null;
+        String sql = "SELECT " + COLONNE + " FROM utente WHERE login = ? AND password = ?";
+        return sqlTemplate.queryForObject(sql, UTENTE_MAPPER, login, password);
     }
 
     @Override
     public List<Utente> findOrganizzatori() {
-        // TODO: Implementare query per trovare organizzatori
         return findByRuolo("ORGANIZZATORE");
     }
 
     @Override
     public List<Utente> findGiudici() {
-        // TODO: Implementare query per trovare giudici
         return findByRuolo("GIUDICE");
     }
 
     @Override
     public List<Utente> findPartecipanti() {
-        // TODO: Implementare query per trovare partecipanti
         return findByRuolo("PARTECIPANTE");
     }
 
     @Override
     public List<Utente> findByRuolo(String ruolo) {
-        // TODO: Implementare query per trovare utenti per ruolo
-        String sql = "SELECT * FROM utente WHERE ruolo = ? ORDER BY nome, cognome";
-        List<Utente> utenti = new ArrayList<>();
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, ruolo);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                utenti.add(mapResultSetToUtente(rs));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return utenti;
+        String sql = "SELECT " + COLONNE + " FROM utente WHERE ruolo = ? ORDER BY nome, cognome";
+        return sqlTemplate.queryForList(sql, UTENTE_MAPPER, ruolo);
     }
 
     @Override
     public boolean isLoginUtilizzato(String login) {
-        // TODO: Implementare verifica login utilizzato
-        String sql = "SELECT COUNT(*) as count FROM utente WHERE login = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, login);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("count") > 0;
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
+        String sql = "SELECT 1 FROM utente WHERE login = ?";
+        return sqlTemplate.exists(sql, login);
     }
 
     @Override
     public boolean isEmailUtilizzata(String email) {
-        // TODO: Implementare verifica email utilizzata
-        String sql = "SELECT COUNT(*) as count FROM utente WHERE email = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, email);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("count") > 0;
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
+        String sql = "SELECT 1 FROM utente WHERE email = ?";
+        return sqlTemplate.exists(sql, email);
     }
 
     @Override
     public boolean cambiaPassword(int utenteId, String nuovaPassword) {
-        // TODO: Implementare cambio password
         String sql = "UPDATE utente SET password = ? WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, nuovaPassword);
-            pstmt.setInt(2, utenteId);
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-        }
-        return false;
+        return sqlTemplate.update(sql, nuovaPassword, utenteId) > 0;
     }
 
     @Override
     public boolean aggiornaRuolo(int utenteId, String nuovoRuolo) {
-        // TODO: Implementare aggiornamento ruolo
         String sql = "UPDATE utente SET ruolo = ? WHERE id = ?";
-        
-        try (Connection conn = connectionManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, nuovoRuolo);
-            pstmt.setInt(2, utenteId);
-            int rowsAffected = pstmt.executeUpdate();
-            connectionManager.commit();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            try {
-                connectionManager.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-        }
-        return false;
-    }
-
-    /**
-     * Mappa un ResultSet in un oggetto Utente
-     *
-     * @param rs il ResultSet da mappare
-     * @return l'oggetto Utente mappato
-     * @throws SQLException se si verifica un errore durante la lettura
-     */
-    private Utente mapResultSetToUtente(ResultSet rs) throws SQLException {
-        Utente utente = new Utente(
-            rs.getString("login"),
-            rs.getString("password"),
-            rs.getString("nome"),
-            rs.getString("cognome"),
-            rs.getString("email"),
-            rs.getString("ruolo")
-        );
-        
-        utente.setId(rs.getInt("id"));
-        return utente;
+        return sqlTemplate.update(sql, nuovoRuolo, utenteId) > 0;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,153 @@
+package implementazionePostgresDAO;
+
+import dao.ValutazioneDAO;
+import database.RowMapper;
+import database.SqlTemplate;
+import model.Valutazione;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementazione PostgreSQL dell'interfaccia ValutazioneDAO.
+ * Gestisce tutte le operazioni CRUD e specifiche per le valutazioni dei giudici.
+ */
+public class ValutazionePostgresDAO implements ValutazioneDAO {
+
+    /**
+     * Colonne lette da {@link #VALUTAZIONE_MAPPER}, nell'ordine in cui vengono mappate
+     */
+    static final String COLONNE = "id, giudice_id, team_id, hackathon_id, voto, commento, data_valutazione, versione";
+
+    /**
+     * Mappa una riga selezionata con {@link #COLONNE} in un oggetto Valutazione
+     */
+    static final RowMapper<Valutazione> VALUTAZIONE_MAPPER = rs -> {
+        Valutazione valutazione = new Valutazione(
+            rs.getInt(2),
+            rs.getInt(3),
+            rs.getInt(4),
+            rs.getInt(5),
+            rs.getString(6)
+        );
+
+        valutazione.setId(rs.getInt(1));
+        valutazione.setDataValutazione(SqlTemplate.toLocalDateTime(rs.getTimestamp(7)));
+        valutazione.setVersione(rs.getInt(8));
+
+        return valutazione;
+    };
+
+    /**
+     * Team di un hackathon dalla media più alta; a parità di media vince l'ID minore.
+     * team_score è mantenuta dal trigger su valutazione, quindi la classifica è una
+     * scansione dell'indice idx_team_score_classifica invece di una media sui voti
+     */
+    private static final String CLASSIFICA = "SELECT team_id FROM team_score WHERE hackathon_id = ? " +
+            "ORDER BY media DESC, team_id";
+
+    private final SqlTemplate sqlTemplate;
+
+    /**
+     * Costruttore che inizializza il template SQL
+     */
+    public ValutazionePostgresDAO() {
+        this.sqlTemplate = new SqlTemplate();
+    }
+
+    @Override
+    public Valutazione insert(Valutazione valutazione) {
+        String sql = "INSERT INTO valutazione (giudice_id, team_id, hackathon_id, voto, commento, data_valutazione) " +
+                    "VALUES (?, ?, ?, ?, ?, ?) RETURNING id";
+
+        int id = sqlTemplate.insertReturningId(sql,
+                valutazione.getGiudiceId(),
+                valutazione.getTeamId(),
+                valutazione.getHackathonId(),
+                valutazione.getVoto(),
+                valutazione.getCommento(),
+                valutazione.getDataValutazione());
+        if (id <= 0) {
+            return null;
+        }
+        valutazione.setId(id);
+        valutazione.setVersione(0);
+        return valutazione;
+    }
+
+    @Override
+    public boolean update(Valutazione valutazione) {
+        Map<String, Object> valori = new LinkedHashMap<>();
+        valori.put("voto", valutazione.getVoto());
+        valori.put("commento", valutazione.getCommento());
+        valori.put("data_valutazione", valutazione.getDataValutazione());
+
+        int versione = sqlTemplate.updateColonneVersionate("valutazione", valori,
+                valutazione.getId(), valutazione.getVersione());
+        if (versione < 0) {
+            return false;
+        }
+        valutazione.setVersione(versione);
+        return true;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        String sql = "DELETE FROM valutazione WHERE id = ?";
+        return sqlTemplate.update(sql, id) > 0;
+    }
+
+    @Override
+    public Valutazione findById(int id) {
+        String sql = "SELECT " + COLONNE + " FROM valutazione WHERE id = ?";
+        return sqlTemplate.queryForObject(sql, VALUTAZIONE_MAPPER, id);
+    }
+
+    @Override
+    public Valutazione findByGiudiceAndTeam(int giudiceId, int teamId) {
+        String sql = "SELECT " + COLONNE + " FROM valutazione WHERE giudice_id = ? AND team_id = ?";
+        return sqlTemplate.queryForObject(sql, VALUTAZIONE_MAPPER, giudiceId, teamId);
+    }
+
+    @Override
+    public List<Valutazione> findByHackathon(int hackathonId) {
+        String sql = "SELECT " + COLONNE + " FROM valutazione WHERE hackathon_id = ? ORDER BY data_valutazione DESC";
+        return sqlTemplate.queryForList(sql, VALUTAZIONE_MAPPER, hackathonId);
+    }
+
+    @Override
+    public List<Valutazione> findByTeam(int teamId) {
+        String sql = "SELECT " + COLONNE + " FROM valutazione WHERE team_id = ? ORDER BY data_valutazione DESC";
+        return sqlTemplate.queryForList(sql, VALUTAZIONE_MAPPER, teamId);
+    }
+
+    @Override
+    public List<Valutazione> findByGiudice(int giudiceId) {
+        String sql = "SELECT " + COLONNE + " FROM valutazione WHERE giudice_id = ? ORDER BY data_valutazione DESC";
+        return sqlTemplate.queryForList(sql, VALUTAZIONE_MAPPER, giudiceId);
+    }
+
+    @Override
+    public boolean haGiudiceValutatoTeam(int giudiceId, int teamId) {
+        String sql = "SELECT 1 FROM valutazione WHERE giudice_id = ? AND team_id = ?";
+        return sqlTemplate.exists(sql, giudiceId, teamId);
+    }
+
+    @Override
+    public List<Integer> findClassificaTeam(int hackathonId) {
+        return sqlTemplate.queryForList(CLASSIFICA, rs -> rs.getInt(1), hackathonId);
+    }
+
+    @Override
+    public Integer findTeamVincitore(int hackathonId) {
+        return sqlTemplate.queryForObject(CLASSIFICA + " LIMIT 1", rs -> rs.getInt(1), hackathonId);
+    }
+
+    @Override
+    public double findValutazioneMediaTeam(int teamId) {
+        String sql = "SELECT media FROM team_score WHERE team_id = ?";
+        Double media = sqlTemplate.queryForObject(sql, rs -> rs.getDouble(1), teamId);
+        return media != null ? media : 0;
+    }
+}
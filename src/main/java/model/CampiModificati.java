@@ -0,0 +1,61 @@
+package model;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Campi di un oggetto del modello modificati dall'ultimo caricamento o salvataggio,
+ * usati dai DAO per scrivere nell'update solo le colonne cambiate.
+ * Ogni modello ne tiene un'istanza con l'elenco dei propri campi persistiti.
+ */
+public class CampiModificati {
+    private final String[] campi;
+    private final Set<String> modificati = new HashSet<>();
+
+    /**
+     * Crea il tracciamento senza campi modificati
+     *
+     * @param campi i nomi dei campi persistiti
+     */
+    public CampiModificati(String... campi) {
+        this.campi = campi;
+    }
+
+    /**
+     * Segna come modificati tutti i campi persistiti: un oggetto nuovo non è ancora sul database
+     */
+    public void segnaTutti() {
+        Collections.addAll(modificati, campi);
+    }
+
+    /**
+     * Registra la modifica di un campo se il valore cambia
+     *
+     * @param campo   il nome del campo
+     * @param vecchio il valore attuale
+     * @param nuovo   il nuovo valore
+     */
+    public void modifica(String campo, Object vecchio, Object nuovo) {
+        if (!Objects.equals(vecchio, nuovo)) {
+            modificati.add(campo);
+        }
+    }
+
+    /**
+     * Ottiene i campi modificati
+     *
+     * @return i nomi dei campi modificati
+     */
+    public Set<String> getModificati() {
+        return Collections.unmodifiableSet(modificati);
+    }
+
+    /**
+     * Azzera i campi modificati
+     */
+    public void pulisci() {
+        modificati.clear();
+    }
+}
@@ -0,0 +1,19 @@
+package model;
+
+/**
+ * Esito di una registrazione ad un hackathon eseguita in modo atomico.
+ */
+public enum EsitoRegistrazione {
+    /** Registrazione inserita */
+    OK,
+    /** Posti da partecipante esauriti */
+    COMPLETO,
+    /** Registrazioni non aperte */
+    CHIUSO,
+    /** Utente già registrato all'hackathon */
+    DUPLICATO,
+    /** Hackathon inesistente */
+    NON_TROVATO,
+    /** Errore di accesso al database */
+    ERRORE
+}
@@ -0,0 +1,21 @@
+package model;
+
+/**
+ * Esito dell'accettazione atomica di una richiesta di join.
+ */
+public enum EsitoRichiestaJoin {
+    /** Richiesta accettata e utente aggiunto al team */
+    OK,
+    /** Il team ha raggiunto la dimensione massima */
+    TEAM_COMPLETO,
+    /** La richiesta è già stata accettata o rifiutata */
+    NON_IN_ATTESA,
+    /** L'utente guida o fa già parte di un altro team dello stesso hackathon */
+    GIA_IN_TEAM,
+    /** Richiesta o team inesistente */
+    NON_TROVATA,
+    /** L'utente non è il capo del team della richiesta */
+    NON_AUTORIZZATO,
+    /** Errore di accesso al database */
+    ERRORE
+}
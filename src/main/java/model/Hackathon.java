@@ -1,6 +1,7 @@
 package model;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 /**
  * Rappresenta un evento Hackathon con tutte le sue caratteristiche
@@ -16,10 +17,44 @@ public class Hackathon {
     private int organizzatoreId;
     private int maxPartecipanti;
     private int maxTeam;
-    private boolean registrazioniAperte;
+    private StatoHackathon stato;
     private String descrizioneProblema;
-    private boolean eventoAvviato;
-    private boolean eventoConcluso;
+    private int versione;
+
+    /**
+     * Campi persistiti tracciati da {@link #getCampiModificati()}. Lo stato non è tra questi:
+     * cambia solo con le transizioni verificate di HackathonDAO.cambiaStato e avviaHackathon
+     */
+    private static final String[] CAMPI = {"nome", "dataInizio", "dataFine", "sede", "isVirtuale", "organizzatoreId", "maxPartecipanti", "maxTeam", "descrizioneProblema"};
+
+    private final CampiModificati campiModificati = new CampiModificati(CAMPI);
+
+    /**
+     * Enum per gli stati del ciclo di vita di un hackathon.
+     * Ogni stato indica gli stati da cui vi si può arrivare.
+     */
+    public enum StatoHackathon {
+        BOZZA,
+        REGISTRAZIONI_APERTE,
+        REGISTRAZIONI_CHIUSE,
+        IN_CORSO,
+        CONCLUSO;
+
+        /**
+         * Ottiene gli stati da cui è ammessa la transizione verso questo stato
+         *
+         * @return gli stati precedenti ammessi
+         */
+        public StatoHackathon[] getPrecedenti() {
+            switch (this) {
+                case REGISTRAZIONI_APERTE: return new StatoHackathon[] {BOZZA, REGISTRAZIONI_CHIUSE};
+                case REGISTRAZIONI_CHIUSE: return new StatoHackathon[] {REGISTRAZIONI_APERTE};
+                case IN_CORSO: return new StatoHackathon[] {REGISTRAZIONI_APERTE, REGISTRAZIONI_CHIUSE};
+                case CONCLUSO: return new StatoHackathon[] {IN_CORSO};
+                default: return new StatoHackathon[0];
+            }
+        }
+    }
 
     /**
      * Costruttore per creare un nuovo Hackathon
@@ -42,9 +77,25 @@ public class Hackathon {
         this.organizzatoreId = organizzatoreId;
         this.maxPartecipanti = maxPartecipanti;
         this.maxTeam = maxTeam;
-        this.registrazioniAperte = false;
-        this.eventoAvviato = false;
-        this.eventoConcluso = false;
+        this.stato = StatoHackathon.BOZZA;
+        campiModificati.segnaTutti();
+    }
+
+    /**
+     * Ottiene i campi modificati dall'ultimo caricamento o salvataggio.
+     * Un hackathon appena creato ha tutti i campi modificati
+     *
+     * @return i nomi dei campi modificati
+     */
+    public Set<String> getCampiModificati() {
+        return campiModificati.getModificati();
+    }
+
+    /**
+     * Segna l'hackathon come allineato al database, azzerando i campi modificati
+     */
+    public void pulisciModifiche() {
+        campiModificati.pulisci();
     }
 
     // Getters e Setters
@@ -52,40 +103,46 @@ public class Hackathon {
     public void setId(int id) { this.id = id; }
     
     public String getNome() { return nome; }
-    public void setNome(String nome) { this.nome = nome; }
+    public void setNome(String nome) { campiModificati.modifica("nome", this.nome, nome); this.nome = nome; }
     
     public LocalDateTime getDataInizio() { return dataInizio; }
-    public void setDataInizio(LocalDateTime dataInizio) { this.dataInizio = dataInizio; }
+    public void setDataInizio(LocalDateTime dataInizio) { campiModificati.modifica("dataInizio", this.dataInizio, dataInizio); this.dataInizio = dataInizio; }
     
     public LocalDateTime getDataFine() { return dataFine; }
-    public void setDataFine(LocalDateTime dataFine) { this.dataFine = dataFine; }
+    public void setDataFine(LocalDateTime dataFine) { campiModificati.modifica("dataFine", this.dataFine, dataFine); this.dataFine = dataFine; }
     
     public String getSede() { return sede; }
-    public void setSede(String sede) { this.sede = sede; }
+    public void setSede(String sede) { campiModificati.modifica("sede", this.sede, sede); this.sede = sede; }
     
     public boolean isVirtuale() { return isVirtuale; }
-    public void setVirtuale(boolean virtuale) { isVirtuale = virtuale; }
+    public void setVirtuale(boolean virtuale) { campiModificati.modifica("isVirtuale", isVirtuale, virtuale); isVirtuale = virtuale; }
     
     public int getOrganizzatoreId() { return organizzatoreId; }
-    public void setOrganizzatoreId(int organizzatoreId) { this.organizzatoreId = organizzatoreId; }
+    public void setOrganizzatoreId(int organizzatoreId) { campiModificati.modifica("organizzatoreId", this.organizzatoreId, organizzatoreId); this.organizzatoreId = organizzatoreId; }
     
     public int getMaxPartecipanti() { return maxPartecipanti; }
-    public void setMaxPartecipanti(int maxPartecipanti) { this.maxPartecipanti = maxPartecipanti; }
+    public void setMaxPartecipanti(int maxPartecipanti) { campiModificati.modifica("maxPartecipanti", this.maxPartecipanti, maxPartecipanti); this.maxPartecipanti = maxPartecipanti; }
     
     public int getMaxTeam() { return maxTeam; }
-    public void setMaxTeam(int maxTeam) { this.maxTeam = maxTeam; }
+    public void setMaxTeam(int maxTeam) { campiModificati.modifica("maxTeam", this.maxTeam, maxTeam); this.maxTeam = maxTeam; }
+    
+    public StatoHackathon getStato() { return stato; }
+    public void setStato(StatoHackathon stato) { this.stato = stato; }
     
-    public boolean isRegistrazioniAperte() { return registrazioniAperte; }
-    public void setRegistrazioniAperte(boolean registrazioniAperte) { this.registrazioniAperte = registrazioniAperte; }
+    public boolean isRegistrazioniAperte() { return stato == StatoHackathon.REGISTRAZIONI_APERTE; }
     
     public String getDescrizioneProblema() { return descrizioneProblema; }
-    public void setDescrizioneProblema(String descrizioneProblema) { this.descrizioneProblema = descrizioneProblema; }
+    public void setDescrizioneProblema(String descrizioneProblema) { campiModificati.modifica("descrizioneProblema", this.descrizioneProblema, descrizioneProblema); this.descrizioneProblema = descrizioneProblema; }
+    
+    public boolean isEventoAvviato() { return stato == StatoHackathon.IN_CORSO || stato == StatoHackathon.CONCLUSO; }
     
-    public boolean isEventoAvviato() { return eventoAvviato; }
-    public void setEventoAvviato(boolean eventoAvviato) { this.eventoAvviato = eventoAvviato; }
+    /**
+     * Versione della riga letta dal database, usata per il controllo di concorrenza ottimistico
+     */
+    public int getVersione() { return versione; }
+    public void setVersione(int versione) { this.versione = versione; }
     
-    public boolean isEventoConcluso() { return eventoConcluso; }
-    public void setEventoConcluso(boolean eventoConcluso) { this.eventoConcluso = eventoConcluso; }
+    public boolean isEventoConcluso() { return stato == StatoHackathon.CONCLUSO; }
 
     @Override
     public String toString() {
@@ -95,7 +152,8 @@ public class Hackathon {
                 ", dataInizio=" + dataInizio +
                 ", sede='" + sede + '\'' +
                 ", isVirtuale=" + isVirtuale +
-                ", registrazioniAperte=" + registrazioniAperte +
+                ", stato=" + stato +
+                ", versione=" + versione +
                 '}';
     }
 } 
\ No newline at end of file
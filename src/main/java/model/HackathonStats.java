@@ -0,0 +1,79 @@
+package model;
+
+/**
+ * Statistiche riepilogative di un hackathon, caricate con una sola query.
+ */
+public class HackathonStats {
+    private final int hackathonId;
+    private int registrazioni;
+    private int registrazioniConfermate;
+    private int organizzatori;
+    private int giudici;
+    private int partecipanti;
+    private int team;
+    private int progressi;
+
+    /**
+     * Costruttore per le statistiche di un hackathon
+     *
+     * @param hackathonId l'ID dell'hackathon
+     */
+    public HackathonStats(int hackathonId) {
+        this.hackathonId = hackathonId;
+    }
+
+    /**
+     * Ottiene il numero di registrazioni per ruolo
+     *
+     * @param ruolo il ruolo
+     * @return il numero di registrazioni con quel ruolo
+     */
+    public int getRegistrazioniPerRuolo(Registrazione.Ruolo ruolo) {
+        switch (ruolo) {
+            case ORGANIZZATORE: return organizzatori;
+            case GIUDICE: return giudici;
+            default: return partecipanti;
+        }
+    }
+
+    // Getters e Setters
+    public int getHackathonId() { return hackathonId; }
+
+    public int getRegistrazioni() { return registrazioni; }
+    public void setRegistrazioni(int registrazioni) { this.registrazioni = registrazioni; }
+
+    /**
+     * Corrisponde a HackathonDAO.contaPartecipanti e RegistrazioneDAO.contaRegistrazioniConfermate
+     */
+    public int getRegistrazioniConfermate() { return registrazioniConfermate; }
+    public void setRegistrazioniConfermate(int registrazioniConfermate) { this.registrazioniConfermate = registrazioniConfermate; }
+
+    public int getOrganizzatori() { return organizzatori; }
+    public void setOrganizzatori(int organizzatori) { this.organizzatori = organizzatori; }
+
+    public int getGiudici() { return giudici; }
+    public void setGiudici(int giudici) { this.giudici = giudici; }
+
+    public int getPartecipanti() { return partecipanti; }
+    public void setPartecipanti(int partecipanti) { this.partecipanti = partecipanti; }
+
+    public int getTeam() { return team; }
+    public void setTeam(int team) { this.team = team; }
+
+    public int getProgressi() { return progressi; }
+    public void setProgressi(int progressi) { this.progressi = progressi; }
+
+    @Override
+    public String toString() {
+        return "HackathonStats{" +
+                "hackathonId=" + hackathonId +
+                ", registrazioni=" + registrazioni +
+                ", registrazioniConfermate=" + registrazioniConfermate +
+                ", organizzatori=" + organizzatori +
+                ", giudici=" + giudici +
+                ", partecipanti=" + partecipanti +
+                ", team=" + team +
+                ", progressi=" + progressi +
+                '}';
+    }
+}
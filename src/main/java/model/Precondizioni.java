@@ -0,0 +1,69 @@
+package model;
+
+/**
+ * Esito delle verifiche preliminari di un'operazione del Controller,
+ * caricate con una sola query. Ogni verifica valorizza solo i campi
+ * che la riguardano; gli altri restano false o 0.
+ */
+public class Precondizioni {
+    private boolean registrato;
+    private boolean confermato;
+    private boolean partecipante;
+    private boolean giaInTeam;
+    private boolean teamEsiste;
+    private boolean membro;
+    private boolean giaValutato;
+    private int hackathonId;
+
+    /**
+     * Verifica se l'utente può creare un team: registrato all'hackathon come
+     * partecipante, con registrazione confermata e non ancora in un team
+     *
+     * @return true se il team può essere creato
+     */
+    public boolean puoCreareTeam() {
+        return registrato && confermato && partecipante && !giaInTeam;
+    }
+
+    // Getters e Setters
+    public boolean isRegistrato() { return registrato; }
+    public void setRegistrato(boolean registrato) { this.registrato = registrato; }
+
+    public boolean isConfermato() { return confermato; }
+    public void setConfermato(boolean confermato) { this.confermato = confermato; }
+
+    public boolean isPartecipante() { return partecipante; }
+    public void setPartecipante(boolean partecipante) { this.partecipante = partecipante; }
+
+    public boolean isGiaInTeam() { return giaInTeam; }
+    public void setGiaInTeam(boolean giaInTeam) { this.giaInTeam = giaInTeam; }
+
+    public boolean isTeamEsiste() { return teamEsiste; }
+    public void setTeamEsiste(boolean teamEsiste) { this.teamEsiste = teamEsiste; }
+
+    public boolean isMembro() { return membro; }
+    public void setMembro(boolean membro) { this.membro = membro; }
+
+    public boolean isGiaValutato() { return giaValutato; }
+    public void setGiaValutato(boolean giaValutato) { this.giaValutato = giaValutato; }
+
+    /**
+     * L'hackathon del team verificato, 0 se il team non esiste
+     */
+    public int getHackathonId() { return hackathonId; }
+    public void setHackathonId(int hackathonId) { this.hackathonId = hackathonId; }
+
+    @Override
+    public String toString() {
+        return "Precondizioni{" +
+                "registrato=" + registrato +
+                ", confermato=" + confermato +
+                ", partecipante=" + partecipante +
+                ", giaInTeam=" + giaInTeam +
+                ", teamEsiste=" + teamEsiste +
+                ", membro=" + membro +
+                ", giaValutato=" + giaValutato +
+                ", hackathonId=" + hackathonId +
+                '}';
+    }
+}
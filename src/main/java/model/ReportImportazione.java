@@ -0,0 +1,92 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rappresenta l'esito di un'importazione massiva da CSV.
+ * Le righe sono numerate a partire da 1, esclusa l'intestazione.
+ */
+public class ReportImportazione {
+    private final String tabella;
+    private int righeLette;
+    private int righeImportate;
+    private final List<RigaScartata> scarti;
+
+    /**
+     * Riga del file non importata, con il motivo dello scarto
+     */
+    public static class RigaScartata {
+        private final int riga;
+        private final String motivo;
+
+        /**
+         * Costruttore per una riga scartata
+         *
+         * @param riga   il numero della riga nel file
+         * @param motivo il motivo dello scarto
+         */
+        public RigaScartata(int riga, String motivo) {
+            this.riga = riga;
+            this.motivo = motivo;
+        }
+
+        public int getRiga() { return riga; }
+        public String getMotivo() { return motivo; }
+
+        @Override
+        public String toString() {
+            return "riga " + riga + ": " + motivo;
+        }
+    }
+
+    /**
+     * Costruttore per il report di importazione di una tabella
+     *
+     * @param tabella la tabella di destinazione
+     */
+    public ReportImportazione(String tabella) {
+        this.tabella = tabella;
+        this.scarti = new ArrayList<>();
+    }
+
+    /**
+     * Aggiunge una riga scartata al report
+     *
+     * @param riga   il numero della riga nel file
+     * @param motivo il motivo dello scarto
+     */
+    public void aggiungiScarto(int riga, String motivo) {
+        scarti.add(new RigaScartata(riga, motivo));
+    }
+
+    /**
+     * Verifica se tutte le righe lette sono state importate
+     *
+     * @return true se non ci sono righe scartate
+     */
+    public boolean isCompleta() {
+        return scarti.isEmpty();
+    }
+
+    // Getters e Setters
+    public String getTabella() { return tabella; }
+
+    public int getRigheLette() { return righeLette; }
+    public void setRigheLette(int righeLette) { this.righeLette = righeLette; }
+
+    public int getRigheImportate() { return righeImportate; }
+    public void setRigheImportate(int righeImportate) { this.righeImportate = righeImportate; }
+
+    public List<RigaScartata> getScarti() { return scarti; }
+
+    @Override
+    public String toString() {
+        return "ReportImportazione{" +
+                "tabella='" + tabella + '\'' +
+                ", righeLette=" + righeLette +
+                ", righeImportate=" + righeImportate +
+                ", scarti=" + scarti.size() +
+                '}';
+    }
+}
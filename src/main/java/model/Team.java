@@ -2,6 +2,7 @@ package model;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Rappresenta un team di partecipanti ad un hackathon.
@@ -15,6 +16,15 @@ public class Team {
     private int dimensioneMassima;
     private List<Integer> membriId;
     private List<RichiestaJoin> richiesteJoin;
+    private int richiesteInAttesa;
+    private int versione;
+
+    /**
+     * Campi persistiti tracciati da {@link #getCampiModificati()}
+     */
+    private static final String[] CAMPI = {"nome", "hackathonId", "capoTeamId", "dimensioneMassima"};
+
+    private final CampiModificati campiModificati = new CampiModificati(CAMPI);
 
     /**
      * Costruttore per creare un nuovo team
@@ -32,6 +42,7 @@ public class Team {
         this.membriId = new ArrayList<>();
         this.membriId.add(capoTeamId); // Il capo team è automaticamente membro
         this.richiesteJoin = new ArrayList<>();
+        campiModificati.segnaTutti();
     }
 
     /**
@@ -79,27 +90,50 @@ public class Team {
         richiesteJoin.add(richiesta);
     }
 
+    /**
+     * Ottiene i campi modificati dall'ultimo caricamento o salvataggio.
+     * Un team appena creato ha tutti i campi modificati
+     *
+     * @return i nomi dei campi modificati
+     */
+    public Set<String> getCampiModificati() {
+        return campiModificati.getModificati();
+    }
+
+    /**
+     * Segna il team come allineato al database, azzerando i campi modificati
+     */
+    public void pulisciModifiche() {
+        campiModificati.pulisci();
+    }
+
     // Getters e Setters
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
     
     public String getNome() { return nome; }
-    public void setNome(String nome) { this.nome = nome; }
+    public void setNome(String nome) { campiModificati.modifica("nome", this.nome, nome); this.nome = nome; }
     
     public int getHackathonId() { return hackathonId; }
-    public void setHackathonId(int hackathonId) { this.hackathonId = hackathonId; }
+    public void setHackathonId(int hackathonId) { campiModificati.modifica("hackathonId", this.hackathonId, hackathonId); this.hackathonId = hackathonId; }
     
     public int getCapoTeamId() { return capoTeamId; }
-    public void setCapoTeamId(int capoTeamId) { this.capoTeamId = capoTeamId; }
+    public void setCapoTeamId(int capoTeamId) { campiModificati.modifica("capoTeamId", this.capoTeamId, capoTeamId); this.capoTeamId = capoTeamId; }
     
     public int getDimensioneMassima() { return dimensioneMassima; }
-    public void setDimensioneMassima(int dimensioneMassima) { this.dimensioneMassima = dimensioneMassima; }
+    public void setDimensioneMassima(int dimensioneMassima) { campiModificati.modifica("dimensioneMassima", this.dimensioneMassima, dimensioneMassima); this.dimensioneMassima = dimensioneMassima; }
     
     public List<Integer> getMembriId() { return new ArrayList<>(membriId); }
     public void setMembriId(List<Integer> membriId) { this.membriId = new ArrayList<>(membriId); }
     
     public List<RichiestaJoin> getRichiesteJoin() { return new ArrayList<>(richiesteJoin); }
     public void setRichiesteJoin(List<RichiestaJoin> richiesteJoin) { this.richiesteJoin = new ArrayList<>(richiesteJoin); }
+    
+    public int getRichiesteInAttesa() { return richiesteInAttesa; }
+    public void setRichiesteInAttesa(int richiesteInAttesa) { this.richiesteInAttesa = richiesteInAttesa; }
+    
+    public int getVersione() { return versione; }
+    public void setVersione(int versione) { this.versione = versione; }
 
     @Override
     public String toString() {
@@ -110,6 +144,7 @@ public class Team {
                 ", capoTeamId=" + capoTeamId +
                 ", dimensioneMassima=" + dimensioneMassima +
                 ", membriId=" + membriId +
+                ", versione=" + versione +
                 '}';
     }
 } 
\ No newline at end of file
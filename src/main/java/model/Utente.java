@@ -1,5 +1,7 @@
 package model;
 
+import java.util.Set;
+
 /**
  * Rappresenta un utente del sistema Hackathon Manager.
  * Può essere organizzatore, giudice o partecipante.
@@ -13,6 +15,13 @@ public class Utente {
     private String email;
     private String ruolo; // ORGANIZZATORE, GIUDICE, PARTECIPANTE
 
+    /**
+     * Campi persistiti tracciati da {@link #getCampiModificati()}
+     */
+    private static final String[] CAMPI = {"login", "password", "nome", "cognome", "email", "ruolo"};
+
+    private final CampiModificati campiModificati = new CampiModificati(CAMPI);
+
     /**
      * Costruttore per creare un nuovo utente
      *
@@ -30,6 +39,7 @@ public class Utente {
         this.cognome = cognome;
         this.email = email;
         this.ruolo = ruolo;
+        campiModificati.segnaTutti();
     }
 
     /**
@@ -69,27 +79,44 @@ public class Utente {
         return "PARTECIPANTE".equals(ruolo);
     }
 
+    /**
+     * Ottiene i campi modificati dall'ultimo caricamento o salvataggio.
+     * Un utente appena creato ha tutti i campi modificati
+     *
+     * @return i nomi dei campi modificati
+     */
+    public Set<String> getCampiModificati() {
+        return campiModificati.getModificati();
+    }
+
+    /**
+     * Segna l'utente come allineato al database, azzerando i campi modificati
+     */
+    public void pulisciModifiche() {
+        campiModificati.pulisci();
+    }
+
     // Getters e Setters
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
     
     public String getLogin() { return login; }
-    public void setLogin(String login) { this.login = login; }
+    public void setLogin(String login) { campiModificati.modifica("login", this.login, login); this.login = login; }
     
     public String getPassword() { return password; }
-    public void setPassword(String password) { this.password = password; }
+    public void setPassword(String password) { campiModificati.modifica("password", this.password, password); this.password = password; }
     
     public String getNome() { return nome; }
-    public void setNome(String nome) { this.nome = nome; }
+    public void setNome(String nome) { campiModificati.modifica("nome", this.nome, nome); this.nome = nome; }
     
     public String getCognome() { return cognome; }
-    public void setCognome(String cognome) { this.cognome = cognome; }
+    public void setCognome(String cognome) { campiModificati.modifica("cognome", this.cognome, cognome); this.cognome = cognome; }
     
     public String getEmail() { return email; }
-    public void setEmail(String email) { this.email = email; }
+    public void setEmail(String email) { campiModificati.modifica("email", this.email, email); this.email = email; }
     
     public String getRuolo() { return ruolo; }
-    public void setRuolo(String ruolo) { this.ruolo = ruolo; }
+    public void setRuolo(String ruolo) { campiModificati.modifica("ruolo", this.ruolo, ruolo); this.ruolo = ruolo; }
 
     @Override
     public String toString() {
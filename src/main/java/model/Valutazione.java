@@ -13,6 +13,7 @@ public class Valutazione {
     private int voto; // 0-10
     private String commento;
     private LocalDateTime dataValutazione;
+    private int versione;
 
     /**
      * Costruttore per creare una nuova valutazione
@@ -78,6 +79,9 @@ public class Valutazione {
     
     public LocalDateTime getDataValutazione() { return dataValutazione; }
     public void setDataValutazione(LocalDateTime dataValutazione) { this.dataValutazione = dataValutazione; }
+    
+    public int getVersione() { return versione; }
+    public void setVersione(int versione) { this.versione = versione; }
 
     @Override
     public String toString() {
@@ -89,6 +93,7 @@ public class Valutazione {
                 ", voto=" + voto +
                 ", commento='" + commento + '\'' +
                 ", dataValutazione=" + dataValutazione +
+                ", versione=" + versione +
                 '}';
     }
 } 
\ No newline at end of file
@@ -0,0 +1,249 @@
+package verifica;
+
+import cache.ClassificheInMemoria;
+import dao.ValutazioneDAO;
+import database.ConnectionManager;
+import implementazionePostgresDAO.ValutazionePostgresDAO;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Confronta su un database reale le classifiche di {@link ClassificheInMemoria} con le query
+ * che le servivano prima: {@link ValutazioneDAO#findClassificaTeam} su team_score, usata dal
+ * Controller finché le classifiche non sono caricate, e l'aggregazione AVG/GROUP BY sulla
+ * tabella valutazione.
+ * <p>
+ * Crea un hackathon con team, giudici e un voto per ogni coppia giudice-team, carica le
+ * classifiche in memoria e misura per ogni percorso classifica completa, primi 10 e posizione
+ * di un team, più l'aggiunta di un voto in memoria. Le classifiche in memoria devono
+ * coincidere con quella di team_score. I dati creati vengono eliminati al termine.
+ * <p>
+ * Uso: {@code java verifica.ConfrontoClassifiche [team] [giudici] [ripetizioni]}, con le stesse
+ * proprietà di connessione dell'applicazione. Termina con codice 1 se le classifiche non coincidono.
+ */
+public class ConfrontoClassifiche {
+    private static final int PRIMI = 10;
+
+    private static final String MEDIA_PER_TEAM = "SELECT team_id FROM valutazione WHERE hackathon_id = ? " +
+            "GROUP BY team_id ORDER BY AVG(voto) DESC, team_id";
+
+    public static void main(String[] args) throws Exception {
+        int numeroTeam = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int numeroGiudici = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int ripetizioni = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+        ConnectionManager connectionManager = ConnectionManager.getInstance();
+        String prefisso = "confronto_" + System.nanoTime() + "_";
+        int hackathonId = creaHackathon(connectionManager, prefisso);
+        List<Integer> giudici = new ArrayList<>();
+
+        boolean riuscita;
+        try {
+            List<Integer> team = creaTeam(connectionManager, prefisso, hackathonId, numeroTeam);
+            giudici.addAll(creaGiudici(connectionManager, prefisso, numeroGiudici));
+            creaVoti(connectionManager, hackathonId, giudici);
+
+            ValutazioneDAO valutazioneDAO = new ValutazionePostgresDAO();
+            ClassificheInMemoria classifiche = new ClassificheInMemoria(connectionManager);
+            long inizioCaricamento = System.nanoTime();
+            if (!classifiche.carica()) {
+                System.err.println("ERRORE: classifiche non caricate");
+                riuscita = false;
+            } else {
+                long caricamento = System.nanoTime() - inizioCaricamento;
+                System.out.println("Team: " + numeroTeam + ", giudici: " + numeroGiudici +
+                        ", ripetizioni: " + ripetizioni);
+                System.out.printf("Caricamento di tutte le classifiche: %.1f ms%n", caricamento / 1_000_000.0);
+
+                riuscita = classifiche.getClassifica(hackathonId).equals(valutazioneDAO.findClassificaTeam(hackathonId));
+                if (!riuscita) {
+                    System.err.println("ERRORE: la classifica in memoria non coincide con team_score");
+                }
+                confronta(connectionManager, valutazioneDAO, classifiche, hackathonId, team, ripetizioni);
+            }
+        } finally {
+            elimina(connectionManager, hackathonId, giudici);
+        }
+        System.exit(riuscita ? 0 : 1);
+    }
+
+    /**
+     * Misura a turno i percorsi in memoria e su database, sugli stessi team
+     */
+    private static void confronta(ConnectionManager connectionManager, ValutazioneDAO valutazioneDAO,
+                                  ClassificheInMemoria classifiche, int hackathonId, List<Integer> team,
+                                  int ripetizioni) throws SQLException {
+        SplittableRandom casuale = new SplittableRandom(42);
+        Misura memoria = new Misura("memoria: classifica", ripetizioni);
+        Misura teamScore = new Misura("team_score: classifica", ripetizioni);
+        Misura groupBy = new Misura("AVG/GROUP BY: classifica", ripetizioni);
+        for (int i = 0; i < ripetizioni; i++) {
+            misura(memoria, () -> classifiche.getClassifica(hackathonId));
+            misura(teamScore, () -> valutazioneDAO.findClassificaTeam(hackathonId));
+            misura(groupBy, () -> mediePerTeam(connectionManager, hackathonId));
+        }
+        stampa(memoria, teamScore, groupBy);
+
+        memoria = new Misura("memoria: primi " + PRIMI, ripetizioni);
+        teamScore = new Misura("team_score: primi " + PRIMI, ripetizioni);
+        for (int i = 0; i < ripetizioni; i++) {
+            misura(memoria, () -> classifiche.getPrimi(hackathonId, PRIMI));
+            misura(teamScore, () -> {
+                List<Integer> classifica = valutazioneDAO.findClassificaTeam(hackathonId);
+                return classifica.subList(0, Math.min(PRIMI, classifica.size()));
+            });
+        }
+        stampa(memoria, teamScore);
+
+        memoria = new Misura("memoria: posizione", ripetizioni);
+        teamScore = new Misura("team_score: posizione", ripetizioni);
+        for (int i = 0; i < ripetizioni; i++) {
+            int teamId = team.get(casuale.nextInt(team.size()));
+            misura(memoria, () -> classifiche.getPosizione(hackathonId, teamId));
+            misura(teamScore, () -> valutazioneDAO.findClassificaTeam(hackathonId).indexOf(teamId) + 1);
+        }
+        stampa(memoria, teamScore);
+
+        // Voti solo in memoria: la classifica non viene più confrontata con il database
+        Misura voti = new Misura("memoria: aggiunta di un voto", ripetizioni);
+        for (int i = 0; i < ripetizioni; i++) {
+            int teamId = team.get(casuale.nextInt(team.size()));
+            int voto = casuale.nextInt(11);
+            misura(voti, () -> {
+                classifiche.registraVoto(hackathonId, teamId, voto);
+                return null;
+            });
+        }
+        stampa(voti);
+    }
+
+    /**
+     * Operazione misurata che può leggere dal database
+     */
+    private interface Operazione {
+        Object esegui() throws SQLException;
+    }
+
+    private static void misura(Misura misura, Operazione operazione) throws SQLException {
+        long inizio = System.nanoTime();
+        operazione.esegui();
+        misura.registra(System.nanoTime() - inizio);
+    }
+
+    /**
+     * Le misure di un confronto sono fatte a turno nello stesso ciclo, quindi la loro durata
+     * complessiva non è significativa: vengono riportate solo le latenze
+     */
+    private static void stampa(Misura... misure) {
+        for (Misura misura : misure) {
+            System.out.printf("%-32s p50 %9.4f ms, p99 %9.4f ms%n", misura.getNome(),
+                    misura.getPercentileMs(50), misura.getPercentileMs(99));
+        }
+    }
+
+    private static List<Integer> mediePerTeam(ConnectionManager connectionManager, int hackathonId)
+            throws SQLException {
+        List<Integer> classifica = new ArrayList<>();
+        try (Connection conn = connectionManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(MEDIA_PER_TEAM)) {
+            pstmt.setInt(1, hackathonId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    classifica.add(rs.getInt(1));
+                }
+            }
+            connectionManager.commit();
+        }
+        return classifica;
+    }
+
+    private static int creaHackathon(ConnectionManager connectionManager, String prefisso) throws SQLException {
+        try (Connection conn = connectionManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "INSERT INTO hackathon (nome, data_inizio, data_fine, sede, stato) " +
+                     "VALUES (?, now() - interval '2 days', now() - interval '1 day', 'confronto', " +
+                     "'CONCLUSO') RETURNING id")) {
+            pstmt.setString(1, prefisso + "hackathon");
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                int id = rs.getInt(1);
+                connectionManager.commit();
+                return id;
+            }
+        }
+    }
+
+    private static List<Integer> creaTeam(ConnectionManager connectionManager, String prefisso, int hackathonId,
+                                          int numero) throws SQLException {
+        return inserisci(connectionManager,
+                "INSERT INTO team (nome, hackathon_id) SELECT ? || n, ? FROM generate_series(1, ?) n RETURNING id",
+                prefisso + "team_", hackathonId, numero);
+    }
+
+    private static List<Integer> creaGiudici(ConnectionManager connectionManager, String prefisso, int numero)
+            throws SQLException {
+        return inserisci(connectionManager,
+                "INSERT INTO utente (login, password, nome, cognome, email, ruolo) " +
+                "SELECT ? || n, 'confronto', 'Confronto', 'Classifiche', ? || n || '@confronto.local', " +
+                "'GIUDICE' FROM generate_series(1, ?) n RETURNING id",
+                prefisso, prefisso, numero);
+    }
+
+    /**
+     * Assegna un voto casuale di ogni giudice a ogni team dell'hackathon
+     */
+    private static void creaVoti(ConnectionManager connectionManager, int hackathonId, List<Integer> giudici)
+            throws SQLException {
+        try (Connection conn = connectionManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "INSERT INTO valutazione (giudice_id, team_id, hackathon_id, voto) " +
+                     "SELECT g.id, t.id, t.hackathon_id, floor(random() * 11)::int " +
+                     "FROM team t CROSS JOIN unnest(?) AS g(id) WHERE t.hackathon_id = ?")) {
+            Array ids = conn.createArrayOf("integer", giudici.toArray());
+            pstmt.setArray(1, ids);
+            pstmt.setInt(2, hackathonId);
+            pstmt.executeUpdate();
+            connectionManager.commit();
+        }
+    }
+
+    private static List<Integer> inserisci(ConnectionManager connectionManager, String sql, Object... parametri)
+            throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = connectionManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametri.length; i++) {
+                pstmt.setObject(i + 1, parametri[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+            connectionManager.commit();
+        }
+        return ids;
+    }
+
+    private static void elimina(ConnectionManager connectionManager, int hackathonId, List<Integer> giudici)
+            throws SQLException {
+        // Team, valutazioni e team_score vengono eliminati a cascata
+        try (Connection conn = connectionManager.getConnection();
+             PreparedStatement hackathon = conn.prepareStatement("DELETE FROM hackathon WHERE id = ?");
+             PreparedStatement utenti = conn.prepareStatement("DELETE FROM utente WHERE id = ANY(?)")) {
+            hackathon.setInt(1, hackathonId);
+            hackathon.executeUpdate();
+            Array ids = conn.createArrayOf("integer", giudici.toArray());
+            utenti.setArray(1, ids);
+            utenti.executeUpdate();
+            connectionManager.commit();
+        }
+    }
+}
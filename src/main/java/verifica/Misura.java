@@ -0,0 +1,82 @@
+package verifica;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tempi di un gruppo di operazioni misurate da una verifica: durata complessiva
+ * e latenza di ciascuna operazione, da cui operazioni al secondo e percentili.
+ * Le latenze possono essere registrate da più thread.
+ */
+class Misura {
+    private final String nome;
+    private final long[] latenze;
+    private final AtomicInteger registrate = new AtomicInteger();
+    private long inizio;
+    private long durata;
+
+    /**
+     * Crea una misura
+     *
+     * @param nome       il nome mostrato nel riepilogo
+     * @param operazioni il numero massimo di operazioni misurate
+     */
+    Misura(String nome, int operazioni) {
+        this.nome = nome;
+        this.latenze = new long[operazioni];
+    }
+
+    String getNome() {
+        return nome;
+    }
+
+    void avvia() {
+        inizio = System.nanoTime();
+    }
+
+    void termina() {
+        durata = System.nanoTime() - inizio;
+    }
+
+    /**
+     * Registra la latenza di un'operazione
+     *
+     * @param nanosecondi la durata dell'operazione
+     */
+    void registra(long nanosecondi) {
+        latenze[registrate.getAndIncrement()] = nanosecondi;
+    }
+
+    /**
+     * Ottiene le operazioni completate al secondo nell'intera durata della misura
+     *
+     * @return le operazioni al secondo
+     */
+    double getOperazioniAlSecondo() {
+        return durata > 0 ? registrate.get() * 1_000_000_000.0 / durata : 0;
+    }
+
+    /**
+     * Ottiene un percentile delle latenze registrate
+     *
+     * @param percentile il percentile, tra 0 e 100
+     * @return la latenza in millisecondi
+     */
+    double getPercentileMs(double percentile) {
+        int numero = registrate.get();
+        if (numero == 0) {
+            return 0;
+        }
+        long[] ordinate = Arrays.copyOf(latenze, numero);
+        Arrays.sort(ordinate);
+        int indice = (int) Math.ceil(percentile / 100 * numero) - 1;
+        return ordinate[Math.max(0, Math.min(indice, numero - 1))] / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-28s %6d operazioni in %8.1f ms: %10.1f op/s, p50 %7.3f ms, p99 %7.3f ms",
+                nome, registrate.get(), durata / 1_000_000.0, getOperazioniAlSecondo(),
+                getPercentileMs(50), getPercentileMs(99));
+    }
+}
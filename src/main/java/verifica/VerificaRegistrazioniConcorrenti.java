@@ -0,0 +1,243 @@
+package verifica;
+
+import dao.HackathonDAO;
+import dao.RegistrazioneDAO;
+import database.ConnectionManager;
+import implementazionePostgresDAO.HackathonPostgresDAO;
+import implementazionePostgresDAO.RegistrazionePostgresDAO;
+import model.EsitoRegistrazione;
+import model.Hackathon;
+import model.Registrazione;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Verifica su un database reale che {@link RegistrazioneDAO#registraSeDisponibile} non ammetta
+ * più partecipanti di max_partecipanti sotto concorrenza, e ne misura il throughput rispetto
+ * alla sequenza di quattro istruzioni usata in precedenza dal Controller (findById, isRegistrato,
+ * haRaggiuntoLimitePartecipanti, insert).
+ * <p>
+ * Crea due hackathon con registrazioni aperte e un utente per ogni tentativo. Su ciascun hackathon
+ * lancia tutte le registrazioni insieme su virtual thread, una volta con l'operazione atomica e
+ * una con la sequenza, e riporta registrazioni al secondo e latenze. Solo l'operazione atomica
+ * deve rispettare la capienza: per la sequenza gli ammessi in eccesso sono riportati ma non fanno
+ * fallire la verifica. I dati creati vengono eliminati al termine.
+ * <p>
+ * Uso: {@code java verifica.VerificaRegistrazioniConcorrenti [tentativi] [posti]}, con le stesse
+ * proprietà di connessione dell'applicazione. Termina con codice 1 se la verifica fallisce.
+ */
+public class VerificaRegistrazioniConcorrenti {
+
+    public static void main(String[] args) throws Exception {
+        int tentativi = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int posti = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        ConnectionManager connectionManager = ConnectionManager.getInstance();
+        String prefisso = "verifica_" + System.nanoTime() + "_";
+        int hackathonAtomico = creaHackathon(connectionManager, prefisso + "atomico", posti);
+        int hackathonSequenza = creaHackathon(connectionManager, prefisso + "sequenza", posti);
+        List<Integer> utenti = creaUtenti(connectionManager, prefisso, tentativi);
+
+        RegistrazioneDAO registrazioneDAO = new RegistrazionePostgresDAO();
+        HackathonDAO hackathonDAO = new HackathonPostgresDAO();
+
+        boolean riuscita;
+        try {
+            Misura atomica = new Misura("registraSeDisponibile", tentativi);
+            Map<EsitoRegistrazione, Integer> esitiAtomici = registraInsieme(utenti, atomica,
+                    utenteId -> registrazioneDAO.registraSeDisponibile(partecipante(utenteId, hackathonAtomico)));
+
+            Misura sequenza = new Misura("sequenza di quattro query", tentativi);
+            Map<EsitoRegistrazione, Integer> esitiSequenza = registraInsieme(utenti, sequenza,
+                    utenteId -> registraInSequenza(hackathonDAO, registrazioneDAO, utenteId, hackathonSequenza));
+
+            System.out.println("Tentativi: " + tentativi + ", posti: " + posti);
+            System.out.println(atomica + " " + esitiAtomici);
+            System.out.println(sequenza + " " + esitiSequenza);
+            int eccedenti = contaRegistrazioni(connectionManager, hackathonSequenza)[0] - posti;
+            if (eccedenti > 0) {
+                System.out.println("La sequenza ha ammesso " + eccedenti + " partecipanti oltre la capienza");
+            }
+
+            riuscita = controlla(connectionManager, hackathonAtomico, posti, tentativi, esitiAtomici);
+        } finally {
+            elimina(connectionManager, List.of(hackathonAtomico, hackathonSequenza), utenti);
+        }
+        System.exit(riuscita ? 0 : 1);
+    }
+
+    private static Registrazione partecipante(int utenteId, int hackathonId) {
+        return new Registrazione(utenteId, hackathonId, Registrazione.Ruolo.PARTECIPANTE);
+    }
+
+    /**
+     * Le verifiche e l'inserimento fatti dal Controller prima dell'operazione atomica,
+     * ciascuno con la propria istruzione e senza lock
+     */
+    private static EsitoRegistrazione registraInSequenza(HackathonDAO hackathonDAO, RegistrazioneDAO registrazioneDAO,
+                                                         int utenteId, int hackathonId) {
+        Hackathon hackathon = hackathonDAO.findById(hackathonId);
+        if (hackathon == null) {
+            return EsitoRegistrazione.NON_TROVATO;
+        }
+        if (!hackathon.isRegistrazioniAperte()) {
+            return EsitoRegistrazione.CHIUSO;
+        }
+        if (registrazioneDAO.isRegistrato(utenteId, hackathonId)) {
+            return EsitoRegistrazione.DUPLICATO;
+        }
+        if (hackathonDAO.haRaggiuntoLimitePartecipanti(hackathonId)) {
+            return EsitoRegistrazione.COMPLETO;
+        }
+        return registrazioneDAO.insert(partecipante(utenteId, hackathonId)) > 0
+                ? EsitoRegistrazione.OK
+                : EsitoRegistrazione.ERRORE;
+    }
+
+    private static Map<EsitoRegistrazione, Integer> registraInsieme(List<Integer> utenti, Misura misura,
+                                                                    IntFunction<EsitoRegistrazione> registra)
+            throws Exception {
+        CountDownLatch via = new CountDownLatch(1);
+        List<Future<EsitoRegistrazione>> futuri = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int utenteId : utenti) {
+                futuri.add(executor.submit(() -> {
+                    via.await();
+                    long inizio = System.nanoTime();
+                    EsitoRegistrazione esito = registra.apply(utenteId);
+                    misura.registra(System.nanoTime() - inizio);
+                    return esito;
+                }));
+            }
+            misura.avvia();
+            via.countDown();
+
+            Map<EsitoRegistrazione, Integer> esiti = new EnumMap<>(EsitoRegistrazione.class);
+            for (Future<EsitoRegistrazione> futuro : futuri) {
+                esiti.merge(futuro.get(), 1, Integer::sum);
+            }
+            misura.termina();
+            return esiti;
+        }
+    }
+
+    private static boolean controlla(ConnectionManager connectionManager, int hackathonId, int posti,
+                                     int tentativi, Map<EsitoRegistrazione, Integer> esiti) throws SQLException {
+        int ammessi = esiti.getOrDefault(EsitoRegistrazione.OK, 0);
+        int errori = esiti.getOrDefault(EsitoRegistrazione.ERRORE, 0);
+        int[] conteggi = contaRegistrazioni(connectionManager, hackathonId);
+        int righe = conteggi[0];
+        int contatore = conteggi[1];
+
+        System.out.println("Registrazioni inserite: " + righe + ", posti_occupati: " + contatore);
+
+        boolean riuscita = true;
+        if (ammessi > posti || righe > posti) {
+            System.err.println("ERRORE: ammessi più partecipanti dei posti disponibili");
+            riuscita = false;
+        }
+        if (righe != ammessi || contatore != righe) {
+            System.err.println("ERRORE: esiti, righe inserite e contatore non coincidono");
+            riuscita = false;
+        }
+        if (errori == 0 && ammessi != Math.min(posti, tentativi)) {
+            System.err.println("ERRORE: rifiutate registrazioni con posti ancora liberi");
+            riuscita = false;
+        }
+        if (errori > 0) {
+            System.err.println("Attenzione: " + errori + " registrazioni fallite per errori di accesso al database");
+        }
+        System.out.println(riuscita ? "Verifica superata" : "Verifica fallita");
+        return riuscita;
+    }
+
+    /**
+     * Conta le registrazioni da partecipante di un hackathon e legge il contatore posti_occupati
+     */
+    private static int[] contaRegistrazioni(ConnectionManager connectionManager, int hackathonId)
+            throws SQLException {
+        try (Connection conn = connectionManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT (SELECT COUNT(*) FROM registrazione WHERE hackathon_id = h.id AND ruolo = 'PARTECIPANTE'), " +
+                     "h.posti_occupati FROM hackathon h WHERE h.id = ?")) {
+            pstmt.setInt(1, hackathonId);
+            int[] conteggi = new int[2];
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                conteggi[0] = rs.getInt(1);
+                conteggi[1] = rs.getInt(2);
+            }
+            connectionManager.commit();
+            return conteggi;
+        }
+    }
+
+    private static int creaHackathon(ConnectionManager connectionManager, String nome, int posti)
+            throws SQLException {
+        try (Connection conn = connectionManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "INSERT INTO hackathon (nome, data_inizio, data_fine, sede, max_partecipanti, stato) " +
+                     "VALUES (?, now() + interval '30 days', now() + interval '32 days', 'verifica', ?, " +
+                     "'REGISTRAZIONI_APERTE') RETURNING id")) {
+            pstmt.setString(1, nome);
+            pstmt.setInt(2, posti);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                int id = rs.getInt(1);
+                connectionManager.commit();
+                return id;
+            }
+        }
+    }
+
+    private static List<Integer> creaUtenti(ConnectionManager connectionManager, String prefisso, int numero)
+            throws SQLException {
+        List<Integer> ids = new ArrayList<>(numero);
+        try (Connection conn = connectionManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "INSERT INTO utente (login, password, nome, cognome, email, ruolo) " +
+                     "SELECT ? || n, 'verifica', 'Verifica', 'Concorrenza', ? || n || '@verifica.local', " +
+                     "'PARTECIPANTE' FROM generate_series(1, ?) n RETURNING id")) {
+            pstmt.setString(1, prefisso);
+            pstmt.setString(2, prefisso);
+            pstmt.setInt(3, numero);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+            connectionManager.commit();
+        }
+        return ids;
+    }
+
+    private static void elimina(ConnectionManager connectionManager, List<Integer> hackathon, List<Integer> utenti)
+            throws SQLException {
+        // Le registrazioni vengono eliminate a cascata
+        try (Connection conn = connectionManager.getConnection();
+             PreparedStatement eliminaHackathon = conn.prepareStatement("DELETE FROM hackathon WHERE id = ANY(?)");
+             PreparedStatement eliminaUtenti = conn.prepareStatement("DELETE FROM utente WHERE id = ANY(?)")) {
+            Array idHackathon = conn.createArrayOf("integer", hackathon.toArray());
+            eliminaHackathon.setArray(1, idHackathon);
+            eliminaHackathon.executeUpdate();
+            Array idUtenti = conn.createArrayOf("integer", utenti.toArray());
+            eliminaUtenti.setArray(1, idUtenti);
+            eliminaUtenti.executeUpdate();
+            connectionManager.commit();
+        }
+    }
+}